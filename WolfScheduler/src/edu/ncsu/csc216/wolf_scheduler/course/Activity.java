@@ -1,6 +1,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents different activities like event and course schedule. We plan, add new events/ courses,
@@ -23,6 +24,14 @@ public abstract class Activity implements Conflict {
 	private int startTime;
 	/** Course's ending time. */
 	private int endTime;
+	/** Course's meeting days and times, shared with every Activity that meets at the same times. */
+	private MeetingPattern meetingPattern;
+	/** Number of times a setter has changed the Activity, counting from its constructor. */
+	private int modifications;
+	/** True once the constructor of the concrete class has set every field. */
+	private boolean constructed;
+	/** Number of times a setter has changed any constructed Activity. */
+	private static final AtomicLong CHANGES = new AtomicLong();
 	/**
 	 * Maximum hours.
 	 */
@@ -31,6 +40,10 @@ public abstract class Activity implements Conflict {
 	 * Maximum minutes.
 	 */
 	private static final int UPPER_MINUTE = 60;
+	/**
+	 * Every valid meeting day, in the order Monday through Sunday.
+	 */
+	private static final String DAYS = "MTWHFSU";
 	
 	/**
 	 * The short display array is used to populate the rows of the course catalog and student schedule. 
@@ -72,10 +85,20 @@ public abstract class Activity implements Conflict {
 	 * @throws IllegalArgumentException for Invalid title.
 	 */
 	public void setTitle(String title) {
-		if(title == null || "".equals(title)) {
+		if(!isValidTitle(title)) {
 			throw new IllegalArgumentException("Invalid title.");
 		}
 		this.title = title;
+		modified();
+	}
+
+	/**
+	 * Returns true if setTitle() would accept the title.
+	 * @param title the title to check
+	 * @return true if the title is valid
+	 */
+	public static boolean isValidTitle(CharSequence title) {
+		return title != null && title.length() != 0;
 	}
 
 	/**
@@ -94,71 +117,104 @@ public abstract class Activity implements Conflict {
 	 * @throws IllegalArgumentException for invalid meetingDays, start time and end time.
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		if(meetingDays == null || meetingDays.isEmpty() ) {
+		if(!isValidMeetingDaysAndTime(meetingDays, startTime, endTime, getValidDays())) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
-		if("A".equals(meetingDays)) {
-			if(startTime != 0 || endTime != 0) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
 		this.meetingDays = meetingDays;
-		this.startTime = 0;
-		this.endTime = 0;
-		return;
+	    this.startTime = startTime;
+	    this.endTime = endTime;
+	    this.meetingPattern = MeetingPattern.of(meetingDays, startTime, endTime);
+	    modified();
 	}
-	
-	int[] classDays = new int[7];
-	for(char c : meetingDays.toCharArray()) {
-		switch(c) {
-		case 'M':
-			classDays[0]++;
-			break;
-		case 'T':
-			classDays[1]++;
-			break;
-		case 'W':
-			classDays[2]++;
-			break;
-		case 'H':
-			classDays[3]++;
-			break;
-		case 'F':
-			classDays[4]++;
-			break;
-		case 'S' :
-			classDays[5]++;
-			break;
-		case 'U' :
-			classDays[6]++;
-			break;
-		default:
-			throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
+
+	/**
+	 * Returns the number of times a setter has changed the Activity, including the setters
+	 * its constructor calls.  A copy of its fields taken when the count was some value is
+	 * still current if the count has not changed since.
+	 * @return the number of changes
+	 */
+	public int getModificationCount() {
+		return modifications;
 	}
-	for(int count : classDays) {
-		if(count > 1) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+
+	/**
+	 * Returns the number of times a setter has changed any Activity after its constructor
+	 * finished.  Display rows built when the count was some value are still current if it has
+	 * not changed since, however many activities they were built from; building new activities
+	 * does not change it.
+	 * @return the number of changes to all activities
+	 */
+	public static long getChangeCount() {
+		return CHANGES.get();
+	}
+
+	/**
+	 * Counts a change made by a setter.  Every public setter calls it after it changes a field.
+	 */
+	protected void modified() {
+		modifications++;
+		if (constructed) {
+			CHANGES.incrementAndGet();
 		}
 	}
-		
+
+	/**
+	 * Marks the end of construction.  The constructor of each concrete class calls it last, so
+	 * the setters the constructors call are not counted by {@link #getChangeCount()}.
+	 */
+	protected void constructed() {
+		constructed = true;
+	}
+
+	/**
+	 * Returns every day the Activity may meet on, followed by "A" if it may be arranged
+	 * instead.  setMeetingDaysAndTime() checks meeting days against it.
+	 * @return the valid meeting days
+	 */
+	protected String getValidDays() {
+		return DAYS;
+	}
+
+	/**
+	 * Returns true if the meeting days and times are valid for an Activity that may meet on
+	 * the given days.  "A" (arranged) is valid only if validDays has it, and only with a start
+	 * and end time of 0.
+	 * @param meetingDays the meeting days to check
+	 * @param startTime the start time to check
+	 * @param endTime the end time to check
+	 * @param validDays every day the Activity may meet on, and "A" if it may be arranged
+	 * @return true if the meeting days and times are valid
+	 */
+	protected static boolean isValidMeetingDaysAndTime(CharSequence meetingDays, int startTime, int endTime, String validDays) {
+		if(meetingDays == null || meetingDays.length() == 0) {
+			return false;
+		}
+		if("A".contentEquals(meetingDays)) {
+			return validDays.indexOf('A') != -1 && startTime == 0 && endTime == 0;
+		}
+
+		int classDays = 0;
+		for(int i = 0; i < meetingDays.length(); i++) {
+			char c = meetingDays.charAt(i);
+			int day = c == 'A' ? -1 : validDays.indexOf(c);
+			if(day == -1 || (classDays & 1 << day) != 0) {
+				return false;
+			}
+			classDays |= 1 << day;
+		}
 
 		int startHour = startTime / 100;
 		int startMinute = startTime % 100;
 		int endHour = endTime / 100;
 		int endMinute = endTime % 100;
-		
+
 		if(startHour < 0 || startHour >= UPPER_HOUR || startMinute < 0 || startMinute >= UPPER_MINUTE) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");		
+			return false;
 		}
 		if(endHour < 0 || endHour >= UPPER_HOUR || endMinute < 0 || endMinute >= UPPER_MINUTE) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");		
-		}
-		if(startTime > endTime) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
+			return false;
 		}
-		this.meetingDays = meetingDays;
-	    this.startTime = startTime;
-	    this.endTime = endTime;
+		return startTime <= endTime;
 	}
 
 	/**returns the Course's meetingDays with startTime and endTime
@@ -211,6 +267,14 @@ public abstract class Activity implements Conflict {
 	public int getEndTime() {
 		return endTime;
 	}
+
+	/**
+	 * Returns the Course's meeting days and times as a shared MeetingPattern.
+	 * @return the meeting pattern
+	 */
+	public MeetingPattern getMeetingPattern() {
+		return meetingPattern;
+	}
 	
 	@Override
 	public int hashCode() {
@@ -235,17 +299,17 @@ public abstract class Activity implements Conflict {
 		return getTitle() + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime();
 	}
 
+	/**
+	 * Checks whether this Activity conflicts with another.  Arranged Activities never conflict.
+	 * Otherwise the two conflict if they share a day and their times overlap, or if one ends
+	 * at the time the other starts, even on different days.
+	 * @param possibleConflictingActivity activity to compare against for conflicts
+	 * @throws ConflictException if the Activities conflict
+	 */
 	@Override
 	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
-		if("A".equals(meetingDays) || "A".equals(possibleConflictingActivity.getMeetingDays())) {
-			return;
-		}
-		for( char day : this.getMeetingDays().toCharArray()) {
-			if(possibleConflictingActivity.getMeetingDays().indexOf(day) != -1 &&
-				this.startTime < possibleConflictingActivity.endTime && this.endTime > possibleConflictingActivity.startTime 
-				|| this.endTime == possibleConflictingActivity.startTime || this.startTime == possibleConflictingActivity.endTime) {
-					throw new ConflictException("Schedule conflict.");
-			}
+		if(meetingPattern.conflictsWith(possibleConflictingActivity.meetingPattern)) {
+			throw new ConflictException("Schedule conflict.");
 		}
 	}
 
@@ -62,6 +62,11 @@ public class Course extends Activity {
 	 */
 	private static final int MIN_CREDITS = 1;
 	
+	/**
+	 * Days a course can meet on, and "A" because a course can be arranged.
+	 */
+	private static final String WEEKDAYS = "MTWHFA";
+	
 	/**
 	 * Constructs a Course object with values for all fields.
 	 * @param name name of Course
@@ -80,6 +85,7 @@ public class Course extends Activity {
 	    setSection(section);
 	    setCredits(credits);
 	    setInstructorId(instructorId);
+	    constructed();
 	}
 	/**
 	 * Creates a Course with the given name, title, section, credits, instructorId, and meetingDays for 
@@ -109,9 +115,22 @@ public class Course extends Activity {
 	 * @throws IllegalArgumentException for Invalid course name.
 	 */
 	private void setName(String name) {
-		if(name == null || name.length() > MAX_NAME_LENGTH || name.length() < MIN_NAME_LENGTH  ) {
+		if(!isValidName(name)) {
 			throw new IllegalArgumentException("Invalid course name.");
-			
+		}
+		this.name = name;
+	}
+
+	/**
+	 * Returns true if the name is a valid Course name: one to four letters, a space, and
+	 * three digits.  Like the other validators it takes any CharSequence, so a record can be
+	 * checked where it sits in a buffer before any String is made from it.
+	 * @param name the name to check
+	 * @return true if the name is valid
+	 */
+	public static boolean isValidName(CharSequence name) {
+		if(name == null || name.length() > MAX_NAME_LENGTH || name.length() < MIN_NAME_LENGTH  ) {
+			return false;
 		}
 		int letterCount = 0;
 		int digitCount = 0;
@@ -127,25 +146,19 @@ public class Course extends Activity {
 					spaceFound = true;
 				}
 				else {
-					throw new IllegalArgumentException("Invalid course name.");
+					return false;
 				}
 			}
 			else {
-					if(Character.isDigit(c)) {
-						digitCount++;
-					}
-					else {
-						throw new IllegalArgumentException("Invalid course name.");					
+				if(Character.isDigit(c)) {
+					digitCount++;
+				}
+				else {
+					return false;
 				}
 			}
 		}
-		if(letterCount < MIN_LETTER_COUNT || letterCount > MAX_LETTER_COUNT) {
-			throw new IllegalArgumentException("Invalid course name.");
-		}
-		if(digitCount != DIGIT_COUNT) {
-			throw new IllegalArgumentException("Invalid course name.");
-		}
-		this.name = name;
+		return letterCount >= MIN_LETTER_COUNT && letterCount <= MAX_LETTER_COUNT && digitCount == DIGIT_COUNT;
 	}
 	
 	/**
@@ -162,15 +175,28 @@ public class Course extends Activity {
 	 * @throws IllegalArgumentException for Invalid section.
 	 */
 	public void setSection(String section) {
-		if(section == null || section.length() != SECTION_LENGTH ) {
+		if(!isValidSection(section)) {
 			throw new IllegalArgumentException("Invalid section.");
 		}
+		this.section = section;
+		modified();
+	}
+
+	/**
+	 * Returns true if the section is exactly three digits.
+	 * @param section the section to check
+	 * @return true if the section is valid
+	 */
+	public static boolean isValidSection(CharSequence section) {
+		if(section == null || section.length() != SECTION_LENGTH ) {
+			return false;
+		}
 		for(int i = 0; i < section.length(); i++){
 			if(!Character.isDigit(section.charAt(i))) {
-				throw new IllegalArgumentException("Invalid section.");
+				return false;
 			}
 		}
-		this.section = section;
+		return true;
 	}
 	
 	/**
@@ -187,10 +213,20 @@ public class Course extends Activity {
 	 * @throws IllegalArgumentException for Invalid number of credit hours.
 	 */
 	public void setCredits(int credits) {
-		if(credits < MIN_CREDITS || credits > MAX_CREDITS) {
+		if(!isValidCredits(credits)) {
 			throw new IllegalArgumentException("Invalid credits.");
 		}
 		this.credits = credits;
+		modified();
+	}
+
+	/**
+	 * Returns true if the credits are between MIN_CREDITS and MAX_CREDITS.
+	 * @param credits the credits to check
+	 * @return true if the credits are valid
+	 */
+	public static boolean isValidCredits(int credits) {
+		return credits >= MIN_CREDITS && credits <= MAX_CREDITS;
 	}
 	
 	/**
@@ -206,10 +242,20 @@ public class Course extends Activity {
 	 * @param instructorId the instructorId to set
 	 */
 	public void setInstructorId(String instructorId) {
-		if(instructorId == null || "".equals(instructorId)) {
+		if(!isValidInstructorId(instructorId)) {
 			throw new IllegalArgumentException("Invalid instructor id.");
 		}
 		this.instructorId = instructorId;
+		modified();
+	}
+
+	/**
+	 * Returns true if the instructor id is not null or empty.
+	 * @param instructorId the instructorId to check
+	 * @return true if the instructorId is valid
+	 */
+	public static boolean isValidInstructorId(CharSequence instructorId) {
+		return instructorId != null && instructorId.length() != 0;
 	}
 	
 	/**
@@ -253,53 +299,20 @@ public class Course extends Activity {
 		return new String[]{name, section, getTitle(), String.valueOf(credits), instructorId, getMeetingString(), ""};
 	}
 	@Override
-	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		if(meetingDays == null || meetingDays.isEmpty() ) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
-		if("A".equals(meetingDays)) {
-			if(startTime != 0 || endTime != 0) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
-			return;
-		}
-			
-			for(int i = 0; i < meetingDays.length(); i++) {
-				char c = meetingDays.charAt(i);
-				if('M' != c && 'T' != c && 'W' != c && 'H' != c && 'F' != c) {
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
-				
-			}
-			int[] classDays = new int[6];
-			for(char c : meetingDays.toCharArray()) {
-				switch(c) {
-				case 'M':
-					classDays[0]++;
-					break;
-				case 'T':
-					classDays[1]++;
-					break;
-				case 'W':
-					classDays[2]++;
-					break;
-				case 'H':
-					classDays[3]++;
-					break;
-				case 'F':
-					classDays[4]++;
-					break;
-				default:
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
-			}
-			for(int count : classDays) {
-				if(count > 1) {
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
-			}
-		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+	protected String getValidDays() {
+		return WEEKDAYS;
+	}
+
+	/**
+	 * Returns true if setMeetingDaysAndTime() would accept the meeting days and times.  A
+	 * Course meets only on weekdays, or is arranged.
+	 * @param meetingDays the meeting days to check
+	 * @param startTime the start time to check
+	 * @param endTime the end time to check
+	 * @return true if the meeting days and times are valid
+	 */
+	public static boolean isValidMeetingDaysAndTime(CharSequence meetingDays, int startTime, int endTime) {
+		return isValidMeetingDaysAndTime(meetingDays, startTime, endTime, WEEKDAYS);
 	}
 	
 	
@@ -29,6 +29,7 @@ public class Event extends Activity {
 	        throw new IllegalArgumentException("Invalid event details.");
 	    }
 	    this.eventDetails = eventDetails;
+	    modified();
 	}
 	/**
 	 * Constructs an event with title, meeting days, start time, end time and event details.
@@ -41,6 +42,7 @@ public class Event extends Activity {
 	public Event(String title, String meetingDays, int startTime, int endTime, String eventDetails) {
 		super(title, meetingDays, startTime, endTime);
 		setEventDetails(eventDetails);
+		constructed();
 	}
 	@Override
 	public String[] getShortDisplayArray() {
@@ -72,55 +74,6 @@ String longDisplay[] = new String[7];
 		// TODO Auto-generated method stub
 		return  getTitle() + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime() + "," + getEventDetails();
 	}
-	@Override
-	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
-		if(meetingDays == null || meetingDays.isEmpty() ) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
-		
-		for(int i = 0; i < meetingDays.length(); i++) {
-			char c = meetingDays.charAt(i);
-			if('M' != c && 'T' != c && 'W' != c && 'H' != c && 'F' != c && 'S' != c && 'U' != c ) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			
-		}
-		int[] eventDays = new int[7];
-		for(char c : meetingDays.toCharArray()) {
-			switch(c) {
-			case 'M':
-				eventDays[0]++;
-				break;
-			case 'T':
-				eventDays[1]++;
-				break;
-			case 'W':
-				eventDays[2]++;
-				break;
-			case 'H':
-				eventDays[3]++;
-				break;
-			case 'F':
-				eventDays[4]++;
-				break;
-			case 'S' :
-				eventDays[5]++;
-				break;
-			case 'U' :
-				eventDays[6]++;
-				break;
-			default:
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			for(int count : eventDays) {
-				if(count > 1) {
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
-			}
-		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
-	}
-}
-	
 	@Override
 	public boolean isDuplicate(Activity activity) {
 		
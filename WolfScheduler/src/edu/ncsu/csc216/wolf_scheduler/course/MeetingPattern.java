@@ -0,0 +1,162 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * When an Activity meets: a bit for each meeting day, and its start and end time in minutes
+ * from midnight.  Days are bits in the order Monday through Sunday, so "MW" and "WM" have the
+ * same pattern.  An arranged Activity has no days and a start and end of 0.
+ *
+ * Patterns are shared: of() returns the same instance for the same days and times, so a
+ * catalog holds one pattern per distinct meeting time rather than one per section.  The
+ * shared table stops taking new patterns once it holds MAX_SIZE of them; later patterns are
+ * still returned, just not shared.  Patterns are immutable and safe to share between threads.
+ *
+ * @author Srikar Donepudi
+ */
+public final class MeetingPattern {
+
+	/** Largest number of patterns that are shared. */
+	static final int MAX_SIZE = 1 << 16;
+	/** Meeting day letters, in the order of their bits. */
+	private static final String DAYS = "MTWHFSU";
+	/** Minutes in an hour. */
+	private static final int MINUTES_PER_HOUR = 60;
+	/** The pattern of every arranged Activity. */
+	private static final MeetingPattern ARRANGED = new MeetingPattern(0, 0, 0);
+	/** Shared patterns, by their packed days and times. */
+	private static final ConcurrentHashMap<Integer, MeetingPattern> PATTERNS = new ConcurrentHashMap<Integer, MeetingPattern>();
+
+	/** Bit i is set if the Activity meets on DAYS.charAt(i). */
+	private final int days;
+	/** Start time in minutes from midnight. */
+	private final int start;
+	/** End time in minutes from midnight. */
+	private final int end;
+
+	/**
+	 * Constructs a pattern.
+	 * @param days the day bits
+	 * @param start the start time in minutes from midnight
+	 * @param end the end time in minutes from midnight
+	 */
+	private MeetingPattern(int days, int start, int end) {
+		this.days = days;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the shared pattern of valid meeting days and times.  Letters that are not
+	 * meeting days are ignored, so callers check the days first.
+	 * @param meetingDays the meeting days, or "A" for arranged
+	 * @param startTime the start time in 24 hour HHMM form
+	 * @param endTime the end time in 24 hour HHMM form
+	 * @return the pattern
+	 */
+	public static MeetingPattern of(String meetingDays, int startTime, int endTime) {
+		if ("A".equals(meetingDays)) {
+			return ARRANGED;
+		}
+		int days = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day = DAYS.indexOf(meetingDays.charAt(i));
+			if (day >= 0) {
+				days |= 1 << day;
+			}
+		}
+		int start = toMinutes(startTime);
+		int end = toMinutes(endTime);
+		//7 day bits, then 11 bits for each time, which is enough for 1439 minutes
+		Integer key = days << 22 | start << 11 | end;
+		MeetingPattern pattern = PATTERNS.get(key);
+		if (pattern == null) {
+			pattern = new MeetingPattern(days, start, end);
+			if (PATTERNS.size() < MAX_SIZE) {
+				MeetingPattern shared = PATTERNS.putIfAbsent(key, pattern);
+				if (shared != null) {
+					pattern = shared;
+				}
+			}
+		}
+		return pattern;
+	}
+
+	/**
+	 * Returns a time in minutes from midnight.
+	 * @param time the time in 24 hour HHMM form
+	 * @return the minutes from midnight
+	 */
+	public static int toMinutes(int time) {
+		return time / 100 * MINUTES_PER_HOUR + time % 100;
+	}
+
+	/**
+	 * Returns the day bits: bit 0 for Monday through bit 6 for Sunday.
+	 * @return the day bits, or 0 if the pattern is arranged
+	 */
+	public int getDays() {
+		return days;
+	}
+
+	/**
+	 * Returns the start time in minutes from midnight.
+	 * @return the start time
+	 */
+	public int getStartMinute() {
+		return start;
+	}
+
+	/**
+	 * Returns the end time in minutes from midnight.
+	 * @return the end time
+	 */
+	public int getEndMinute() {
+		return end;
+	}
+
+	/**
+	 * Returns true if the pattern is arranged.
+	 * @return true if the pattern has no meeting days
+	 */
+	public boolean isArranged() {
+		return days == 0;
+	}
+
+	/**
+	 * Returns true if two patterns conflict, as Activity.checkConflict() defines it.  Arranged
+	 * patterns never conflict.  Otherwise two patterns conflict if they share a day and their
+	 * times overlap, or if one ends at the minute the other starts, whatever their days.
+	 * @param other the other pattern
+	 * @return true if the patterns conflict
+	 */
+	public boolean conflictsWith(MeetingPattern other) {
+		if (days == 0 || other.days == 0) {
+			return false;
+		}
+		return end == other.start || start == other.end
+				|| (days & other.days) != 0 && start < other.end && end > other.start;
+	}
+
+	@Override
+	public int hashCode() {
+		return days << 22 | start << 11 | end;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof MeetingPattern)) {
+			return false;
+		}
+		MeetingPattern other = (MeetingPattern) obj;
+		return days == other.days && start == other.start && end == other.end;
+	}
+
+	@Override
+	public String toString() {
+		return Integer.toBinaryString(days) + "," + start + "," + end;
+	}
+}
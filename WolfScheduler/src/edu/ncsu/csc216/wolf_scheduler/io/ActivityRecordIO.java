@@ -1,9 +1,14 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.zip.DeflaterOutputStream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 
@@ -13,20 +18,60 @@ import edu.ncsu.csc216.wolf_scheduler.course.Activity;
  */
 public class ActivityRecordIO {
 
+    /** Number of characters buffered before they are written to the file. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the given Activities to a file, one record per line.  The file is either
+     * replaced completely or left as it was.  A file named with a ".gz", ".zz" or ".deflate"
+     * extension is compressed (see RecordCompression).
+     * @param fileName file to save to
+     * @param activities Activities to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeActivityRecords(String fileName, Iterable<? extends Activity> activities) throws IOException {
+    	writeActivityRecords(fileName, activities, false);
+    }
+
     /**
-     * Writes the given list of Courses to 
+     * Writes the given Activities to a file, one record per line.  The records are buffered
+     * into a temporary file next to the target, which is then moved over the target in one
+     * step (see FileReplacement), so a crash part way through leaves either the old file or the new one and never
+     * part of the new one.  With sync, the temporary file and the move are also forced to disk
+     * before this method returns, so the new file survives a power failure.  The records are
+     * compressed as they are written if the file's extension asks for it.
      * @param fileName file to save to
-     * @param activities list of course to save
+     * @param activities Activities to save
+     * @param sync true to force the file to disk before returning
      * @throws IOException if the file cannot be written
      */
-    public static void writeActivityRecords(String fileName, ArrayList<Activity> activities) throws IOException {
-    	PrintStream fileWriter = new PrintStream(new File(fileName));
-    	
-    	for (Activity a : activities) {
-    		fileWriter.println(a.toString());
+    public static void writeActivityRecords(String fileName, Iterable<? extends Activity> activities, boolean sync) throws IOException {
+    	File target = FileReplacement.resolve(fileName);
+    	File temp = FileReplacement.createTempFile(target);
+    	try {
+    		try (FileOutputStream file = new FileOutputStream(temp);
+    				OutputStream stream = RecordCompression.forOutput(target.getName()).compress(file);
+    				Writer out = new BufferedWriter(new OutputStreamWriter(stream), BUFFER_SIZE)) {
+    			String lineSeparator = System.lineSeparator();
+    			for (Activity a : activities) {
+    				out.write(a.toString());
+    				out.write(lineSeparator);
+    			}
+    			out.flush();
+    			if (stream instanceof DeflaterOutputStream) {
+    				((DeflaterOutputStream) stream).finish();
+    			}
+    			if (sync) {
+    				file.getFD().sync();
+    			}
+    		}
+    		FileReplacement.replace(temp, target);
+    		if (sync) {
+    			FileReplacement.syncDirectory(target.getParentFile());
+    		}
+    	} finally {
+    		Files.deleteIfExists(temp.toPath());
     	}
-    	
-    	fileWriter.close();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Ways CourseRecordIO can read a course records file.  Every mode produces the same list
+ * of Courses.
+ * 
+ * @author Srikar Donepudi
+ */
+public enum CourseReadMode {
+	/** Decode the file through a buffered Reader. */
+	BUFFERED,
+	/**
+	 * Map the file into memory and parse records straight out of the mapping.  Truncating the
+	 * file while it is mapped fails the read with an InternalError, and on Windows the file
+	 * cannot be replaced while it is mapped, so this suits large catalogs that do not change.
+	 */
+	MAPPED,
+	/** Map the file into memory and parse chunks of it in parallel on the common fork/join pool. */
+	PARALLEL
+}
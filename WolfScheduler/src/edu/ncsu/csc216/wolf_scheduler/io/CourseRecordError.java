@@ -0,0 +1,46 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Reasons a line of a course records file is rejected.  Each line is given the first reason
+ * that applies, checking the number of fields first and then the fields in file order.
+ *
+ * @author Srikar Donepudi
+ */
+public enum CourseRecordError {
+	/** The line has too few or too many fields for its meeting days. */
+	FIELD_COUNT("Invalid course record."),
+	/** The name is not one to four letters, a space and three digits. */
+	NAME("Invalid course name."),
+	/** The title is empty. */
+	TITLE("Invalid title."),
+	/** The section is not three digits. */
+	SECTION("Invalid section."),
+	/** The credits are not an integer from 1 to 5. */
+	CREDITS("Invalid credits."),
+	/** The instructor id is empty. */
+	INSTRUCTOR_ID("Invalid instructor id."),
+	/** The meeting days are not valid weekdays or "A", or the times are not valid for them. */
+	MEETING_DAYS_AND_TIME("Invalid meeting days and times."),
+	/** An earlier line has a Course with the same name and section. */
+	DUPLICATE("Duplicate course.");
+
+	/** Message describing the error. */
+	private final String message;
+
+	/**
+	 * Constructs an error with the given message.
+	 * @param message message describing the error
+	 */
+	CourseRecordError(String message) {
+		this.message = message;
+	}
+
+	/**
+	 * Returns the message describing the error, which for an invalid field is the message
+	 * the Course setter for that field throws.
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
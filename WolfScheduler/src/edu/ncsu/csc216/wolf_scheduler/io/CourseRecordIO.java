@@ -2,8 +2,19 @@ package edu.ncsu.csc216.wolf_scheduler.io;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -24,82 +35,151 @@ public class CourseRecordIO {
      * @throws FileNotFoundException if the file cannot be found or read
      */
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-	    Scanner fileReader = new Scanner(new FileInputStream(fileName));  //Create a file scanner to read the file
+	    return readCourseRecords(fileName, new CourseRecordReport());
+	}
+
+    /**
+     * Reads course records from a file and generates a list of valid Courses.  Any invalid
+     * Courses are ignored.  When two records have the same name and section the first one is
+     * kept, and each dropped duplicate is counted in the report.
+     * @param fileName file to read Course records from
+     * @param report report to record load statistics in
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     */
+	public static ArrayList<Course> readCourseRecords(String fileName, CourseRecordReport report) throws FileNotFoundException {
 	    ArrayList<Course> courses = new ArrayList<Course>(); //Create an empty array of Course objects
-	    while (fileReader.hasNextLine()) { //While we have more lines in the file
-	        try { //Attempt to do the following
-	            //Read the line, process it in readCourse, and get the object
-	            //If trying to construct a Course in readCourse() results in an exception, flow of control will transfer to the catch block, below
-	            Course course = readCourse(fileReader.nextLine()); 
+	    //The iterator closes the file once it has read the last line
+	    CourseRecordIterator iterator = iterateCourseRecords(fileName, report);
+	    while (iterator.hasNext()) {
+	        courses.add(iterator.next());
+	    }
+	    //Return the ArrayList with all the courses we read!
+	    return courses;
+	}
 
-	            //Create a flag to see if the newly created Course is a duplicate of something already in the list  
-	            boolean duplicate = false;
-	            //Look at all the courses in our list
-	            for (int i = 0; i < courses.size(); i++) {
-	                //Get the course at index i
-	                Course current = courses.get(i);
-	                //Check if the name and section are the same
-	                if (course.getName().equals(current.getName()) &&
-	                        course.getSection().equals(current.getSection())) {
-	                    //It's a duplicate!
-	                    duplicate = true;
-	                    break; //We can break out of the loop, no need to continue searching
-	                }
+    /**
+     * Returns an iterator that reads the valid Courses from a file one at a time, applying the
+     * same validation and duplicate rules as readCourseRecords().  The file is closed when the
+     * iterator reaches the end of it; close the iterator to release the file sooner.  A gzip or
+     * deflate compressed file is inflated as it is read (see RecordCompression).
+     * @param fileName file to read Course records from
+     * @param report report to record load statistics in
+     * @return an iterator over the valid Courses in the file
+     * @throws FileNotFoundException if the file cannot be found or read
+     */
+	public static CourseRecordIterator iterateCourseRecords(String fileName, CourseRecordReport report) throws FileNotFoundException {
+	    PushbackInputStream file = new PushbackInputStream(new FileInputStream(fileName), RecordCompression.HEADER_LENGTH);
+	    InputStream in;
+	    try {
+	        byte[] header = new byte[RecordCompression.HEADER_LENGTH];
+	        int length = file.readNBytes(header, 0, header.length);
+	        file.unread(header, 0, length);
+	        in = RecordCompression.forInput(fileName, header, length).decompress(file);
+	    } catch (IOException e) {
+	        //A file that cannot be read is treated as ending early, as Scanner did
+	        closeQuietly(file);
+	        in = InputStream.nullInputStream();
+	    }
+	    return new CourseRecordIterator(new InputStreamReader(in), report);
+	}
+
+    /**
+     * Returns a sequential Stream of the valid Courses in a file.  Courses are parsed as the
+     * Stream consumes them, so the catalog is never held in memory as a whole.  Close the Stream,
+     * for example with try-with-resources, to release the file.
+     * @param fileName file to read Course records from
+     * @param report report to record load statistics in
+     * @return a Stream of the valid Courses in the file
+     * @throws FileNotFoundException if the file cannot be found or read
+     */
+	public static Stream<Course> streamCourseRecords(String fileName, CourseRecordReport report) throws FileNotFoundException {
+	    CourseRecordIterator iterator = iterateCourseRecords(fileName, report);
+	    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+	            .onClose(iterator::close);
+	}
+
+    /**
+     * Reads course records from a file using the given mode.  Every mode returns the same list
+     * of Courses as readCourseRecords(String, CourseRecordReport); MAPPED reads the file through
+     * a memory mapping, so multi-gigabyte catalogs are never copied onto the heap, and PARALLEL
+     * also parses the mapping on every core.  A compressed file cannot be mapped, so it is
+     * always read the BUFFERED way.
+     * @param fileName file to read Course records from
+     * @param report report to record load statistics in
+     * @param mode how to read the file
+     * @return a list of valid Courses
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be mapped
+     */
+	public static ArrayList<Course> readCourseRecords(String fileName, CourseRecordReport report, CourseReadMode mode) throws IOException {
+	    if (mode == CourseReadMode.BUFFERED) {
+	        return readCourseRecords(fileName, report);
+	    }
+	    CourseRecordLoader loader = new CourseRecordLoader(report);
+	    try (FileInputStream in = new FileInputStream(fileName); FileChannel channel = in.getChannel()) {
+	        ByteBuffer header = ByteBuffer.allocate(RecordCompression.HEADER_LENGTH);
+	        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+	            //Keep reading until the header is full or the file ends
+	        }
+	        if (RecordCompression.forInput(fileName, header.array(), header.position()) != RecordCompression.NONE) {
+	            return readCourseRecords(fileName, report);
+	        }
+	        loader.read(channel, Charset.defaultCharset(), mode == CourseReadMode.PARALLEL ? ForkJoinPool.commonPool() : null);
+	    }
+	    return loader.getCourses();
+	}
+
+    /**
+     * Reads course records from a file into a catalog that builds each Course only when it is
+     * first used.  The catalog holds the same Courses in the same order as readCourseRecords()
+     * returns and the report gets the same entries, but loading only checks each record and
+     * notes where it is.  The catalog keeps the file open until it is closed.  A compressed
+     * file cannot be read back a record at a time, so all of its Courses are built at load.
+     * @param fileName file to read Course records from
+     * @param report report to record load statistics in
+     * @param cacheSize largest number of Courses the catalog keeps built at once
+     * @return a catalog of the valid Courses
+     * @throws IllegalArgumentException if the cache size is less than one
+     * @throws FileNotFoundException if the file cannot be found or read
+     * @throws IOException if the file cannot be mapped
+     */
+	public static LazyCourseCatalog readLazyCourseRecords(String fileName, CourseRecordReport report, int cacheSize) throws IOException {
+	    FileChannel channel = new FileInputStream(fileName).getChannel();
+	    try {
+	        ByteBuffer header = ByteBuffer.allocate(RecordCompression.HEADER_LENGTH);
+	        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+	            //Keep reading until the header is full or the file ends
+	        }
+	        LazyCourseCatalog catalog;
+	        if (RecordCompression.forInput(fileName, header.array(), header.position()) != RecordCompression.NONE) {
+	            channel.close();
+	            catalog = new LazyCourseCatalog(null, cacheSize);
+	            for (Course c : readCourseRecords(fileName, report)) {
+	                catalog.addCourse(c);
 	            }
-	            //If the course is NOT a duplicate
-	            if (!duplicate) {
-	                courses.add(course); //Add to the ArrayList!
-	            } //Otherwise ignore
-	        } catch (IllegalArgumentException e) {
-	            //The line is invalid b/c we couldn't create a course, skip it!
+	        } else {
+	            catalog = new LazyCourseCatalog(channel, cacheSize);
+	            new CourseRecordLoader(report, catalog).read(channel, Charset.defaultCharset(), null);
 	        }
+	        catalog.finish();
+	        return catalog;
+	    } catch (IOException | RuntimeException e) {
+	        channel.close();
+	        throw e;
 	    }
-	    //Close the Scanner b/c we're responsible with our file handles
-	    fileReader.close();
-	    //Return the ArrayList with all the courses we read!
-	    return courses;
 	}
-	
-	private static Course readCourse(String line) {
-		Scanner scanner = new Scanner(line);
-		scanner.useDelimiter(",");
-		
-		try {
-			String name = scanner.next();
-			String title = scanner.next();
-			String section = scanner.next();
-			int credits = Integer.parseInt(scanner.next());
-			String instructorId = scanner.next();
-			String meetingDays = scanner.next();
-			
-			if("A".equals(meetingDays)) {
-				if(scanner.hasNext()) {
-					scanner.close();
-					throw new IllegalArgumentException("Error.");
-				}
-				else {
-					scanner.close();
-					return new Course(name, title, section, credits, instructorId, meetingDays, 0, 0);
-				}
-			}
-			else {
-				int startTime = Integer.parseInt(scanner.next());
-				int endTime = Integer.parseInt(scanner.next());
-				
-				if(scanner.hasNext()) {
-					scanner.close();
-					throw new IllegalArgumentException("Error.");
-				}
-				else {
-					scanner.close();
-					return new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
-				}
-			}
-		} catch(Exception e) {
-			scanner.close();
-			throw new IllegalArgumentException("Error.");
-			
-		}
+
+    /**
+     * Closes a stream that is being abandoned after a read error.
+     * @param in stream to close
+     */
+	private static void closeQuietly(InputStream in) {
+	    try {
+	        in.close();
+	    } catch (IOException e) {
+	        //The stream is unusable either way
+	    }
 	}
 
-}
\ No newline at end of file
+}
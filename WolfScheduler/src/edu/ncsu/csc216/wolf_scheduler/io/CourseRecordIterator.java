@@ -0,0 +1,196 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Iterates over the valid Courses in a course records file, reading and parsing only as far
+ * as the next Course asked for.  Invalid lines and Courses with the same name and section as an
+ * earlier one are skipped and recorded in the report with their line numbers, just as
+ * readCourseRecords() does.  Only the name and section keys of earlier Courses are kept, not
+ * the Courses.
+ *
+ * The Reader is closed as soon as the last Course has been returned, or when close() is
+ * called, whichever comes first.
+ *
+ * @author Srikar Donepudi
+ */
+public class CourseRecordIterator implements Iterator<Course>, Closeable {
+
+	/** Number of characters read from the Reader at a time. */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** Reader to read lines from, or null once it has been closed. */
+	private Reader in;
+	/** Report to record load statistics in. */
+	private final CourseRecordReport report;
+	/** Parser reused for every line. */
+	private final CourseRecordParser parser = new CourseRecordParser();
+	/** Name and section key of every Course returned so far. */
+	private final HashSet<String> keys = new HashSet<String>();
+	/** Characters read from the Reader. */
+	private char[] buffer = new char[BUFFER_SIZE];
+	/** Start of the line being scanned. */
+	private int lineStart;
+	/** Next character to look at. */
+	private int pos;
+	/** End of the characters read so far. */
+	private int limit;
+	/** Next Course to return, or null if it has not been read yet. */
+	private Course next;
+	/** Number of lines read so far. */
+	private int lineNumber;
+	/** True if the last line ended with '\r', so a '\n' right after it ends no line. */
+	private boolean skipLF;
+
+	/**
+	 * Constructs an iterator over the Courses read from the Reader.
+	 * @param in Reader to read from; it is closed by the iterator
+	 * @param report report to record load statistics in
+	 */
+	CourseRecordIterator(Reader in, CourseRecordReport report) {
+		this.in = in;
+		this.report = report;
+	}
+
+	/**
+	 * Returns true if there is another valid Course in the file, reading ahead to it if needed.
+	 * @return true if next() will return a Course
+	 */
+	@Override
+	public boolean hasNext() {
+		while (next == null && in != null) {
+			next = readCourse();
+		}
+		return next != null;
+	}
+
+	/**
+	 * Returns the next valid Course in the file.
+	 * @return the next Course
+	 * @throws NoSuchElementException if there are no more Courses
+	 */
+	@Override
+	public Course next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Course course = next;
+		next = null;
+		return course;
+	}
+
+	/**
+	 * Closes the Reader.  Calling close() more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (in != null) {
+			try {
+				in.close();
+			} catch (IOException e) {
+				//Nothing left to read, so a failure to close is harmless
+			}
+			in = null;
+		}
+	}
+
+	/**
+	 * Reads up to the end of the next line and returns its Course if the line is valid and
+	 * the Course is not a duplicate.  The Reader is closed once the last line has been read.
+	 * @return the Course on the line, or null if there is none
+	 */
+	private Course readCourse() {
+		if (skipLF && pos < limit) {
+			skipLF = false;
+			if (buffer[pos] == '\n') {
+				lineStart = ++pos;
+			}
+		}
+		while (pos < limit && !isLineSeparator(buffer[pos])) {
+			pos++;
+		}
+		if (pos == limit) {
+			if (fill()) {
+				return null; //Scan the new characters on the next call
+			}
+			close();
+			if (lineStart == limit) {
+				return null; //The file ended with a line separator
+			}
+			//The last line does not end with a line separator
+			Course course = parse(lineStart, limit);
+			lineStart = limit;
+			return course;
+		}
+		Course course = parse(lineStart, pos);
+		skipLF = buffer[pos] == '\r';
+		lineStart = ++pos;
+		return course;
+	}
+
+	/**
+	 * Moves the partial line to the front of the buffer, growing it for very long lines, and
+	 * reads more characters after it.  A read failure is treated as the end of the file, as
+	 * Scanner did.
+	 * @return true if characters were read
+	 */
+	private boolean fill() {
+		System.arraycopy(buffer, lineStart, buffer, 0, limit - lineStart);
+		limit -= lineStart;
+		pos = limit;
+		lineStart = 0;
+		if (limit == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+		try {
+			int read = in.read(buffer, limit, buffer.length - limit);
+			if (read < 0) {
+				return false;
+			}
+			limit += read;
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Parses the line buffer[start] through buffer[end - 1], counting it, and records it in
+	 * the report if it is invalid or a duplicate.
+	 * @param start offset of the first character of the line
+	 * @param end offset one past the last character of the line
+	 * @return the Course on the line, or null if the line is blank, invalid or a duplicate
+	 */
+	private Course parse(int start, int end) {
+		lineNumber++;
+		if (start == end) {
+			return null; //Blank lines are not records
+		}
+		Course course = parser.tryParse(buffer, start, end);
+		if (course == null) {
+			report.addRejected(lineNumber, parser.getError());
+		} else if (keys.add(CourseRecordLoader.key(course))) {
+			return course;
+		} else {
+			report.addRejected(lineNumber, CourseRecordError.DUPLICATE);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns true if the character ends a line, using the same separators as Scanner.nextLine().
+	 * @param c character to check
+	 * @return true if c is a line separator
+	 */
+	static boolean isLineSeparator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+}
@@ -0,0 +1,404 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Builds the list of Courses for one load of a course records file.  Lines are handed to a
+ * CourseRecordParser and every valid Course is kept unless an earlier Course had the same name
+ * and section; every other line that is not blank is recorded in the report with its line
+ * number.  Text is read straight out of a memory mapped file; CourseRecordIterator reads text
+ * from a Reader.  A loader for a LazyCourseCatalog only checks each ASCII record and hands
+ * the catalog its place in the file instead of building a Course.
+ *
+ * @author Srikar Donepudi
+ */
+class CourseRecordLoader {
+
+	/** Largest number of bytes mapped at once. */
+	private static final long MAX_MAPPING = Integer.MAX_VALUE;
+	/** Smallest number of bytes worth parsing as a separate chunk. */
+	private static final int MIN_CHUNK = 1 << 20;
+	/** Number of chunks per pool thread, so a slow chunk does not leave threads idle. */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/** Courses loaded so far, in file order. */
+	private final ArrayList<Course> courses = new ArrayList<Course>();
+	/** Name and section key of every Course in the list. */
+	private final HashSet<String> keys = new HashSet<String>();
+	/** Report to record load statistics in. */
+	private final CourseRecordReport report;
+	/** Parser reused for every line. */
+	private final CourseRecordParser parser = new CourseRecordParser();
+	/** Line number of each Course in the list, in the same order. */
+	private int[] courseLines = new int[16];
+	/** Buffer that ASCII lines from a mapped file are widened into. */
+	private char[] lineBuffer = new char[128];
+	/** Number of lines read so far. */
+	private int lineNumber;
+	/** True if the last line ended with '\r', so a '\n' right after it ends no line. */
+	private boolean skipLF;
+	/** Catalog to add records to instead of the list, or null to build every Course. */
+	private final LazyCourseCatalog lazy;
+	/** Checksum of each record added to the lazy catalog. */
+	private final CRC32 crc = new CRC32();
+	/** Buffer that the bytes of a record for the lazy catalog are copied into. */
+	private byte[] byteBuffer = new byte[128];
+	/** Offset in the file of the current mapping. */
+	private long mappingOffset;
+
+	/**
+	 * Constructs a loader that records its statistics in the given report.
+	 * @param report report to record load statistics in
+	 */
+	CourseRecordLoader(CourseRecordReport report) {
+		this(report, null);
+	}
+
+	/**
+	 * Constructs a loader that adds the valid records to a lazy catalog rather than building
+	 * a Course for each.  Such a loader must read without a pool.
+	 * @param report report to record load statistics in
+	 * @param lazy catalog to add records to, or null to build every Course
+	 */
+	CourseRecordLoader(CourseRecordReport report, LazyCourseCatalog lazy) {
+		this.report = report;
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Returns the Courses loaded so far.
+	 * @return the Courses in file order
+	 */
+	ArrayList<Course> getCourses() {
+		return courses;
+	}
+
+	/**
+	 * Reads every line of the file behind the channel by mapping it into memory, at most
+	 * MAX_MAPPING bytes at a time.  Lines that are entirely ASCII are parsed without decoding;
+	 * any other line is decoded with the given charset first.  If a pool is given, each mapping
+	 * is split into chunks on line boundaries and the chunks are parsed in the pool.  A mapping
+	 * never ends inside a line, but may end between the '\r' and '\n' of a "\r\n".
+	 * @param channel channel of the file to read
+	 * @param charset charset of any non-ASCII lines
+	 * @param pool pool to parse chunks in, or null to parse on the calling thread
+	 * @throws IOException if the file cannot be mapped
+	 */
+	void read(FileChannel channel, Charset charset, ForkJoinPool pool) throws IOException {
+		long size = channel.size();
+		long offset = 0;
+		while (offset < size) {
+			MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAX_MAPPING, size - offset));
+			int end = buf.limit();
+			if (offset + end < size) {
+				//Stop the window after its last line separator so no line is split in two
+				end = lineStart(buf, 0, end);
+				if (end == 0) {
+					end = buf.limit();
+				}
+			}
+			if (pool == null) {
+				mappingOffset = offset;
+				read(buf, 0, end, charset);
+			} else {
+				int start = skipLF && end > 0 && buf.get(0) == '\n' ? 1 : 0;
+				readChunks(buf, start, end, charset, pool);
+				skipLF = end > 0 && buf.get(end - 1) == '\r';
+			}
+			offset += end;
+		}
+	}
+
+	/**
+	 * Splits buf[start] through buf[end - 1] into chunks that start on a line, parses the
+	 * chunks in the pool and merges the results in file order.  Each chunk counts its lines
+	 * from 0 and drops the duplicates inside itself, and the merge renumbers the lines and drops
+	 * the duplicates between chunks, so the first Course with a given name and section wins and
+	 * the report is in line order just as it is when the file is read in one pass.
+	 * @param buf buffer holding the text
+	 * @param start offset of the first byte
+	 * @param end offset one past the last byte
+	 * @param charset charset of any non-ASCII lines
+	 * @param pool pool to parse the chunks in
+	 */
+	private void readChunks(MappedByteBuffer buf, int start, int end, Charset charset, ForkJoinPool pool) {
+		int count = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, (end - start) / MIN_CHUNK));
+		int[] bounds = new int[count + 1];
+		bounds[0] = start;
+		for (int i = 1; i < count; i++) {
+			bounds[i] = lineStart(buf, bounds[i - 1], (int) (start + (long) (end - start) * i / count));
+		}
+		bounds[count] = end;
+		CourseRecordLoader[] chunks = new CourseRecordLoader[count];
+		pool.invoke(new ChunkTask(buf, bounds, charset, chunks, 0, count));
+		for (CourseRecordLoader chunk : chunks) {
+			List<RejectedCourseRecord> rejected = chunk.report.getRejectedRecords();
+			int r = 0;
+			for (int i = 0; i < chunk.courses.size(); i++) {
+				for (; r < rejected.size() && rejected.get(r).getLineNumber() < chunk.courseLines[i]; r++) {
+					report.addRejected(lineNumber + rejected.get(r).getLineNumber(), rejected.get(r).getError());
+				}
+				add(chunk.courses.get(i), lineNumber + chunk.courseLines[i]);
+			}
+			for (; r < rejected.size(); r++) {
+				report.addRejected(lineNumber + rejected.get(r).getLineNumber(), rejected.get(r).getError());
+			}
+			lineNumber += chunk.lineNumber;
+		}
+	}
+
+	/**
+	 * Returns the start of the line holding buf[pos - 1], searching back no further than floor.
+	 * A position just after a line separator is already the start of a line.  A "\r\n" is
+	 * never split unless it straddles the end of the buffer.
+	 * @param buf buffer holding the text
+	 * @param floor smallest position to return
+	 * @param pos position to search back from
+	 * @return offset of the start of the line
+	 */
+	private static int lineStart(MappedByteBuffer buf, int floor, int pos) {
+		while (pos > floor && buf.get(pos - 1) != '\n' && buf.get(pos - 1) != '\r') {
+			pos--;
+		}
+		if (pos > floor && pos < buf.limit() && buf.get(pos - 1) == '\r' && buf.get(pos) == '\n') {
+			pos++;
+		}
+		return pos;
+	}
+
+	/**
+	 * Reads the lines in buf[start] through buf[end - 1].  Bytes are widened straight to chars
+	 * while the line is ASCII.  The range must start on a line, and anything after its last
+	 * line separator is read as the last line of the file.
+	 * @param buf buffer holding the text
+	 * @param start offset of the first byte
+	 * @param end offset one past the last byte
+	 * @param charset charset of any non-ASCII lines
+	 */
+	private void read(MappedByteBuffer buf, int start, int end, Charset charset) {
+		int lineStart = start;
+		boolean ascii = true;
+		for (int i = start; i < end; i++) {
+			byte b = buf.get(i);
+			if (b == '\n' || b == '\r') {
+				if (b == '\n' && skipLF) {
+					lineStart = i + 1; //Second half of a "\r\n"
+				} else {
+					addLine(buf, lineStart, i, ascii, charset);
+					lineStart = i + 1;
+					ascii = true;
+				}
+				skipLF = b == '\r';
+			} else {
+				skipLF = false;
+				if (b < 0) {
+					ascii = false;
+				}
+			}
+		}
+		if (lineStart < end) {
+			addLine(buf, lineStart, end, ascii, charset);
+		}
+	}
+
+	/**
+	 * Adds the Course on one line of a byte buffer.  A line with non-ASCII bytes is decoded
+	 * and scanned again, since it may hold line separators outside of ASCII, each of which
+	 * starts another line.
+	 * @param buf buffer holding the line
+	 * @param start offset of the first byte of the line
+	 * @param end offset one past the last byte of the line
+	 * @param ascii true if every byte of the line is ASCII
+	 * @param charset charset of the line if it is not ASCII
+	 */
+	private void addLine(MappedByteBuffer buf, int start, int end, boolean ascii, Charset charset) {
+		int length = end - start;
+		if (!ascii) {
+			CharBuffer chars = charset.decode(buf.slice(start, length));
+			read(chars.array(), chars.arrayOffset() + chars.position(), chars.arrayOffset() + chars.limit());
+			return;
+		}
+		if (length > lineBuffer.length) {
+			lineBuffer = new char[length];
+		}
+		if (lazy != null) {
+			addRecord(buf, start, length);
+			return;
+		}
+		for (int i = 0; i < length; i++) {
+			lineBuffer[i] = (char) buf.get(start + i);
+		}
+		addLine(lineBuffer, 0, length);
+	}
+
+	/**
+	 * Checks the ASCII line buf[start] through buf[start + length - 1], counting it, and adds
+	 * its place in the file to the lazy catalog if it is valid and not a duplicate.  Any other
+	 * line that is not blank is recorded in the report.
+	 * @param buf buffer holding the line
+	 * @param start offset of the first byte of the line
+	 * @param length length of the line in bytes
+	 */
+	private void addRecord(MappedByteBuffer buf, int start, int length) {
+		lineNumber++;
+		if (length == 0) {
+			return; //Blank lines are not records
+		}
+		if (length > byteBuffer.length) {
+			byteBuffer = new byte[length];
+		}
+		buf.get(start, byteBuffer, 0, length);
+		for (int i = 0; i < length; i++) {
+			lineBuffer[i] = (char) byteBuffer[i];
+		}
+		CourseRecordError error = parser.check(lineBuffer, 0, length);
+		if (error != null) {
+			report.addRejected(lineNumber, error);
+			return;
+		}
+		String key = parser.key(lineBuffer);
+		if (!keys.add(key)) {
+			report.addRejected(lineNumber, CourseRecordError.DUPLICATE);
+			return;
+		}
+		crc.reset();
+		crc.update(byteBuffer, 0, length);
+		lazy.addRecord(mappingOffset + start, length, (int) crc.getValue(), key.hashCode(), parser.nameHash(lineBuffer));
+	}
+
+	/**
+	 * Reads the lines in buf[start] through buf[end - 1], which hold a single line of the
+	 * file as far as '\r' and '\n' are concerned.  The text after the last separator is always
+	 * a line, even if it is empty.
+	 * @param buf buffer holding the text
+	 * @param start offset of the first character
+	 * @param end offset one past the last character
+	 */
+	private void read(char[] buf, int start, int end) {
+		int lineStart = start;
+		for (int i = start; i < end; i++) {
+			if (CourseRecordIterator.isLineSeparator(buf[i])) {
+				addLine(buf, lineStart, i);
+				lineStart = i + 1;
+			}
+		}
+		addLine(buf, lineStart, end);
+	}
+
+	/**
+	 * Parses the line buffer[start] through buffer[end - 1], counting it, and adds the Course
+	 * to the list if it is valid and not a duplicate of a Course already in the list.  Any
+	 * other line that is not blank is recorded in the report.
+	 * @param buffer buffer holding the line
+	 * @param start offset of the first character of the line
+	 * @param end offset one past the last character of the line
+	 */
+	private void addLine(char[] buffer, int start, int end) {
+		lineNumber++;
+		if (start == end) {
+			return; //Blank lines are not records
+		}
+		Course course = parser.tryParse(buffer, start, end);
+		if (course == null) {
+			report.addRejected(lineNumber, parser.getError());
+		} else {
+			add(course, lineNumber);
+		}
+	}
+
+	/**
+	 * Adds the Course to the list, or pins it in the lazy catalog, unless an earlier Course had
+	 * the same name and section, in which case the line is recorded in the report as a duplicate.
+	 * @param course Course to add
+	 * @param line line number of the Course
+	 */
+	private void add(Course course, int line) {
+		if (!keys.add(key(course))) {
+			report.addRejected(line, CourseRecordError.DUPLICATE);
+		} else if (lazy != null) {
+			lazy.addCourse(course);
+		} else {
+			if (courses.size() == courseLines.length) {
+				courseLines = Arrays.copyOf(courseLines, courseLines.length * 2);
+			}
+			courseLines[courses.size()] = line;
+			courses.add(course);
+		}
+	}
+
+	/**
+	 * Returns the key that identifies duplicate Courses.  Names never contain a comma, so
+	 * joining the name and section with one is unambiguous.
+	 * @param course Course to build the key for
+	 * @return the Course's name and section
+	 */
+	static String key(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+
+	/**
+	 * Parses a range of chunks of a mapped file, splitting the range in half until each
+	 * task has a single chunk.
+	 */
+	private static class ChunkTask extends RecursiveAction {
+
+		/** Default serial version UID */
+		private static final long serialVersionUID = 1L;
+		/** Buffer holding the text. */
+		private final transient MappedByteBuffer buf;
+		/** Start offset of each chunk, followed by the end of the last chunk. */
+		private final int[] bounds;
+		/** Charset of any non-ASCII lines. */
+		private final transient Charset charset;
+		/** Loader for each chunk, filled in as chunks are parsed. */
+		private final transient CourseRecordLoader[] chunks;
+		/** First chunk of the range. */
+		private final int from;
+		/** One past the last chunk of the range. */
+		private final int to;
+
+		/**
+		 * Constructs a task for chunks from through to - 1.
+		 * @param buf buffer holding the text
+		 * @param bounds start offset of each chunk, followed by the end of the last chunk
+		 * @param charset charset of any non-ASCII lines
+		 * @param chunks loader for each chunk
+		 * @param from first chunk of the range
+		 * @param to one past the last chunk of the range
+		 */
+		ChunkTask(MappedByteBuffer buf, int[] bounds, Charset charset, CourseRecordLoader[] chunks, int from, int to) {
+			this.buf = buf;
+			this.bounds = bounds;
+			this.charset = charset;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				CourseRecordLoader chunk = new CourseRecordLoader(new CourseRecordReport());
+				chunk.read(buf, bounds[from], bounds[to], charset);
+				chunks[from] = chunk;
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkTask(buf, bounds, charset, chunks, from, mid),
+						new ChunkTask(buf, bounds, charset, chunks, mid, to));
+			}
+		}
+	}
+}
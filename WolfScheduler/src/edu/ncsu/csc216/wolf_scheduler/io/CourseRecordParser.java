@@ -0,0 +1,343 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Parses comma separated Course records in a single pass over a character buffer.  Fields are
+ * located by offset and only the String fields of the Course are copied out; credits and times
+ * are converted straight from the buffer.  The tokenizing rules are the ones the Scanner based
+ * reader used: an empty first or last field is dropped, an arranged ("A") record has exactly
+ * six fields and every other record has exactly eight.
+ *
+ * A parser keeps its offset tables between calls, so one instance should be reused for every
+ * line of a file.  It also keeps a StringPool, so Courses parsed by the same instance share
+ * their repeated field values.  Instances are not thread safe.
+ *
+ * @author Srikar Donepudi
+ */
+class CourseRecordParser {
+
+	/** Field separator in a Course record. */
+	private static final char DELIMITER = ',';
+	/** Number of fields in an arranged Course record. */
+	private static final int ARRANGED_FIELDS = 6;
+	/** Number of fields in a Course record with meeting times. */
+	private static final int TIMED_FIELDS = 8;
+	/** Index of the name field. */
+	private static final int NAME = 0;
+	/** Index of the title field. */
+	private static final int TITLE = 1;
+	/** Index of the section field. */
+	private static final int SECTION = 2;
+	/** Index of the credits field. */
+	private static final int CREDITS = 3;
+	/** Index of the instructor id field. */
+	private static final int INSTRUCTOR_ID = 4;
+	/** Index of the meeting days field. */
+	private static final int MEETING_DAYS = 5;
+	/** Index of the start time field. */
+	private static final int START_TIME = 6;
+	/** Index of the end time field. */
+	private static final int END_TIME = 7;
+
+	/** Start offset of each field of the current record. */
+	private final int[] fieldStart = new int[TIMED_FIELDS];
+	/** End offset (exclusive) of each field of the current record. */
+	private final int[] fieldEnd = new int[TIMED_FIELDS];
+	/** Buffer that String input is copied into. */
+	private char[] lineBuffer = new char[128];
+	/** Reason the last record given to tryParse() was rejected, or null if it was valid. */
+	private CourseRecordError error;
+	/** View of each field of the current record, so it can be validated without a copy. */
+	private final FieldView[] views = new FieldView[TIMED_FIELDS];
+	/** True if the current record is arranged. */
+	private boolean arranged;
+	/** Credits of the current record. */
+	private int credits;
+	/** Start time of the current record, or 0 if it is arranged. */
+	private int startTime;
+	/** End time of the current record, or 0 if it is arranged. */
+	private int endTime;
+	/** Values of the String fields of every Course built by this parser. */
+	private final StringPool pool = new StringPool();
+
+	/**
+	 * Constructs a parser.
+	 */
+	CourseRecordParser() {
+		for (int i = 0; i < views.length; i++) {
+			views[i] = new FieldView();
+		}
+	}
+
+	/**
+	 * Parses a Course from a line of text.
+	 * @param line line to parse
+	 * @return the Course described by the line
+	 * @throws IllegalArgumentException if the line is not a valid Course record
+	 */
+	Course parse(String line) {
+		if (line.length() > lineBuffer.length) {
+			lineBuffer = new char[line.length()];
+		}
+		line.getChars(0, line.length(), lineBuffer, 0);
+		return parse(lineBuffer, 0, line.length());
+	}
+
+	/**
+	 * Parses a Course from the characters buf[start] through buf[end - 1].  The range must
+	 * not contain a line separator.
+	 * @param buf buffer holding the record
+	 * @param start offset of the first character of the record
+	 * @param end offset one past the last character of the record
+	 * @return the Course described by the record
+	 * @throws IllegalArgumentException if the record is not a valid Course record
+	 */
+	Course parse(char[] buf, int start, int end) {
+		Course course = tryParse(buf, start, end);
+		if (course == null) {
+			throw new IllegalArgumentException(error.getMessage());
+		}
+		return course;
+	}
+
+	/**
+	 * Parses a Course from the characters buf[start] through buf[end - 1] without throwing.
+	 * The record is checked by check() before the Course is constructed, so an invalid record
+	 * costs no more than a valid one.  The range must not contain a line separator.
+	 * @param buf buffer holding the record
+	 * @param start offset of the first character of the record
+	 * @param end offset one past the last character of the record
+	 * @return the Course described by the record, or null if it is invalid, in which case
+	 * getError() returns the reason
+	 */
+	Course tryParse(char[] buf, int start, int end) {
+		if (check(buf, start, end) != null) {
+			return null;
+		}
+		String meetingDays = arranged ? "A" : field(buf, MEETING_DAYS);
+		return new Course(field(buf, NAME), field(buf, TITLE), field(buf, SECTION), credits,
+				field(buf, INSTRUCTOR_ID), meetingDays, startTime, endTime);
+	}
+
+	/**
+	 * Checks the record buf[start] through buf[end - 1] with the Course validators without
+	 * copying any of its fields.  After a valid record, key() returns its name and section.
+	 * The range must not contain a line separator.
+	 * @param buf buffer holding the record
+	 * @param start offset of the first character of the record
+	 * @param end offset one past the last character of the record
+	 * @return null if the record is valid, or the reason it is not, which getError() also returns
+	 */
+	CourseRecordError check(char[] buf, int start, int end) {
+		error = null;
+		int count = tokenize(buf, start, end);
+		if (count < ARRANGED_FIELDS) {
+			return reject(CourseRecordError.FIELD_COUNT);
+		}
+		arranged = fieldEnd[MEETING_DAYS] - fieldStart[MEETING_DAYS] == 1 && buf[fieldStart[MEETING_DAYS]] == 'A';
+		if (count != (arranged ? ARRANGED_FIELDS : TIMED_FIELDS)) {
+			return reject(CourseRecordError.FIELD_COUNT);
+		}
+		if (!Course.isValidName(view(buf, NAME))) {
+			return reject(CourseRecordError.NAME);
+		}
+		if (!Course.isValidTitle(view(buf, TITLE))) {
+			return reject(CourseRecordError.TITLE);
+		}
+		if (!Course.isValidSection(view(buf, SECTION))) {
+			return reject(CourseRecordError.SECTION);
+		}
+		credits = parseInt(buf, CREDITS);
+		if (!Course.isValidCredits(credits)) {
+			return reject(CourseRecordError.CREDITS);
+		}
+		if (!Course.isValidInstructorId(view(buf, INSTRUCTOR_ID))) {
+			return reject(CourseRecordError.INSTRUCTOR_ID);
+		}
+		startTime = arranged ? 0 : parseInt(buf, START_TIME);
+		endTime = arranged ? 0 : parseInt(buf, END_TIME);
+		if (!Course.isValidMeetingDaysAndTime(view(buf, MEETING_DAYS), startTime, endTime)) {
+			return reject(CourseRecordError.MEETING_DAYS_AND_TIME);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the duplicate key of the last record check() found valid, in the same form as
+	 * CourseRecordLoader.key().
+	 * @param buf buffer holding the record
+	 * @return the record's name and section
+	 */
+	String key(char[] buf) {
+		int nameLength = fieldEnd[NAME] - fieldStart[NAME];
+		int sectionLength = fieldEnd[SECTION] - fieldStart[SECTION];
+		char[] key = new char[nameLength + 1 + sectionLength];
+		System.arraycopy(buf, fieldStart[NAME], key, 0, nameLength);
+		key[nameLength] = DELIMITER;
+		System.arraycopy(buf, fieldStart[SECTION], key, nameLength + 1, sectionLength);
+		return new String(key);
+	}
+
+	/**
+	 * Returns the hash of the name of the last record check() found valid, which is the
+	 * hashCode() of the Course's name.
+	 * @param buf buffer holding the record
+	 * @return the hash of the record's name
+	 */
+	int nameHash(char[] buf) {
+		int hash = 0;
+		for (int i = fieldStart[NAME]; i < fieldEnd[NAME]; i++) {
+			hash = 31 * hash + buf[i];
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the reason the last record given to tryParse() was rejected.
+	 * @return the error, or null if the last record was valid
+	 */
+	CourseRecordError getError() {
+		return error;
+	}
+
+	/**
+	 * Records the reason the current record is rejected.
+	 * @param reason reason the record is rejected
+	 * @return the reason, so check() can return it directly
+	 */
+	private CourseRecordError reject(CourseRecordError reason) {
+		error = reason;
+		return reason;
+	}
+
+	/**
+	 * Points the view of a field at a field of the current record.
+	 * @param buf buffer holding the record
+	 * @param index index of the field
+	 * @return the field's view, which is reused by the next call with the same index
+	 */
+	private CharSequence view(char[] buf, int index) {
+		views[index].set(buf, fieldStart[index], fieldEnd[index]);
+		return views[index];
+	}
+
+	/**
+	 * Splits the record into fields, filling in fieldStart and fieldEnd.  An empty first
+	 * field and an empty last field are not counted, which matches how Scanner splits a line
+	 * on a "," delimiter.
+	 * @param buf buffer holding the record
+	 * @param start offset of the first character of the record
+	 * @param end offset one past the last character of the record
+	 * @return number of fields found, or TIMED_FIELDS + 1 if there are more than eight
+	 */
+	private int tokenize(char[] buf, int start, int end) {
+		int count = 0;
+		int begin = start;
+		for (int i = start; i <= end; i++) {
+			if (i < end && buf[i] != DELIMITER) {
+				continue;
+			}
+			boolean empty = i == begin;
+			if (!(empty && (begin == start || i == end))) {
+				if (count == TIMED_FIELDS) {
+					return TIMED_FIELDS + 1;
+				}
+				fieldStart[count] = begin;
+				fieldEnd[count] = i;
+				count++;
+			}
+			begin = i + 1;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the text of a field of the current record, shared with every earlier field that
+	 * had the same text.
+	 * @param buf buffer holding the record
+	 * @param index index of the field
+	 * @return the field's text
+	 */
+	private String field(char[] buf, int index) {
+		return pool.get(buf, fieldStart[index], fieldEnd[index]);
+	}
+
+	/**
+	 * Converts a field of the current record to an int, accepting the same input as
+	 * Integer.parseInt for any value a Course could hold.  No credits or time is negative,
+	 * so -1 stands for a field that is not an integer.
+	 * @param buf buffer holding the record
+	 * @param index index of the field
+	 * @return the field's value, or -1 if it is not an integer
+	 */
+	private int parseInt(char[] buf, int index) {
+		int i = fieldStart[index];
+		int end = fieldEnd[index];
+		boolean negative = false;
+		if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+			negative = buf[i] == '-';
+			i++;
+		}
+		if (i == end) {
+			return -1;
+		}
+		int value = 0;
+		for (; i < end; i++) {
+			int digit = Character.digit(buf[i], 10);
+			if (digit < 0 || value > (Integer.MAX_VALUE - digit) / 10) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * A CharSequence over a range of a char array, repointed at each field in turn.
+	 */
+	private static class FieldView implements CharSequence {
+
+		/** Buffer holding the field. */
+		private char[] buf;
+		/** Offset of the first character of the field. */
+		private int start;
+		/** Offset one past the last character of the field. */
+		private int end;
+
+		/**
+		 * Points the view at buf[start] through buf[end - 1].
+		 * @param buf buffer holding the field
+		 * @param start offset of the first character
+		 * @param end offset one past the last character
+		 */
+		void set(char[] buf, int start, int end) {
+			this.buf = buf;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return buf[start + index];
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return toString().subSequence(from, to);
+		}
+
+		@Override
+		public String toString() {
+			return new String(buf, start, end - start);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects statistics about a load of Course records: every line that was rejected, with its
+ * line number and reason, and how many of those were duplicates.  Pass a report to
+ * CourseRecordIO.readCourseRecords() and read it once the load returns.  Blank lines are not
+ * records and are never reported.
+ *
+ * @author Srikar Donepudi
+ */
+public class CourseRecordReport {
+
+	/** Number of valid records dropped because an earlier record had the same name and section. */
+	private int duplicateCount;
+	/** Every rejected record, in line order. */
+	private final ArrayList<RejectedCourseRecord> rejected = new ArrayList<RejectedCourseRecord>();
+
+	/**
+	 * Returns the number of valid records that were dropped because an earlier record in the
+	 * file had the same name and section.
+	 * @return the duplicate count
+	 */
+	public int getDuplicateCount() {
+		return duplicateCount;
+	}
+
+	/**
+	 * Returns every rejected record, invalid or duplicate, in line order.
+	 * @return unmodifiable list of rejected records
+	 */
+	public List<RejectedCourseRecord> getRejectedRecords() {
+		return Collections.unmodifiableList(rejected);
+	}
+
+	/**
+	 * Records that the line did not produce a Course.
+	 * @param lineNumber line number of the record
+	 * @param error reason the record was rejected
+	 */
+	void addRejected(int lineNumber, CourseRecordError error) {
+		if (error == CourseRecordError.DUPLICATE) {
+			duplicateCount++;
+		}
+		rejected.add(new RejectedCourseRecord(lineNumber, error));
+	}
+}
@@ -0,0 +1,418 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Reads and writes binary snapshots of a course catalog, so a catalog can be loaded without
+ * parsing its text file again.
+ *
+ * A snapshot is columnar.  Names, titles, sections, instructor ids and meeting patterns (days,
+ * start time and end time) are each stored once in a dictionary, and each Course is a row of
+ * dictionary indexes plus its credits.  Each index column uses the narrowest of 1, 2 or 4 bytes
+ * that fits its dictionary.  The header holds the size, modified time and a CRC32C of the
+ * contents of the text file the snapshot was built from.  By default a snapshot is current if
+ * the file's size and modified time match, which is checked without reading the file.  In strict
+ * mode the file's contents are checked against the CRC32C instead, which also catches an edit
+ * that keeps the size and modified time.  The file ends with a CRC32C of everything before it.
+ *
+ * @author Srikar Donepudi
+ */
+public class CourseSnapshotIO {
+
+	/** First four bytes of every snapshot, "WSNP". */
+	private static final int MAGIC = 0x57534E50;
+	/** Version of the snapshot layout. */
+	private static final int VERSION = 3;
+	/** Number of bytes in the checksum at the end of a snapshot. */
+	private static final int CHECKSUM_BYTES = Long.BYTES;
+	/** Number of bytes read from the course records file at a time to checksum it. */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Column of Course names. */
+	private static final int NAME = 0;
+	/** Column of Course titles. */
+	private static final int TITLE = 1;
+	/** Column of Course sections. */
+	private static final int SECTION = 2;
+	/** Column of Course instructor ids. */
+	private static final int INSTRUCTOR_ID = 3;
+	/** Number of String columns. */
+	private static final int STRING_COLUMNS = 4;
+
+	/**
+	 * Loads the course catalog in fileName, using the snapshot if the file's size and modified
+	 * time are the ones it was built from.  If the snapshot is missing, stale or damaged the
+	 * text file is read instead and a new snapshot is written for next time.  Failing to write
+	 * the snapshot does not fail the load.
+	 * @param fileName course records file
+	 * @param snapshotFile snapshot of the course records file
+	 * @param report report to record load statistics in; nothing is reported when the snapshot is used
+	 * @return a list of valid Courses
+	 * @throws IOException if the course records file cannot be read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, String snapshotFile, CourseRecordReport report) throws IOException {
+		return readCourseRecords(fileName, snapshotFile, report, false);
+	}
+
+	/**
+	 * Loads the course catalog in fileName, using the snapshot if it was built from the current
+	 * version of the file.  If the snapshot is missing, stale or damaged the text file is read
+	 * instead and a new snapshot is written for next time.  Failing to write the snapshot does
+	 * not fail the load.
+	 * @param fileName course records file
+	 * @param snapshotFile snapshot of the course records file
+	 * @param report report to record load statistics in; nothing is reported when the snapshot is used
+	 * @param strict true to check the file's contents against the snapshot, false to check only
+	 * its size and modified time
+	 * @return a list of valid Courses
+	 * @throws IOException if the course records file cannot be read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, String snapshotFile, CourseRecordReport report,
+			boolean strict) throws IOException {
+		ArrayList<Course> courses = readSnapshot(snapshotFile, fileName, strict);
+		if (courses != null) {
+			return courses;
+		}
+		//Measured before parsing, so an edit made during the parse leaves the snapshot stale
+		File source = new File(fileName);
+		long length = source.length();
+		long modified = source.lastModified();
+		long checksum = checksum(source);
+		courses = CourseRecordIO.readCourseRecords(fileName, report);
+		try {
+			writeSnapshot(snapshotFile, length, modified, checksum, courses);
+		} catch (IOException e) {
+			//The snapshot is only a cache, so the catalog is still usable without it
+		}
+		return courses;
+	}
+
+	/**
+	 * Writes a snapshot of the Courses loaded from sourceFile.  The snapshot is written to a
+	 * temporary file first and then moved into place, so a reader never sees half a snapshot.
+	 * @param snapshotFile file to write the snapshot to
+	 * @param sourceFile course records file the Courses were loaded from
+	 * @param courses Courses to write
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public static void writeSnapshot(String snapshotFile, String sourceFile, List<Course> courses) throws IOException {
+		File source = new File(sourceFile);
+		writeSnapshot(snapshotFile, source.length(), source.lastModified(), checksum(source), courses);
+	}
+
+	/**
+	 * Writes a snapshot of Courses loaded from a course records file.
+	 * @param snapshotFile file to write the snapshot to
+	 * @param length size of the course records file the Courses were loaded from
+	 * @param modified modified time of the course records file the Courses were loaded from
+	 * @param checksum CRC32C of the course records file the Courses were loaded from
+	 * @param courses Courses to write
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	private static void writeSnapshot(String snapshotFile, long length, long modified, long checksum, List<Course> courses) throws IOException {
+		File target = FileReplacement.resolve(snapshotFile);
+		File temp = FileReplacement.createTempFile(target);
+		try {
+			CRC32C crc = new CRC32C();
+			try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				DataOutputStream out = new DataOutputStream(new CheckedOutputStream(file, crc));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(length);
+				out.writeLong(modified);
+				out.writeLong(checksum);
+				out.writeInt(courses.size());
+				for (int column = 0; column < STRING_COLUMNS; column++) {
+					writeColumn(out, courses, column);
+				}
+				writePatterns(out, courses);
+				for (Course c : courses) {
+					out.writeByte(c.getCredits());
+				}
+				//The checksum itself is not part of what it covers
+				file.writeLong(crc.getValue());
+			}
+			FileReplacement.replace(temp, target);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * Reads a snapshot if sourceFile has the size and modified time it was built from.
+	 * @param snapshotFile snapshot to read
+	 * @param sourceFile course records file the snapshot should have been built from
+	 * @return the Courses in the snapshot, or null if the snapshot is missing, stale or damaged
+	 */
+	public static ArrayList<Course> readSnapshot(String snapshotFile, String sourceFile) {
+		return readSnapshot(snapshotFile, sourceFile, false);
+	}
+
+	/**
+	 * Reads a snapshot if it was built from the current version of sourceFile.
+	 * @param snapshotFile snapshot to read
+	 * @param sourceFile course records file the snapshot should have been built from
+	 * @param strict true to check the contents of sourceFile against the snapshot, false to
+	 * check only its size and modified time
+	 * @return the Courses in the snapshot, or null if the snapshot is missing, stale or damaged
+	 */
+	public static ArrayList<Course> readSnapshot(String snapshotFile, String sourceFile, boolean strict) {
+		File source = new File(sourceFile);
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(new File(snapshotFile).toPath());
+		} catch (IOException e) {
+			return null;
+		}
+		if (bytes.length < CHECKSUM_BYTES) {
+			return null;
+		}
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		CRC32C crc = new CRC32C();
+		crc.update(bytes, 0, bytes.length - CHECKSUM_BYTES);
+		if (crc.getValue() != buf.getLong(bytes.length - CHECKSUM_BYTES)) {
+			return null;
+		}
+		buf.limit(bytes.length - CHECKSUM_BYTES);
+		try {
+			if (buf.getInt() != MAGIC || buf.getInt() != VERSION || buf.getLong() != source.length()) {
+				return null;
+			}
+			long modified = buf.getLong();
+			long checksum = buf.getLong();
+			if (strict ? checksum != checksum(source) : modified != source.lastModified()) {
+				return null;
+			}
+			int count = buf.getInt();
+			String[][] strings = new String[STRING_COLUMNS][];
+			int[][] columns = new int[STRING_COLUMNS][];
+			for (int i = 0; i < STRING_COLUMNS; i++) {
+				strings[i] = readDictionary(buf);
+				columns[i] = readIndexes(buf, count, strings[i].length);
+			}
+			int patternCount = buf.getInt();
+			String[] days = new String[patternCount];
+			int[] starts = new int[patternCount];
+			int[] ends = new int[patternCount];
+			for (int i = 0; i < patternCount; i++) {
+				days[i] = readString(buf);
+				starts[i] = buf.getShort();
+				ends[i] = buf.getShort();
+			}
+			int[] patterns = readIndexes(buf, count, patternCount);
+			ArrayList<Course> courses = new ArrayList<Course>(count);
+			for (int i = 0; i < count; i++) {
+				int p = patterns[i];
+				courses.add(new Course(strings[NAME][columns[NAME][i]], strings[TITLE][columns[TITLE][i]],
+						strings[SECTION][columns[SECTION][i]], buf.get(), strings[INSTRUCTOR_ID][columns[INSTRUCTOR_ID][i]],
+						days[p], starts[p], ends[p]));
+			}
+			return buf.hasRemaining() ? null : courses;
+		} catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a CRC32C of the contents of a file.
+	 * @param file file to checksum
+	 * @return the checksum
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long checksum(File file) throws IOException {
+		CRC32C crc = new CRC32C();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream in = new FileInputStream(file)) {
+			for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+				crc.update(buffer, 0, n);
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Writes one dictionary encoded String column: the distinct values in first use order,
+	 * then the index of each Course's value.
+	 * @param out stream to write to
+	 * @param courses Courses to write
+	 * @param column NAME, TITLE, SECTION or INSTRUCTOR_ID
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeColumn(DataOutputStream out, List<Course> courses, int column) throws IOException {
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		ArrayList<String> values = new ArrayList<String>();
+		int[] indexes = new int[courses.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			String value = value(courses.get(i), column);
+			Integer id = ids.get(value);
+			if (id == null) {
+				id = values.size();
+				ids.put(value, id);
+				values.add(value);
+			}
+			indexes[i] = id;
+		}
+		out.writeInt(values.size());
+		for (String value : values) {
+			writeString(out, value);
+		}
+		writeIndexes(out, indexes, values.size());
+	}
+
+	/**
+	 * Writes the meeting pattern column: the distinct (days, start, end) patterns in first use
+	 * order, then the index of each Course's pattern.
+	 * @param out stream to write to
+	 * @param courses Courses to write
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writePatterns(DataOutputStream out, List<Course> courses) throws IOException {
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		ArrayList<Course> patterns = new ArrayList<Course>();
+		int[] indexes = new int[courses.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			Course c = courses.get(i);
+			String key = c.getMeetingDays() + "," + c.getStartTime() + "," + c.getEndTime();
+			Integer id = ids.get(key);
+			if (id == null) {
+				id = patterns.size();
+				ids.put(key, id);
+				patterns.add(c);
+			}
+			indexes[i] = id;
+		}
+		out.writeInt(patterns.size());
+		for (Course c : patterns) {
+			writeString(out, c.getMeetingDays());
+			out.writeShort(c.getStartTime());
+			out.writeShort(c.getEndTime());
+		}
+		writeIndexes(out, indexes, patterns.size());
+	}
+
+	/**
+	 * Returns the value of one String column of a Course.
+	 * @param c Course to read
+	 * @param column NAME, TITLE, SECTION or INSTRUCTOR_ID
+	 * @return the column's value
+	 */
+	private static String value(Course c, int column) {
+		switch (column) {
+		case NAME:
+			return c.getName();
+		case TITLE:
+			return c.getTitle();
+		case SECTION:
+			return c.getSection();
+		default:
+			return c.getInstructorId();
+		}
+	}
+
+	/**
+	 * Writes a column of dictionary indexes in the narrowest width that fits the dictionary.
+	 * @param out stream to write to
+	 * @param indexes index of each row
+	 * @param size number of entries in the dictionary
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeIndexes(DataOutputStream out, int[] indexes, int size) throws IOException {
+		int width = width(size);
+		for (int index : indexes) {
+			if (width == Byte.BYTES) {
+				out.writeByte(index);
+			} else if (width == Short.BYTES) {
+				out.writeShort(index);
+			} else {
+				out.writeInt(index);
+			}
+		}
+	}
+
+	/**
+	 * Reads a column of dictionary indexes written by writeIndexes().
+	 * @param buf buffer to read from
+	 * @param count number of rows
+	 * @param size number of entries in the dictionary
+	 * @return index of each row
+	 */
+	private static int[] readIndexes(ByteBuffer buf, int count, int size) {
+		int width = width(size);
+		int[] indexes = new int[count];
+		for (int i = 0; i < count; i++) {
+			if (width == Byte.BYTES) {
+				indexes[i] = buf.get() & 0xFF;
+			} else if (width == Short.BYTES) {
+				indexes[i] = buf.getShort() & 0xFFFF;
+			} else {
+				indexes[i] = buf.getInt();
+			}
+		}
+		return indexes;
+	}
+
+	/**
+	 * Returns the number of bytes needed for an index into a dictionary.
+	 * @param size number of entries in the dictionary
+	 * @return 1, 2 or 4
+	 */
+	private static int width(int size) {
+		if (size <= 1 << Byte.SIZE) {
+			return Byte.BYTES;
+		}
+		return size <= 1 << Short.SIZE ? Short.BYTES : Integer.BYTES;
+	}
+
+	/**
+	 * Writes a String as its UTF-8 length followed by its UTF-8 bytes.
+	 * @param out stream to write to
+	 * @param value String to write
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a String written by writeString().
+	 * @param buf buffer to read from
+	 * @return the String
+	 */
+	private static String readString(ByteBuffer buf) {
+		int length = buf.getInt();
+		String value = new String(buf.array(), buf.position(), length, StandardCharsets.UTF_8);
+		buf.position(buf.position() + length);
+		return value;
+	}
+
+	/**
+	 * Reads a dictionary of Strings.
+	 * @param buf buffer to read from
+	 * @return the dictionary's entries
+	 */
+	private static String[] readDictionary(ByteBuffer buf) {
+		String[] values = new String[buf.getInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = readString(buf);
+		}
+		return values;
+	}
+}
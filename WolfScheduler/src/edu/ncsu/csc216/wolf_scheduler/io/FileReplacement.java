@@ -0,0 +1,109 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces a file with a new version written next to it.  A writer resolves the file it is
+ * replacing, writes the new version to a temporary file from createTempFile(), and then calls
+ * replace() to move it over the target.  Every writer that replaces a file in one step goes
+ * through here, so they all handle links, permissions and file systems without atomic moves
+ * the same way.
+ *
+ * @author Srikar Donepudi
+ */
+public final class FileReplacement {
+
+	/** Most symbolic links followed when resolving a target, as a guard against a loop */
+	private static final int MAX_LINKS = 40;
+
+	/**
+	 * FileReplacement only has static methods.
+	 */
+	private FileReplacement() {
+	}
+
+	/**
+	 * Returns the file that is really written when fileName is replaced.  If fileName is a
+	 * symbolic link, even one to a file that does not exist yet, that is the file the link
+	 * points to, so the link is kept and its target is replaced instead.
+	 * @param fileName name of the file to replace
+	 * @return the absolute file to write
+	 * @throws IOException if a link cannot be read
+	 */
+	public static File resolve(String fileName) throws IOException {
+		Path path = new File(fileName).toPath().toAbsolutePath();
+		if (Files.exists(path)) {
+			return path.toRealPath().toFile();
+		}
+		for (int links = 0; links < MAX_LINKS && Files.isSymbolicLink(path); links++) {
+			path = path.resolveSibling(Files.readSymbolicLink(path)).normalize();
+		}
+		return path.toFile();
+	}
+
+	/**
+	 * Creates an empty temporary file in the same directory as the target, so it can be moved
+	 * over the target without copying.  Unlike File.createTempFile(), the file gets the same
+	 * default permissions as any other new file.
+	 * @param target file the temporary file will replace
+	 * @return the new temporary file
+	 * @throws IOException if the file cannot be created
+	 */
+	public static File createTempFile(File target) throws IOException {
+		while (true) {
+			File temp = new File(target.getParentFile(), "." + target.getName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			if (temp.createNewFile()) {
+				return temp;
+			}
+		}
+	}
+
+	/**
+	 * Moves a temporary file over its target.  The temporary file is given the permissions
+	 * of the file it replaces first, so replacing a file does not change who can read it.
+	 * The move is atomic where the file system supports it; where it does not, the target
+	 * is replaced with an ordinary move, which a crash can interrupt.
+	 * @param temp the new version of the file
+	 * @param target the file to replace
+	 * @throws IOException if the file cannot be replaced
+	 */
+	public static void replace(File temp, File target) throws IOException {
+		Path from = temp.toPath();
+		Path to = target.toPath();
+		if (Files.exists(to, LinkOption.NOFOLLOW_LINKS)) {
+			try {
+				Files.setPosixFilePermissions(from, Files.getPosixFilePermissions(to));
+			} catch (UnsupportedOperationException e) {
+				//Not a POSIX file system, so the new file's default permissions stand
+			}
+		}
+		try {
+			Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Forces a directory's entries to disk so a file moved into it stays moved after a power
+	 * failure.  Some platforms cannot open a directory for this; the move has still happened,
+	 * so the failure is ignored.
+	 * @param directory directory to sync
+	 */
+	public static void syncDirectory(File directory) {
+		try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			//Nothing more can be done; the file itself is already on disk
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * The valid Courses of a course records file, built only when they are first used.  Loading
+ * the file checks every record and keeps just where each valid one is in the file, a checksum
+ * of its bytes and the hash of its name and section.  get() reads the record back from the
+ * file and parses it, and keeps the most recently used Courses in a cache of a fixed size, so
+ * a catalog that is mostly looked up by name and section never holds most of its Courses.
+ * Lookups by name, and by name and section, go through hash tables built at load and only
+ * read the records whose hash matches.
+ *
+ * A record that is not ASCII, and every record of a compressed file, is parsed at load and
+ * held for the life of the catalog.  The file is kept open until the catalog is closed.  If
+ * it is changed in place in the meantime, get() throws IllegalStateException rather than
+ * return a Course that was never checked; WolfScheduler catches it and reloads the file.
+ *
+ * A Course that is read back is only the same object as an earlier one with the same index
+ * while it stays in the cache.  Once it has been evicted, get() reads and parses the record
+ * again and returns an equal but new Course, so Courses from the catalog are compared with
+ * equals() rather than by identity.  A caller that needs the same object back, as a schedule
+ * does for the Courses in it, pins it with pin() so it is never evicted, until unpin().
+ *
+ * @author Srikar Donepudi
+ */
+public class LazyCourseCatalog extends AbstractList<Course> implements RandomAccess, Closeable {
+
+	/** Offset that marks a Course parsed at load rather than read from the file. */
+	private static final long PINNED = -1;
+	/** Marks an empty slot of a hash table. */
+	private static final int EMPTY = -1;
+
+	/** Channel of the file the records are read from, or null if every Course is pinned. */
+	private final FileChannel channel;
+	/** Largest number of Courses kept in the cache. */
+	private final int cacheSize;
+	/** Parser reused for every record read back. */
+	private final CourseRecordParser parser = new CourseRecordParser();
+	/** Checksum reused for every record read back. */
+	private final CRC32 crc = new CRC32();
+	/** Most recently used Courses by index, least recent first. */
+	private final LinkedHashMap<Integer, Course> cache;
+	/** Courses parsed at load, by index. */
+	private final HashMap<Integer, Course> pinned = new HashMap<Integer, Course>();
+	/** Courses pinned by pin(), by index, returned instead of reading the record. */
+	private final HashMap<Integer, Course> held = new HashMap<Integer, Course>();
+	/** Byte offset of each record in the file, or PINNED. */
+	private long[] offsets = new long[16];
+	/** Length in bytes of each record. */
+	private int[] lengths = new int[16];
+	/** CRC-32 of the bytes of each record. */
+	private int[] checksums = new int[16];
+	/** Hash of the name and section key of each Course. */
+	private int[] keyHashes = new int[16];
+	/** Hash of the name of each Course. */
+	private int[] nameHashes = new int[16];
+	/** Open addressing table of indexes, probed from the key hash, filled in by finish(). */
+	private int[] table = new int[0];
+	/** Open addressing table of indexes, probed from the name hash, filled in by finish(). */
+	private int[] nameTable = new int[0];
+	/** Number of Courses in the catalog. */
+	private int size;
+	/** Buffer records are read into. */
+	private ByteBuffer bytes = ByteBuffer.allocate(128);
+	/** Buffer records are widened into. */
+	private char[] chars = new char[128];
+
+	/**
+	 * Constructs an empty catalog over a file.
+	 * @param channel channel of the file the records are read from, or null if every Course
+	 * will be pinned
+	 * @param cacheSize largest number of Courses kept in the cache
+	 * @throws IllegalArgumentException if the cache size is less than one
+	 */
+	LazyCourseCatalog(FileChannel channel, int cacheSize) {
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("Invalid cache size.");
+		}
+		this.channel = channel;
+		this.cacheSize = cacheSize;
+		this.cache = new LinkedHashMap<Integer, Course>(16, 0.75f, true) {
+			/** Default serial version UID */
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Course> eldest) {
+				return size() > LazyCourseCatalog.this.cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Adds a valid ASCII record that will be read back from the file when it is used.
+	 * @param offset byte offset of the record in the file
+	 * @param length length of the record in bytes
+	 * @param checksum CRC-32 of the record's bytes
+	 * @param keyHash hash of the record's name and section key
+	 * @param nameHash hash of the record's name
+	 */
+	void addRecord(long offset, int length, int checksum, int keyHash, int nameHash) {
+		grow();
+		offsets[size] = offset;
+		lengths[size] = length;
+		checksums[size] = checksum;
+		keyHashes[size] = keyHash;
+		nameHashes[size] = nameHash;
+		size++;
+	}
+
+	/**
+	 * Adds a Course that was parsed at load and is held for the life of the catalog.
+	 * @param course Course to add
+	 */
+	void addCourse(Course course) {
+		grow();
+		offsets[size] = PINNED;
+		keyHashes[size] = CourseRecordLoader.key(course).hashCode();
+		nameHashes[size] = course.getName().hashCode();
+		pinned.put(size, course);
+		size++;
+	}
+
+	/**
+	 * Makes room for one more Course.
+	 */
+	private void grow() {
+		if (size == offsets.length) {
+			offsets = Arrays.copyOf(offsets, size * 2);
+			lengths = Arrays.copyOf(lengths, size * 2);
+			checksums = Arrays.copyOf(checksums, size * 2);
+			keyHashes = Arrays.copyOf(keyHashes, size * 2);
+			nameHashes = Arrays.copyOf(nameHashes, size * 2);
+		}
+	}
+
+	/**
+	 * Trims the arrays and builds the hash tables once every Course has been added.
+	 */
+	void finish() {
+		offsets = Arrays.copyOf(offsets, size);
+		lengths = Arrays.copyOf(lengths, size);
+		checksums = Arrays.copyOf(checksums, size);
+		keyHashes = Arrays.copyOf(keyHashes, size);
+		nameHashes = Arrays.copyOf(nameHashes, size);
+		table = buildTable(keyHashes);
+		nameTable = buildTable(nameHashes);
+	}
+
+	/**
+	 * Builds an open addressing table of every index, probed linearly from its hash.  The
+	 * table is at least twice the size of the catalog, so a probe always reaches an empty slot.
+	 * @param hashes hash of each Course
+	 * @return the table
+	 */
+	private int[] buildTable(int[] hashes) {
+		int capacity = Integer.highestOneBit(Math.max(1, size) * 2) * 2;
+		int[] built = new int[capacity];
+		Arrays.fill(built, EMPTY);
+		for (int i = 0; i < size; i++) {
+			int slot = hashes[i] & (capacity - 1);
+			while (built[slot] != EMPTY) {
+				slot = (slot + 1) & (capacity - 1);
+			}
+			built[slot] = i;
+		}
+		return built;
+	}
+
+	/**
+	 * Returns the Course at the given index, reading and parsing it if it is not cached.  A
+	 * Course read again after it was evicted from the cache is a new object.
+	 * @param index index of the Course
+	 * @return the Course at the index
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 * @throws IllegalStateException if the record has changed since the file was loaded
+	 * @throws UncheckedIOException if the record cannot be read
+	 */
+	@Override
+	public synchronized Course get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		if (offsets[index] == PINNED) {
+			return pinned.get(index);
+		}
+		Course course = held.get(index);
+		if (course == null) {
+			course = cache.get(index);
+		}
+		if (course == null) {
+			course = read(index);
+			cache.put(index, course);
+		}
+		return course;
+	}
+
+	/**
+	 * Reads and parses one record from the file.
+	 * @param index index of the record
+	 * @return the Course the record describes
+	 * @throws IllegalStateException if the record has changed since the file was loaded
+	 * @throws UncheckedIOException if the record cannot be read
+	 */
+	private Course read(int index) {
+		int length = lengths[index];
+		if (length > bytes.capacity()) {
+			bytes = ByteBuffer.allocate(length);
+			chars = new char[length];
+		}
+		bytes.clear().limit(length);
+		try {
+			while (bytes.hasRemaining()) {
+				if (channel.read(bytes, offsets[index] + bytes.position()) < 0) {
+					throw new IllegalStateException("The catalog file has changed.");
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		byte[] array = bytes.array();
+		crc.reset();
+		crc.update(array, 0, length);
+		if ((int) crc.getValue() != checksums[index]) {
+			throw new IllegalStateException("The catalog file has changed.");
+		}
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) array[i];
+		}
+		Course course = parser.tryParse(chars, 0, length);
+		if (course == null) {
+			throw new IllegalStateException("The catalog file has changed.");
+		}
+		return course;
+	}
+
+	/**
+	 * Pins a Course so get() returns that object for its record until it is unpinned, however
+	 * many other Courses are used in the meantime.  The Course may come from another catalog
+	 * of the same file, as long as it is equal to the record.
+	 * @param course Course to pin
+	 * @return true if the catalog has a record equal to the Course
+	 * @throws IllegalStateException if a record has changed since the file was loaded
+	 * @throws UncheckedIOException if a record cannot be read
+	 */
+	public synchronized boolean pin(Course course) {
+		int index = indexOf(course);
+		if (index < 0) {
+			return false;
+		}
+		if (offsets[index] == PINNED) {
+			//Held for the life of the catalog anyway
+			pinned.put(index, course);
+		} else {
+			cache.remove(index);
+			held.put(index, course);
+		}
+		return true;
+	}
+
+	/**
+	 * Unpins a Course pinned by pin(), so it can be evicted like any other.  Nothing is read
+	 * from the file.
+	 * @param course Course to unpin
+	 */
+	public synchronized void unpin(Course course) {
+		held.values().removeIf(c -> c == course);
+	}
+
+	/**
+	 * Returns the Course with the given name and section, reading only the records whose key
+	 * has the same hash.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return the Course, or null if it is not in the catalog
+	 */
+	public Course getCourse(String name, String section) {
+		int index = indexOf(name, section);
+		return index < 0 ? null : get(index);
+	}
+
+	/**
+	 * Returns every section of the given course name, reading only the records whose name has
+	 * the same hash.
+	 * @param name name of the Course
+	 * @return the sections in catalog order, or an empty list if there are none
+	 */
+	public List<Course> getSections(String name) {
+		if (name == null || nameTable.length == 0) {
+			return Collections.emptyList();
+		}
+		int hash = name.hashCode();
+		int[] matches = new int[4];
+		int count = 0;
+		for (int slot = hash & (nameTable.length - 1); nameTable[slot] != EMPTY; slot = (slot + 1) & (nameTable.length - 1)) {
+			int i = nameTable[slot];
+			if (nameHashes[i] == hash) {
+				if (count == matches.length) {
+					matches = Arrays.copyOf(matches, count * 2);
+				}
+				matches[count++] = i;
+			}
+		}
+		//Probing finds the indexes out of order
+		Arrays.sort(matches, 0, count);
+		ArrayList<Course> sections = new ArrayList<Course>(count);
+		for (int j = 0; j < count; j++) {
+			Course c = get(matches[j]);
+			if (c.getName().equals(name)) {
+				sections.add(c);
+			}
+		}
+		return Collections.unmodifiableList(sections);
+	}
+
+	/**
+	 * Returns the index of the Course with the given name and section.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return the index of the Course, or -1 if it is not in the catalog
+	 */
+	private int indexOf(String name, String section) {
+		if (name == null || section == null || table.length == 0) {
+			return -1;
+		}
+		int hash = (name + "," + section).hashCode();
+		for (int slot = hash & (table.length - 1); table[slot] != EMPTY; slot = (slot + 1) & (table.length - 1)) {
+			int i = table[slot];
+			if (keyHashes[i] == hash) {
+				Course c = get(i);
+				if (c.getName().equals(name) && c.getSection().equals(section)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of a Course by looking up its name and section rather than scanning.
+	 * Names and sections are unique in the catalog, so the first match is the only one.
+	 * @param o object to find
+	 * @return the index of the Course, or -1 if it is not in the catalog
+	 */
+	@Override
+	public int indexOf(Object o) {
+		if (!(o instanceof Course)) {
+			return -1;
+		}
+		Course c = (Course) o;
+		int index = indexOf(c.getName(), c.getSection());
+		return index >= 0 && get(index).equals(c) ? index : -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Closes the catalog file.  Courses that were pinned or cached can still be used.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression a record file can be stored with.  A gzip file is recognized by its magic bytes,
+ * whatever it is called; a zlib deflate stream is recognized only by a ".zz" or ".deflate"
+ * extension, since its two byte header can also be the start of a line of text.  Files are
+ * written compressed according to their extension alone.
+ *
+ * Streams are wrapped rather than read into memory, so a compressed file is inflated as it is
+ * parsed and deflated as it is written.
+ *
+ * @author Srikar Donepudi
+ */
+enum RecordCompression {
+	/** Plain text. */
+	NONE,
+	/** gzip, as written by the gzip tool. */
+	GZIP,
+	/** A zlib deflate stream, as written by DeflaterOutputStream. */
+	DEFLATE;
+
+	/** Number of bytes needed to recognize a compressed file. */
+	static final int HEADER_LENGTH = 2;
+	/** Size of the buffer between the file and the codec. */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** First byte of every gzip file. */
+	private static final int GZIP_MAGIC_1 = 0x1f;
+	/** Second byte of every gzip file. */
+	private static final int GZIP_MAGIC_2 = 0x8b;
+
+	/**
+	 * Returns the compression of a file being read.
+	 * @param fileName name of the file
+	 * @param header the first HEADER_LENGTH bytes of the file; a shorter file gives fewer bytes
+	 * @param length number of bytes in header
+	 * @return the compression the file was written with
+	 */
+	static RecordCompression forInput(String fileName, byte[] header, int length) {
+		if (length == HEADER_LENGTH && (header[0] & 0xff) == GZIP_MAGIC_1 && (header[1] & 0xff) == GZIP_MAGIC_2) {
+			return GZIP;
+		}
+		return forOutput(fileName) == DEFLATE ? DEFLATE : NONE;
+	}
+
+	/**
+	 * Returns the compression a file should be written with, based on its extension: ".gz"
+	 * for gzip and ".zz" or ".deflate" for a zlib deflate stream.
+	 * @param fileName name of the file
+	 * @return the compression to write the file with
+	 */
+	static RecordCompression forOutput(String fileName) {
+		String name = fileName.toLowerCase(Locale.ROOT);
+		if (name.endsWith(".gz")) {
+			return GZIP;
+		}
+		if (name.endsWith(".zz") || name.endsWith(".deflate")) {
+			return DEFLATE;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Wraps a stream of compressed bytes in a stream of the bytes they inflate to.  Closing
+	 * the returned stream closes the given one.
+	 * @param in stream to read compressed bytes from
+	 * @return stream of inflated bytes, or in itself for plain text
+	 * @throws IOException if a gzip header cannot be read
+	 */
+	InputStream decompress(InputStream in) throws IOException {
+		switch (this) {
+		case GZIP:
+			return new GZIPInputStream(in, BUFFER_SIZE);
+		case DEFLATE:
+			return new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					inf.end();
+				}
+			};
+		default:
+			return in;
+		}
+	}
+
+	/**
+	 * Wraps a stream in one that compresses what is written to it.  Closing the returned stream
+	 * finishes the compressed data and closes the given stream.
+	 * @param out stream to write compressed bytes to
+	 * @return stream to write plain bytes to, or out itself for plain text
+	 * @throws IOException if a gzip header cannot be written
+	 */
+	OutputStream compress(OutputStream out) throws IOException {
+		switch (this) {
+		case GZIP:
+			return new GZIPOutputStream(out, BUFFER_SIZE);
+		case DEFLATE:
+			return new DeflaterOutputStream(out, new Deflater(), BUFFER_SIZE) {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					def.end();
+				}
+			};
+		default:
+			return out;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * A line of a course records file that did not produce a Course, with the reason why.
+ *
+ * @author Srikar Donepudi
+ */
+public class RejectedCourseRecord {
+
+	/** Line number of the record, counting from 1. */
+	private final int lineNumber;
+	/** Reason the record was rejected. */
+	private final CourseRecordError error;
+
+	/**
+	 * Constructs a rejected record.
+	 * @param lineNumber line number of the record, counting from 1
+	 * @param error reason the record was rejected
+	 */
+	RejectedCourseRecord(int lineNumber, CourseRecordError error) {
+		this.lineNumber = lineNumber;
+		this.error = error;
+	}
+
+	/**
+	 * Returns the line number of the record.  Lines are counted the way Scanner.nextLine()
+	 * splits them, so "\r\n" ends a single line.
+	 * @return the line number, counting from 1
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Returns the reason the record was rejected.
+	 * @return the error
+	 */
+	public CourseRecordError getError() {
+		return error;
+	}
+
+	/**
+	 * Returns the line number and error message, such as "line 3: Invalid section.".
+	 * @return String representation of the rejected record
+	 */
+	@Override
+	public String toString() {
+		return "line " + lineNumber + ": " + error.getMessage();
+	}
+}
@@ -0,0 +1,294 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Writes the schedules of many students into a fixed number of shard files at once, and reads
+ * a single student's schedule back without reading the rest of its shard.
+ *
+ * Each student belongs to shard shardOf(studentId, shardCount).  Shard k is written to
+ * "shard-k.txt", which holds the records of each of its students one after another in the
+ * format ActivityRecordIO writes, and "shard-k.idx", which starts with a line holding the size
+ * of the data file and then holds one "studentId,offset,length,checksum" line per student giving
+ * the byte range of that student's records in the data file and a CRC32C of those bytes.  Shards
+ * are written in parallel, each to temporary files that are moved into place once complete.
+ *
+ * The two files of a shard are replaced one after the other, so a reader can find a new data
+ * file with an old index, or an old one with a new index if a writer stopped between the two.
+ * The size in the index and the checksum of each student's records are checked on every read,
+ * so such a pair fails with an IOException instead of returning another student's records.
+ *
+ * @author Srikar Donepudi
+ */
+public class ScheduleShardIO {
+
+	/** Name of every shard file before its number. */
+	private static final String SHARD_PREFIX = "shard-";
+	/** Extension of a shard's data file. */
+	private static final String DATA_EXTENSION = ".txt";
+	/** Extension of a shard's index file. */
+	private static final String INDEX_EXTENSION = ".idx";
+	/** Separator between the fields of an index line. */
+	private static final char DELIMITER = ',';
+	/** Number of bytes buffered before they are written to a data file. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Writes every student's schedule into shardCount shards in the given directory, writing
+	 * the shards in parallel in the pool.  Existing shard files with the same numbers are
+	 * replaced.  Students are written to each shard in the Map's iteration order.
+	 * @param directory directory to write the shards to
+	 * @param schedules schedule of each student, by student id
+	 * @param shardCount number of shards to split the students into
+	 * @param pool pool to write the shards in
+	 * @throws IllegalArgumentException if the shard count is less than one or a student id is
+	 * empty or contains a comma or line separator
+	 * @throws IOException if a shard cannot be written
+	 */
+	public static void writeSchedules(String directory, Map<String, ? extends Iterable<? extends Activity>> schedules,
+			int shardCount, ForkJoinPool pool) throws IOException {
+		checkShardCount(shardCount);
+		List<List<Map.Entry<String, ? extends Iterable<? extends Activity>>>> shards =
+				new ArrayList<List<Map.Entry<String, ? extends Iterable<? extends Activity>>>>(shardCount);
+		for (int i = 0; i < shardCount; i++) {
+			shards.add(new ArrayList<Map.Entry<String, ? extends Iterable<? extends Activity>>>());
+		}
+		for (Map.Entry<String, ? extends Iterable<? extends Activity>> student : schedules.entrySet()) {
+			checkStudentId(student.getKey());
+			shards.get(shardOf(student.getKey(), shardCount)).add(student);
+		}
+		try {
+			pool.invoke(new ShardTask(new File(directory), shards, 0, shardCount));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Reads back the records of one student's schedule, reading only that student's bytes of
+	 * the shard's data file.
+	 * @param directory directory the shards were written to
+	 * @param studentId id of the student
+	 * @param shardCount number of shards the schedules were written to
+	 * @return the student's records, one per Activity, or null if the student is not in the shard
+	 * @throws IllegalArgumentException if the shard count is less than one or the student id
+	 * is invalid
+	 * @throws IOException if the shard cannot be read, or its data and index files were not
+	 * written together
+	 */
+	public static List<String> readSchedule(String directory, String studentId, int shardCount) throws IOException {
+		checkShardCount(shardCount);
+		checkStudentId(studentId);
+		int shard = shardOf(studentId, shardCount);
+		Charset charset = Charset.defaultCharset();
+		long dataLength;
+		long offset = -1;
+		int length = 0;
+		long checksum = 0;
+		try (BufferedReader index = Files.newBufferedReader(new File(directory, SHARD_PREFIX + shard + INDEX_EXTENSION).toPath(), charset)) {
+			String header = index.readLine();
+			if (header == null) {
+				throw new IOException("Invalid shard index.");
+			}
+			dataLength = Long.parseLong(header);
+			for (String line = index.readLine(); line != null; line = index.readLine()) {
+				if (line.startsWith(studentId) && line.indexOf(DELIMITER) == studentId.length()) {
+					String[] fields = line.substring(studentId.length() + 1).split(String.valueOf(DELIMITER));
+					if (fields.length != 3) {
+						throw new IOException("Invalid shard index.");
+					}
+					offset = Long.parseLong(fields[0]);
+					length = Integer.parseInt(fields[1]);
+					checksum = Long.parseLong(fields[2], 16);
+					break;
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid shard index.", e);
+		}
+		ByteBuffer records = ByteBuffer.allocate(length);
+		try (FileChannel data = FileChannel.open(new File(directory, SHARD_PREFIX + shard + DATA_EXTENSION).toPath(), StandardOpenOption.READ)) {
+			if (data.size() != dataLength) {
+				throw new IOException("Shard data does not match its index.");
+			}
+			if (offset < 0) {
+				return null;
+			}
+			while (records.hasRemaining()) {
+				if (data.read(records, offset + records.position()) < 0) {
+					throw new IOException("Shard data is shorter than its index.");
+				}
+			}
+		}
+		if (checksum(records.array()) != checksum) {
+			throw new IOException("Shard data does not match its index.");
+		}
+		return new String(records.array(), charset).lines().collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the shard a student belongs to.  String.hashCode() is fixed by the language, so a
+	 * student always maps to the same shard for the same shard count.
+	 * @param studentId id of the student
+	 * @param shardCount number of shards
+	 * @return the shard number, from 0 to shardCount - 1
+	 */
+	public static int shardOf(String studentId, int shardCount) {
+		return Math.floorMod(studentId.hashCode(), shardCount);
+	}
+
+	/**
+	 * Writes one shard's data and index files.
+	 * @param directory directory to write the shard to
+	 * @param shard number of the shard
+	 * @param students students in the shard, with their schedules
+	 * @throws IOException if the shard cannot be written
+	 */
+	private static void writeShard(File directory, int shard, List<Map.Entry<String, ? extends Iterable<? extends Activity>>> students) throws IOException {
+		File data = FileReplacement.resolve(new File(directory, SHARD_PREFIX + shard + DATA_EXTENSION).getPath());
+		File index = FileReplacement.resolve(new File(directory, SHARD_PREFIX + shard + INDEX_EXTENSION).getPath());
+		File dataTemp = FileReplacement.createTempFile(data);
+		File indexTemp = null;
+		try {
+			indexTemp = FileReplacement.createTempFile(index);
+			Charset charset = Charset.defaultCharset();
+			String lineSeparator = System.lineSeparator();
+			StringBuilder records = new StringBuilder();
+			StringBuilder entries = new StringBuilder();
+			long offset = 0;
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(dataTemp), BUFFER_SIZE)) {
+				for (Map.Entry<String, ? extends Iterable<? extends Activity>> student : students) {
+					records.setLength(0);
+					for (Activity a : student.getValue()) {
+						records.append(a.toString()).append(lineSeparator);
+					}
+					byte[] bytes = records.toString().getBytes(charset);
+					out.write(bytes);
+					entries.append(student.getKey()).append(DELIMITER).append(offset).append(DELIMITER).append(bytes.length)
+							.append(DELIMITER).append(Long.toHexString(checksum(bytes))).append(lineSeparator);
+					offset += bytes.length;
+				}
+			}
+			//The size of the data goes first, so it is known before the entries are written
+			try (Writer indexOut = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexTemp), charset))) {
+				indexOut.write(offset + lineSeparator);
+				indexOut.append(entries);
+			}
+			//A reader between the two moves sees a size or checksum that does not match and fails
+			FileReplacement.replace(dataTemp, data);
+			FileReplacement.replace(indexTemp, index);
+		} finally {
+			Files.deleteIfExists(dataTemp.toPath());
+			if (indexTemp != null) {
+				Files.deleteIfExists(indexTemp.toPath());
+			}
+		}
+	}
+
+	/**
+	 * Returns the CRC32C of a student's records.
+	 * @param bytes the records, as written to the data file
+	 * @return the checksum
+	 */
+	private static long checksum(byte[] bytes) {
+		CRC32C crc = new CRC32C();
+		crc.update(bytes);
+		return crc.getValue();
+	}
+
+	/**
+	 * Checks that a shard count is at least one.
+	 * @param shardCount shard count to check
+	 * @throws IllegalArgumentException if the shard count is less than one
+	 */
+	private static void checkShardCount(int shardCount) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException("Invalid shard count.");
+		}
+	}
+
+	/**
+	 * Checks that a student id can be written to an index line.
+	 * @param studentId student id to check
+	 * @throws IllegalArgumentException if the id is null, empty, or contains a comma or line separator
+	 */
+	private static void checkStudentId(String studentId) {
+		if (studentId == null || studentId.isEmpty()) {
+			throw new IllegalArgumentException("Invalid student id.");
+		}
+		for (int i = 0; i < studentId.length(); i++) {
+			char c = studentId.charAt(i);
+			if (c == DELIMITER || CourseRecordIterator.isLineSeparator(c)) {
+				throw new IllegalArgumentException("Invalid student id.");
+			}
+		}
+	}
+
+	/**
+	 * Writes a range of shards, splitting the range in half until each task has a single shard.
+	 */
+	private static class ShardTask extends RecursiveAction {
+
+		/** Default serial version UID */
+		private static final long serialVersionUID = 1L;
+		/** Directory to write the shards to. */
+		private final File directory;
+		/** Students in each shard, with their schedules. */
+		private final transient List<List<Map.Entry<String, ? extends Iterable<? extends Activity>>>> shards;
+		/** First shard of the range. */
+		private final int from;
+		/** One past the last shard of the range. */
+		private final int to;
+
+		/**
+		 * Constructs a task for shards from through to - 1.
+		 * @param directory directory to write the shards to
+		 * @param shards students in each shard, with their schedules
+		 * @param from first shard of the range
+		 * @param to one past the last shard of the range
+		 */
+		ShardTask(File directory, List<List<Map.Entry<String, ? extends Iterable<? extends Activity>>>> shards, int from, int to) {
+			this.directory = directory;
+			this.shards = shards;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				try {
+					writeShard(directory, from, shards.get(from));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ShardTask(directory, shards, from, mid), new ShardTask(directory, shards, mid, to));
+			}
+		}
+	}
+}
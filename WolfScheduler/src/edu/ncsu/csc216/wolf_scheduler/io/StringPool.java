@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Canonical copies of the field values seen during one load, so Courses that share a title,
+ * instructor or meeting days share one String instead of each holding a copy.  A value is
+ * looked up straight from the character buffer, so a repeated value costs no allocation at
+ * all.  Unlike String.intern() the pool belongs to the load and is collected with it.
+ *
+ * The pool stops taking new values once it holds MAX_SIZE of them; later values are still
+ * returned, just not shared.  Instances are not thread safe.
+ *
+ * @author Srikar Donepudi
+ */
+class StringPool {
+
+	/** Largest number of values the pool holds. */
+	static final int MAX_SIZE = 1 << 16;
+	/** Number of slots the table starts with. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Open addressing table of the values, probed from their hash. */
+	private String[] table = new String[INITIAL_CAPACITY];
+	/** Number of values in the table. */
+	private int size;
+
+	/**
+	 * Returns the pooled String equal to buf[start] through buf[end - 1], adding a new one if
+	 * there is none.
+	 * @param buf buffer holding the characters
+	 * @param start offset of the first character
+	 * @param end offset one past the last character
+	 * @return a String with the characters, shared with every earlier caller that asked for them
+	 */
+	String get(char[] buf, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + buf[i];
+		}
+		int mask = table.length - 1;
+		int slot = mix(hash) & mask;
+		for (String s = table[slot]; s != null; s = table[slot]) {
+			if (s.hashCode() == hash && matches(s, buf, start, end)) {
+				return s;
+			}
+			slot = (slot + 1) & mask;
+		}
+		String value = new String(buf, start, end - start);
+		if (size < MAX_SIZE) {
+			table[slot] = value;
+			if (++size * 2 > table.length) {
+				rehash();
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the number of values in the pool.
+	 * @return the number of values
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if s holds exactly the characters buf[start] through buf[end - 1].
+	 * @param s String to compare
+	 * @param buf buffer holding the characters
+	 * @param start offset of the first character
+	 * @param end offset one past the last character
+	 * @return true if the characters match
+	 */
+	private static boolean matches(String s, char[] buf, int start, int end) {
+		if (s.length() != end - start) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (s.charAt(i - start) != buf[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Spreads the high bits of a String hash into the low bits the table is indexed by.
+	 * @param hash hash to mix
+	 * @return the mixed hash
+	 */
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Doubles the table.
+	 */
+	private void rehash() {
+		String[] old = table;
+		table = new String[old.length * 2];
+		int mask = table.length - 1;
+		for (String s : old) {
+			if (s != null) {
+				int slot = mix(s.hashCode()) & mask;
+				while (table[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = s;
+			}
+		}
+	}
+}
@@ -0,0 +1,268 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Inverted indexes of a catalog's instructors, meeting days and credits, so a query on several
+ * of them is answered from the indexes alone.  Sections are identified by their position in
+ * the catalog.  Each instructor has a sorted array of positions, since an instructor teaches
+ * only a few sections; each meeting day, arranged, and each credit value has a bit set, since
+ * those hold a large share of the catalog.
+ *
+ * A query walks the shortest candidate set and tests each position against the others, so no
+ * section outside the answer is looked at.  When the catalog is reloaded, the positions of the
+ * sections that were kept are moved, and only the added and changed sections are looked at.
+ *
+ * @author Srikar Donepudi
+ */
+class CatalogAttributeIndex {
+
+	/** Meeting day letters, followed by "A" for arranged sections. */
+	private static final String DAYS = "UMTWHFSA";
+
+	/** Positions of each instructor's sections, in increasing order. */
+	private final HashMap<String, int[]> instructors = new HashMap<String, int[]>();
+	/** Positions of the sections that meet on each day of DAYS. */
+	private final BitSet[] days = new BitSet[DAYS.length()];
+	/** Positions of the sections worth each number of credits. */
+	private final HashMap<Integer, BitSet> credits = new HashMap<Integer, BitSet>();
+	/** Number of sections in the catalog. */
+	private int size;
+
+	/**
+	 * Builds the indexes of a catalog.
+	 *
+	 * @param catalog the Courses to index
+	 */
+	CatalogAttributeIndex(List<Course> catalog) {
+		size = catalog.size();
+		for (int i = 0; i < days.length; i++) {
+			days[i] = new BitSet(size);
+		}
+		//Count each instructor's sections first so each gets an array of the right size
+		String[] instructorIds = new String[size];
+		HashMap<String, int[]> counts = new HashMap<String, int[]>();
+		for (int i = 0; i < size; i++) {
+			Course c = catalog.get(i);
+			instructorIds[i] = c.getInstructorId();
+			counts.computeIfAbsent(instructorIds[i], id -> new int[1])[0]++;
+			String meetingDays = c.getMeetingDays();
+			for (int j = 0; j < meetingDays.length(); j++) {
+				days[DAYS.indexOf(meetingDays.charAt(j))].set(i);
+			}
+			credits.computeIfAbsent(c.getCredits(), n -> new BitSet(size)).set(i);
+		}
+		for (int i = 0; i < size; i++) {
+			int[] count = counts.get(instructorIds[i]);
+			int[] positions = instructors.computeIfAbsent(instructorIds[i], id -> new int[count[0]]);
+			positions[positions.length - count[0]--] = i;
+		}
+	}
+
+	/**
+	 * Applies a reload of the catalog.
+	 *
+	 * @param change the sections that were added, removed and changed, and where the kept
+	 * sections moved to
+	 * @param catalog the new catalog
+	 */
+	void apply(CatalogChange change, List<Course> catalog) {
+		int[] moved = change.getMoved();
+		size = catalog.size();
+		boolean[] kept = new boolean[size];
+		for (int position : moved) {
+			if (position >= 0) {
+				kept[position] = true;
+			}
+		}
+		for (int i = 0; i < days.length; i++) {
+			days[i] = move(days[i], moved);
+		}
+		Iterator<Map.Entry<Integer, BitSet>> creditSets = credits.entrySet().iterator();
+		while (creditSets.hasNext()) {
+			Map.Entry<Integer, BitSet> credit = creditSets.next();
+			credit.setValue(move(credit.getValue(), moved));
+			if (credit.getValue().isEmpty()) {
+				creditSets.remove();
+			}
+		}
+		//Added and changed sections, by instructor, in increasing order
+		HashMap<String, int[]> fresh = new HashMap<String, int[]>();
+		for (int i = 0; i < size; i++) {
+			if (kept[i]) {
+				continue;
+			}
+			Course c = catalog.get(i);
+			String meetingDays = c.getMeetingDays();
+			for (int j = 0; j < meetingDays.length(); j++) {
+				days[DAYS.indexOf(meetingDays.charAt(j))].set(i);
+			}
+			credits.computeIfAbsent(c.getCredits(), n -> new BitSet(size)).set(i);
+			int[] positions = fresh.get(c.getInstructorId());
+			positions = positions == null ? new int[1] : Arrays.copyOf(positions, positions.length + 1);
+			positions[positions.length - 1] = i;
+			fresh.put(c.getInstructorId(), positions);
+		}
+		Iterator<Map.Entry<String, int[]>> instructorSets = instructors.entrySet().iterator();
+		while (instructorSets.hasNext()) {
+			Map.Entry<String, int[]> instructor = instructorSets.next();
+			int[] positions = move(instructor.getValue(), moved);
+			int[] added = fresh.remove(instructor.getKey());
+			if (added != null) {
+				positions = merge(positions, added);
+			}
+			if (positions.length == 0) {
+				instructorSets.remove();
+			} else {
+				instructor.setValue(positions);
+			}
+		}
+		instructors.putAll(fresh);
+	}
+
+	/**
+	 * Returns a set of positions with each kept position moved to its new position.
+	 *
+	 * @param positions the old positions
+	 * @param moved the new position of each old position, or -1 if it was not kept
+	 * @return the new positions
+	 */
+	private BitSet move(BitSet positions, int[] moved) {
+		BitSet result = new BitSet(size);
+		for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+			if (moved[i] >= 0) {
+				result.set(moved[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a sorted array of positions with each kept position moved to its new position.
+	 * Kept sections stay in the same order, so the result is still sorted.
+	 *
+	 * @param positions the old positions, in increasing order
+	 * @param moved the new position of each old position, or -1 if it was not kept
+	 * @return the new positions, in increasing order
+	 */
+	private static int[] move(int[] positions, int[] moved) {
+		int[] result = new int[positions.length];
+		int count = 0;
+		for (int position : positions) {
+			if (moved[position] >= 0) {
+				result[count++] = moved[position];
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Merges two sorted arrays of positions.
+	 *
+	 * @param a positions, in increasing order
+	 * @param b other positions, in increasing order
+	 * @return the positions of both, in increasing order
+	 */
+	private static int[] merge(int[] a, int[] b) {
+		int[] result = new int[a.length + b.length];
+		int i = 0;
+		int j = 0;
+		for (int k = 0; k < result.length; k++) {
+			result[k] = j == b.length || i < a.length && a[i] < b[j] ? a[i++] : b[j++];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the positions of the sections that match every given attribute.
+	 *
+	 * @param instructorId the instructor to match, or null to match any
+	 * @param meetingDays days the section must meet on, "A" for arranged sections, or null to
+	 * match any
+	 * @param creditCount the credits to match, or 0 to match any
+	 * @return the positions of the matching sections, in increasing order
+	 */
+	int[] find(String instructorId, String meetingDays, int creditCount) {
+		BitSet[] filters = new BitSet[(meetingDays == null ? 0 : meetingDays.length()) + 1];
+		int count = 0;
+		for (int i = 0; meetingDays != null && i < meetingDays.length(); i++) {
+			int day = DAYS.indexOf(meetingDays.charAt(i));
+			if (day < 0) {
+				return new int[0];
+			}
+			filters[count++] = days[day];
+		}
+		if (creditCount != 0) {
+			BitSet matching = credits.get(creditCount);
+			if (matching == null) {
+				return new int[0];
+			}
+			filters[count++] = matching;
+		}
+		if (instructorId != null) {
+			return filter(instructors.getOrDefault(instructorId, new int[0]), filters, count);
+		}
+		return intersect(filters, count);
+	}
+
+	/**
+	 * Returns the positions of a sorted array that are in every filter.
+	 *
+	 * @param positions the candidate positions, in increasing order
+	 * @param filters the sets a position must be in
+	 * @param count the number of filters
+	 * @return the matching positions, in increasing order
+	 */
+	private static int[] filter(int[] positions, BitSet[] filters, int count) {
+		int[] matches = new int[positions.length];
+		int found = 0;
+		for (int position : positions) {
+			int i = 0;
+			while (i < count && filters[i].get(position)) {
+				i++;
+			}
+			if (i == count) {
+				matches[found++] = position;
+			}
+		}
+		return found == matches.length ? matches : Arrays.copyOf(matches, found);
+	}
+
+	/**
+	 * Returns the positions in every filter, or every position if there are none.  The
+	 * intersection starts from the smallest set, a word at a time.
+	 *
+	 * @param filters the sets to intersect
+	 * @param count the number of filters
+	 * @return the positions in every filter, in increasing order
+	 */
+	private int[] intersect(BitSet[] filters, int count) {
+		if (count == 0) {
+			int[] all = new int[size];
+			for (int i = 0; i < size; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+		int smallest = 0;
+		for (int i = 1; i < count; i++) {
+			if (filters[i].cardinality() < filters[smallest].cardinality()) {
+				smallest = i;
+			}
+		}
+		BitSet result = (BitSet) filters[smallest].clone();
+		for (int i = 0; i < count; i++) {
+			if (i != smallest) {
+				result.and(filters[i]);
+			}
+		}
+		return result.stream().toArray();
+	}
+}
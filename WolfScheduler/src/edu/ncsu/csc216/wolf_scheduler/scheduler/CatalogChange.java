@@ -0,0 +1,177 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Describes what changed when WolfScheduler re-read its course catalog: the sections that
+ * were added, removed or changed, and how the schedule was affected.  Sections are matched by
+ * name and section; a section is changed if any other field differs.
+ * 
+ * @author Srikar Donepudi
+ */
+public class CatalogChange {
+
+	/** Sections new to the catalog. */
+	private final List<Course> added = new ArrayList<Course>();
+	/** Sections no longer in the catalog. */
+	private final List<Course> removed = new ArrayList<Course>();
+	/** New versions of sections whose details changed. */
+	private final List<Course> changed = new ArrayList<Course>();
+	/** Old versions of the changed sections, in the same order as changed. */
+	private final List<Course> replaced = new ArrayList<Course>();
+	/** Scheduled sections that are no longer in the catalog. */
+	private final List<Course> scheduleRemoved = new ArrayList<Course>();
+	/** Scheduled sections that were updated to their new version. */
+	private final List<Course> scheduleChanged = new ArrayList<Course>();
+	/** Updated scheduled sections that now conflict with another scheduled activity. */
+	private final List<Course> scheduleConflicts = new ArrayList<Course>();
+	/** New position of each section of the old catalog, or -1 if it was removed or changed. */
+	private int[] moved;
+
+	/**
+	 * Returns the sections that are new to the catalog.
+	 * @return the added sections
+	 */
+	public List<Course> getAdded() {
+		return Collections.unmodifiableList(added);
+	}
+
+	/**
+	 * Returns the sections that are no longer in the catalog.
+	 * @return the removed sections
+	 */
+	public List<Course> getRemoved() {
+		return Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * Returns the new versions of the sections whose details changed.
+	 * @return the changed sections
+	 */
+	public List<Course> getChanged() {
+		return Collections.unmodifiableList(changed);
+	}
+
+	/**
+	 * Returns the old versions of the changed sections, in the same order as getChanged().
+	 * @return the replaced sections
+	 */
+	public List<Course> getReplaced() {
+		return Collections.unmodifiableList(replaced);
+	}
+
+	/**
+	 * Returns the scheduled sections that are no longer in the catalog.  They are left in the
+	 * schedule so the student can decide what to do about them.
+	 * @return the scheduled sections that were removed from the catalog
+	 */
+	public List<Course> getScheduleRemoved() {
+		return Collections.unmodifiableList(scheduleRemoved);
+	}
+
+	/**
+	 * Returns the scheduled sections that were updated to their new version.
+	 * @return the scheduled sections that changed
+	 */
+	public List<Course> getScheduleChanged() {
+		return Collections.unmodifiableList(scheduleChanged);
+	}
+
+	/**
+	 * Returns the updated scheduled sections that now conflict with another scheduled activity.
+	 * @return the scheduled sections that now conflict
+	 */
+	public List<Course> getScheduleConflicts() {
+		return Collections.unmodifiableList(scheduleConflicts);
+	}
+
+	/**
+	 * Returns true if the catalog did not change.
+	 * @return true if nothing was added, removed or changed
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+	/**
+	 * Returns true if the schedule references a section that was removed or changed.
+	 * @return true if the schedule was affected
+	 */
+	public boolean affectsSchedule() {
+		return !scheduleRemoved.isEmpty() || !scheduleChanged.isEmpty();
+	}
+
+	/**
+	 * Returns where the sections of the old catalog are in the new one, so an index by
+	 * position can move the entries of the sections that were kept.  Kept sections are in the
+	 * same order as before, so the new positions increase.  Sections at positions that no kept
+	 * section moved to were added or changed.
+	 * @return the new position of each old section, or -1 if it was removed or changed; null
+	 * if the catalog was replaced as a whole or its kept sections changed order
+	 */
+	int[] getMoved() {
+		return moved;
+	}
+
+	/**
+	 * Records where the sections of the old catalog are in the new one.
+	 * @param moved the new position of each old section, or -1 if it was removed or changed
+	 */
+	void setMoved(int[] moved) {
+		this.moved = moved;
+	}
+
+	/**
+	 * Records a section new to the catalog.
+	 * @param course the added section
+	 */
+	void addAdded(Course course) {
+		added.add(course);
+	}
+
+	/**
+	 * Records a section no longer in the catalog.
+	 * @param course the removed section
+	 */
+	void addRemoved(Course course) {
+		removed.add(course);
+	}
+
+	/**
+	 * Records a section whose details changed.
+	 * @param oldCourse the old version of the section
+	 * @param newCourse the new version of the section
+	 */
+	void addChanged(Course oldCourse, Course newCourse) {
+		replaced.add(oldCourse);
+		changed.add(newCourse);
+	}
+
+	/**
+	 * Records a scheduled section that is no longer in the catalog.
+	 * @param course the scheduled section
+	 */
+	void addScheduleRemoved(Course course) {
+		scheduleRemoved.add(course);
+	}
+
+	/**
+	 * Records a scheduled section that was updated to its new version.
+	 * @param course the new version of the scheduled section
+	 */
+	void addScheduleChanged(Course course) {
+		scheduleChanged.add(course);
+	}
+
+	/**
+	 * Records an updated scheduled section that now conflicts with another scheduled activity.
+	 * @param course the new version of the scheduled section
+	 */
+	void addScheduleConflict(Course course) {
+		scheduleConflicts.add(course);
+	}
+}
@@ -0,0 +1,94 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds the Courses of a catalog by name, and by name and section, without scanning it.  The
+ * index maps each course name to its sections, and each section to its Course, keeping the
+ * sections of a name in catalog order.  When the catalog is reloaded, only the names of the
+ * sections that were added, removed or changed are updated.
+ *
+ * @author Srikar Donepudi
+ */
+class CatalogIndex {
+
+	/** Sections of each course name, by section, in catalog order. */
+	private final HashMap<String, LinkedHashMap<String, Course>> names = new HashMap<String, LinkedHashMap<String, Course>>();
+
+	/**
+	 * Builds the index of a catalog.
+	 *
+	 * @param catalog the Courses to index
+	 */
+	CatalogIndex(List<Course> catalog) {
+		for (Course c : catalog) {
+			names.computeIfAbsent(c.getName(), name -> new LinkedHashMap<String, Course>()).put(c.getSection(), c);
+		}
+	}
+
+	/**
+	 * Applies a reload of the catalog.  Removed sections are dropped from their names.  An
+	 * added or changed section may have a new place among the sections of its name, so only
+	 * the names with added or changed sections are put back in order from the new catalog.
+	 *
+	 * @param change the sections that were added, removed and changed
+	 * @param catalog the new catalog
+	 */
+	void apply(CatalogChange change, List<Course> catalog) {
+		for (Course c : change.getRemoved()) {
+			LinkedHashMap<String, Course> sections = names.get(c.getName());
+			if (sections != null && sections.remove(c.getSection()) != null && sections.isEmpty()) {
+				names.remove(c.getName());
+			}
+		}
+		HashSet<String> touched = new HashSet<String>();
+		for (Course c : change.getAdded()) {
+			touched.add(c.getName());
+		}
+		for (Course c : change.getChanged()) {
+			touched.add(c.getName());
+		}
+		if (touched.isEmpty()) {
+			return;
+		}
+		names.keySet().removeAll(touched);
+		for (Course c : catalog) {
+			if (touched.contains(c.getName())) {
+				names.computeIfAbsent(c.getName(), name -> new LinkedHashMap<String, Course>()).put(c.getSection(), c);
+			}
+		}
+	}
+
+	/**
+	 * Returns the Course with the given name and section.
+	 *
+	 * @param name the course name
+	 * @param section the course section
+	 * @return the Course, or null if it is not in the catalog
+	 */
+	Course get(String name, String section) {
+		LinkedHashMap<String, Course> sections = names.get(name);
+		return sections == null ? null : sections.get(section);
+	}
+
+	/**
+	 * Returns every section of the given course name.
+	 *
+	 * @param name the course name
+	 * @return the sections in catalog order, or an empty list if there are none
+	 */
+	List<Course> getSections(String name) {
+		LinkedHashMap<String, Course> sections = names.get(name);
+		if (sections == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<Course>(sections.values()));
+	}
+}
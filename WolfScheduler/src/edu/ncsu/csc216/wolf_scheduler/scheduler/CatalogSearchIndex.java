@@ -0,0 +1,476 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds the sections of a catalog from a free text query.  Course names are kept in a prefix
+ * trie, lower cased and without spaces, so "csc2" and "CSC 216" both find CSC 216.  Titles are
+ * split into trigrams, three character windows of the lower cased title padded with a space
+ * at each end, and each trigram keeps a posting list of the sections whose title contains it.
+ *
+ * Results are ranked in two tiers.  Sections whose name starts with the query come first,
+ * an exact name before longer ones and then in name order.  Then come sections whose title
+ * shares at least half of the query's trigrams, most shared first, which finds titles from a
+ * few words or a misspelled word.  Sections with equal rank stay in catalog order.
+ *
+ * Each section has an id that it keeps until it is removed, when the id goes on a free list
+ * for the next section added.  The trie and the posting lists hold ids in catalog order, found
+ * from the catalog position kept for each id.  A catalog change only tokenizes and inserts the
+ * sections it adds or changes; the sections it keeps stay in the same order, so their lists
+ * stay sorted and only their positions are moved.  Title matching only visits the ids on the
+ * posting lists of the query's trigrams.  Instances are not thread safe.
+ *
+ * @author Srikar Donepudi
+ */
+class CatalogSearchIndex {
+
+	/** Root of the trie of course names. */
+	private final TrieNode root = new TrieNode();
+	/** Posting list of each title trigram. */
+	private final HashMap<Long, IdList> postings = new HashMap<Long, IdList>();
+	/** Id of each indexed section, by name and section. */
+	private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+	/** Indexed section of each id, or null if the id is free. */
+	private Course[] courses = new Course[16];
+	/** Catalog position of each id. */
+	private int[] positions = new int[16];
+	/** Number of trigrams each id shares with the current query. */
+	private int[] scores = new int[16];
+	/** Id of the section at each catalog position. */
+	private int[] idAt = new int[16];
+	/** Ids of removed sections, to be handed out again. */
+	private final IdList free = new IdList();
+	/** Next id to hand out once the free list is empty. */
+	private int nextId;
+
+	/**
+	 * Builds the index of a catalog.
+	 *
+	 * @param catalog the Courses to index
+	 */
+	CatalogSearchIndex(List<Course> catalog) {
+		idAt = new int[Math.max(16, catalog.size())];
+		for (int i = 0; i < catalog.size(); i++) {
+			add(catalog.get(i), i);
+		}
+	}
+
+	/**
+	 * Applies a catalog change: removed and replaced sections leave the index, the kept
+	 * sections move to their new positions, and added and changed sections join it at theirs.
+	 *
+	 * @param change the catalog change, with where the kept sections moved to
+	 * @param catalog the catalog after the change, holding exactly the indexed sections
+	 */
+	void apply(CatalogChange change, List<Course> catalog) {
+		for (Course c : change.getRemoved()) {
+			remove(c);
+		}
+		for (Course c : change.getReplaced()) {
+			remove(c);
+		}
+		int[] moved = change.getMoved();
+		int[] newIdAt = new int[Math.max(16, catalog.size())];
+		Arrays.fill(newIdAt, 0, catalog.size(), -1);
+		for (int i = 0; i < moved.length; i++) {
+			if (moved[i] >= 0) {
+				newIdAt[moved[i]] = idAt[i];
+				positions[idAt[i]] = moved[i];
+			}
+		}
+		idAt = newIdAt;
+		for (int i = 0; i < catalog.size(); i++) {
+			if (idAt[i] < 0) {
+				add(catalog.get(i), i);
+			}
+		}
+	}
+
+	/**
+	 * Adds a section to the index.
+	 *
+	 * @param course the section to add
+	 * @param position the section's position in the catalog
+	 */
+	private void add(Course course, int position) {
+		int id;
+		if (free.size > 0) {
+			id = free.ids[--free.size];
+		} else {
+			if (nextId == courses.length) {
+				courses = Arrays.copyOf(courses, nextId * 2);
+				positions = Arrays.copyOf(positions, nextId * 2);
+				scores = Arrays.copyOf(scores, nextId * 2);
+			}
+			id = nextId++;
+		}
+		courses[id] = course;
+		positions[id] = position;
+		idAt[position] = id;
+		ids.put(key(course), id);
+		root.find(nameKey(course.getName()), true).add(id, positions);
+		for (long trigram : trigrams(course.getTitle())) {
+			postings.computeIfAbsent(trigram, t -> new IdList()).insert(id, positions);
+		}
+	}
+
+	/**
+	 * Removes a section from the index and frees its id.  A section that is not indexed is
+	 * ignored.
+	 *
+	 * @param course the section to remove
+	 */
+	private void remove(Course course) {
+		Integer id = ids.remove(key(course));
+		if (id == null) {
+			return;
+		}
+		Course indexed = courses[id];
+		courses[id] = null;
+		root.find(nameKey(indexed.getName()), false).remove(id, positions);
+		for (long trigram : trigrams(indexed.getTitle())) {
+			IdList list = postings.get(trigram);
+			list.remove(id, positions);
+			if (list.size == 0) {
+				postings.remove(trigram);
+			}
+		}
+		free.add(id);
+	}
+
+	/**
+	 * Returns one page of the sections that match a query, in rank order.
+	 *
+	 * @param query the text to search for
+	 * @param page the page to return, counting from 0
+	 * @param pageSize the number of sections on a page
+	 * @return the sections on the page, which is empty past the last match
+	 * @throws IllegalArgumentException if the page is negative or the page size is less than one
+	 */
+	List<Course> search(String query, int page, int pageSize) {
+		if (page < 0 || pageSize < 1) {
+			throw new IllegalArgumentException("Invalid page.");
+		}
+		long limit = ((long) page + 1) * pageSize;
+		IdList matches = new IdList();
+		if (query != null) {
+			String name = nameKey(query);
+			TrieNode node = name.isEmpty() ? null : root.find(name, false);
+			if (node != null) {
+				node.collect(matches, limit);
+			}
+			if (matches.size < limit) {
+				matchTitles(query, matches, limit);
+			}
+		}
+		int from = (int) Math.min(matches.size, (long) page * pageSize);
+		int to = (int) Math.min(matches.size, limit);
+		List<Course> results = new ArrayList<Course>(to - from);
+		for (int i = from; i < to; i++) {
+			results.add(courses[matches.ids[i]]);
+		}
+		return Collections.unmodifiableList(results);
+	}
+
+	/**
+	 * Appends the sections whose title shares at least half of the query's trigrams, most
+	 * shared first and then in catalog order, skipping sections already matched by name.  Only
+	 * the sections on the query's posting lists are visited.
+	 *
+	 * @param query the text to search for
+	 * @param matches the sections matched so far, which all matched by name
+	 * @param limit the number of matches to stop at
+	 */
+	private void matchTitles(String query, IdList matches, long limit) {
+		long[] queryTrigrams = trigrams(query);
+		if (queryTrigrams.length == 0) {
+			return;
+		}
+		for (int i = 0; i < matches.size; i++) {
+			scores[matches.ids[i]] = Integer.MIN_VALUE;
+		}
+		//Sections matched by name start negative, so they are never counted as touched
+		IdList touched = new IdList();
+		for (long trigram : queryTrigrams) {
+			IdList list = postings.get(trigram);
+			for (int i = 0; list != null && i < list.size; i++) {
+				if (scores[list.ids[i]]++ == 0) {
+					touched.add(list.ids[i]);
+				}
+			}
+		}
+		int minScore = (queryTrigrams.length + 1) / 2;
+		IdList[] buckets = new IdList[queryTrigrams.length + 1];
+		for (int i = 0; i < touched.size; i++) {
+			int id = touched.ids[i];
+			if (scores[id] >= minScore) {
+				if (buckets[scores[id]] == null) {
+					buckets[scores[id]] = new IdList();
+				}
+				buckets[scores[id]].add(id);
+			}
+			scores[id] = 0;
+		}
+		for (int i = 0; i < matches.size; i++) {
+			scores[matches.ids[i]] = 0;
+		}
+		for (int score = queryTrigrams.length; score >= minScore && matches.size < limit; score--) {
+			if (buckets[score] != null) {
+				//Touched in posting list order, so each bucket is sorted only if it is used
+				IdList bucket = buckets[score];
+				for (int i = 0; i < bucket.size; i++) {
+					bucket.ids[i] = positions[bucket.ids[i]];
+				}
+				Arrays.sort(bucket.ids, 0, bucket.size);
+				for (int i = 0; i < bucket.size && matches.size < limit; i++) {
+					matches.add(idAt[bucket.ids[i]]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the key a section is indexed under.
+	 *
+	 * @param course the section
+	 * @return the section's name and section
+	 */
+	private static String key(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+
+	/**
+	 * Returns a name as it is stored in the trie: lower case, without whitespace.
+	 *
+	 * @param name the name or query
+	 * @return the name's trie key
+	 */
+	private static String nameKey(String name) {
+		StringBuilder key = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				key.append(Character.toLowerCase(c));
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns the distinct trigrams of a text.  The text is lower cased, every run of
+	 * characters other than letters and digits becomes one space, and it is padded with a
+	 * space at each end, so the start and end of each word are trigrams of their own.
+	 *
+	 * @param text the title or query
+	 * @return the trigrams, each packed into a long, with no repeats
+	 */
+	private static long[] trigrams(String text) {
+		StringBuilder normal = new StringBuilder(text.length() + 2).append(' ');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				normal.append(Character.toLowerCase(c));
+			} else if (normal.charAt(normal.length() - 1) != ' ') {
+				normal.append(' ');
+			}
+		}
+		if (normal.charAt(normal.length() - 1) != ' ') {
+			normal.append(' ');
+		}
+		if (normal.length() < 3) {
+			return new long[0];
+		}
+		long[] trigrams = new long[normal.length() - 2];
+		for (int i = 0; i < trigrams.length; i++) {
+			trigrams[i] = (long) normal.charAt(i) << 32 | (long) normal.charAt(i + 1) << 16 | normal.charAt(i + 2);
+		}
+		Arrays.sort(trigrams);
+		int count = 0;
+		for (int i = 0; i < trigrams.length; i++) {
+			if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+				trigrams[count++] = trigrams[i];
+			}
+		}
+		return Arrays.copyOf(trigrams, count);
+	}
+
+	/**
+	 * A growable list of ids.  Posting lists and trie nodes keep their ids in catalog order:
+	 * ids are inserted at their position, and a catalog change moves the ids it keeps without
+	 * changing their order, so remove() can find an id by binary search on its position.
+	 */
+	private static class IdList {
+
+		/** The ids. */
+		private int[] ids = new int[2];
+		/** Number of ids in the list. */
+		private int size;
+
+		/**
+		 * Appends an id.
+		 *
+		 * @param id the id to append
+		 */
+		void add(int id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+
+		/**
+		 * Inserts an id at its place in catalog order.
+		 *
+		 * @param id the id to insert
+		 * @param positions the catalog position of each id
+		 */
+		void insert(int id, int[] positions) {
+			int i = find(positions[id], positions);
+			if (i < 0) {
+				i = -i - 1;
+			}
+			add(id);
+			System.arraycopy(ids, i, ids, i + 1, size - i - 1);
+			ids[i] = id;
+		}
+
+		/**
+		 * Removes an id if it is in the list.
+		 *
+		 * @param id the id to remove
+		 * @param positions the catalog position of each id
+		 */
+		void remove(int id, int[] positions) {
+			int i = find(positions[id], positions);
+			if (i >= 0 && ids[i] == id) {
+				System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+				size--;
+			}
+		}
+
+		/**
+		 * Finds the id at a catalog position by binary search.
+		 *
+		 * @param position the catalog position
+		 * @param positions the catalog position of each id
+		 * @return the index of the id, or -(insertion point) - 1 if there is none
+		 */
+		private int find(int position, int[] positions) {
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int p = positions[ids[mid]];
+				if (p < position) {
+					low = mid + 1;
+				} else if (p > position) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+	}
+
+	/**
+	 * A node of the name trie.  The sections whose name key ends at the node are kept in the
+	 * node, and its children are kept sorted by character so the trie is walked in name order.
+	 */
+	private static class TrieNode {
+
+		/** Character leading to each child, in increasing order. */
+		private char[] keys = new char[0];
+		/** Child for each character. */
+		private TrieNode[] children = new TrieNode[0];
+		/** Sections whose name key ends here, in catalog order. */
+		private final IdList sections = new IdList();
+
+		/**
+		 * Returns the node for a key under this one.
+		 *
+		 * @param key the key to find
+		 * @param create true to create missing nodes
+		 * @return the node, or null if it is missing and create is false
+		 */
+		TrieNode find(String key, boolean create) {
+			TrieNode node = this;
+			for (int i = 0; i < key.length() && node != null; i++) {
+				node = node.child(key.charAt(i), create);
+			}
+			return node;
+		}
+
+		/**
+		 * Returns the child for a character.
+		 *
+		 * @param c the character
+		 * @param create true to create the child if it is missing
+		 * @return the child, or null if it is missing and create is false
+		 */
+		private TrieNode child(char c, boolean create) {
+			int i = Arrays.binarySearch(keys, c);
+			if (i >= 0) {
+				return children[i];
+			}
+			if (!create) {
+				return null;
+			}
+			i = -i - 1;
+			char[] newKeys = new char[keys.length + 1];
+			TrieNode[] newChildren = new TrieNode[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, i);
+			System.arraycopy(children, 0, newChildren, 0, i);
+			System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+			System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+			newKeys[i] = c;
+			newChildren[i] = new TrieNode();
+			keys = newKeys;
+			children = newChildren;
+			return newChildren[i];
+		}
+
+		/**
+		 * Inserts a section whose name key ends here.
+		 *
+		 * @param id the section's id
+		 * @param positions the catalog position of each id
+		 */
+		void add(int id, int[] positions) {
+			sections.insert(id, positions);
+		}
+
+		/**
+		 * Removes a section whose name key ends here.  The node is kept even if it is left
+		 * empty, since sections of the same name usually come back on the next change.
+		 *
+		 * @param id the section's id
+		 * @param positions the catalog position of each id
+		 */
+		void remove(int id, int[] positions) {
+			sections.remove(id, positions);
+		}
+
+		/**
+		 * Appends the sections of this node and then of its children in character order,
+		 * stopping once the list holds limit ids.
+		 *
+		 * @param matches the list to append to
+		 * @param limit the number of ids to stop at
+		 */
+		void collect(IdList matches, long limit) {
+			for (int i = 0; i < sections.size && matches.size < limit; i++) {
+				matches.add(sections.ids[i]);
+			}
+			for (int i = 0; i < children.length && matches.size < limit; i++) {
+				children[i].collect(matches, limit);
+			}
+		}
+	}
+}
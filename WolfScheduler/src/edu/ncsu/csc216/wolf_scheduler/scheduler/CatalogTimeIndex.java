@@ -0,0 +1,133 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds the sections of a catalog that are in session at a day and time, or at any point of a
+ * day and time range.  Each meeting day has an IntervalTree of its sections' meeting times, so
+ * a query visits about one path of the tree for each section it returns.  Arranged sections
+ * have no times and are not indexed.
+ *
+ * Times are compared as in Activity.checkConflict(): a section is in session from its start
+ * time through its end time, both included.  Sections are added and removed one at a time, so
+ * a catalog change only touches the sections it changes.
+ *
+ * @author Srikar Donepudi
+ */
+class CatalogTimeIndex {
+
+	/** Meeting day letters, in the order of the trees. */
+	private static final String DAYS = "UMTWHFS";
+
+	/** Meeting times of the sections of each day in DAYS. */
+	private final IntervalTree[] trees = new IntervalTree[DAYS.length()];
+	/** Id of each indexed section, by name and section. */
+	private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+	/** Indexed section of each id. */
+	private final HashMap<Integer, Course> courses = new HashMap<Integer, Course>();
+	/** Next id to hand out. */
+	private int nextId;
+
+	/**
+	 * Builds the index of a catalog.
+	 *
+	 * @param catalog the Courses to index
+	 */
+	CatalogTimeIndex(List<Course> catalog) {
+		for (int i = 0; i < trees.length; i++) {
+			trees[i] = new IntervalTree();
+		}
+		for (Course c : catalog) {
+			add(c);
+		}
+	}
+
+	/**
+	 * Applies a catalog change: removed and replaced sections leave the index, and added and
+	 * changed sections join it.
+	 *
+	 * @param change the catalog change
+	 */
+	void apply(CatalogChange change) {
+		for (Course c : change.getRemoved()) {
+			remove(c);
+		}
+		for (Course c : change.getReplaced()) {
+			remove(c);
+		}
+		for (Course c : change.getChanged()) {
+			add(c);
+		}
+		for (Course c : change.getAdded()) {
+			add(c);
+		}
+	}
+
+	/**
+	 * Adds a section to the tree of each day it meets.  Arranged sections are ignored.
+	 *
+	 * @param course the section to add
+	 */
+	void add(Course course) {
+		if ("A".equals(course.getMeetingDays())) {
+			return;
+		}
+		int id = nextId++;
+		ids.put(key(course), id);
+		courses.put(id, course);
+		String meetingDays = course.getMeetingDays();
+		for (int i = 0; i < meetingDays.length(); i++) {
+			trees[DAYS.indexOf(meetingDays.charAt(i))].add(course.getStartTime(), course.getEndTime(), id);
+		}
+	}
+
+	/**
+	 * Removes a section from the index.  A section that is not indexed is ignored.
+	 *
+	 * @param course the section to remove
+	 */
+	void remove(Course course) {
+		Integer id = ids.remove(key(course));
+		if (id == null) {
+			return;
+		}
+		Course indexed = courses.remove(id);
+		String meetingDays = indexed.getMeetingDays();
+		for (int i = 0; i < meetingDays.length(); i++) {
+			trees[DAYS.indexOf(meetingDays.charAt(i))].remove(indexed.getStartTime(), id);
+		}
+	}
+
+	/**
+	 * Returns the sections that meet on the day at some time from startTime through endTime.
+	 *
+	 * @param day the meeting day letter
+	 * @param startTime the start of the range
+	 * @param endTime the end of the range
+	 * @return the sections, ordered by start time and then by the order they were added
+	 * @throws IllegalArgumentException if the day is not a meeting day letter
+	 */
+	List<Course> find(char day, int startTime, int endTime) {
+		int d = DAYS.indexOf(day);
+		if (d < 0) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		List<Course> sections = new ArrayList<Course>();
+		trees[d].find(startTime, endTime, id -> sections.add(courses.get(id)));
+		return sections;
+	}
+
+	/**
+	 * Returns the key a section is indexed under.
+	 *
+	 * @param course the section
+	 * @return the section's name and section
+	 */
+	private static String key(Course course) {
+		return course.getName() + "," + course.getSection();
+	}
+}
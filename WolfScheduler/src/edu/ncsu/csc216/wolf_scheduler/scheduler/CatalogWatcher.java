@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a course catalog file and asks for a reload whenever the file is written or
+ * replaced.  Events that arrive close together, such as the several writes of one save, are
+ * collapsed into a single reload.  The watch runs on a daemon thread until close() is called.
+ * 
+ * @author Srikar Donepudi
+ */
+public class CatalogWatcher implements Closeable {
+
+	/** Time to wait for more events before reloading, in milliseconds. */
+	private static final long SETTLE_MILLIS = 200;
+
+	/** Service watching the catalog's directory. */
+	private final WatchService watchService;
+	/** Name of the catalog file within its directory. */
+	private final Path fileName;
+	/** Executor the reload is run on. */
+	private final Executor executor;
+	/** Reload to run when the file changes. */
+	private final Runnable reload;
+
+	/**
+	 * Starts watching the catalog file.
+	 * @param file catalog file to watch
+	 * @param executor executor to run the reload on
+	 * @param reload reload to run when the file changes
+	 * @throws IOException if the file's directory cannot be watched
+	 */
+	CatalogWatcher(Path file, Executor executor, Runnable reload) throws IOException {
+		Path absolute = file.toAbsolutePath();
+		this.fileName = absolute.getFileName();
+		this.executor = executor;
+		this.reload = reload;
+		this.watchService = FileSystems.getDefault().newWatchService();
+		absolute.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+		Thread thread = new Thread(this::watch, "WolfScheduler catalog watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops watching the catalog file.
+	 */
+	@Override
+	public void close() {
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			//The watch thread stops either way
+		}
+	}
+
+	/**
+	 * Waits for changes to the catalog file until the watch service is closed.
+	 */
+	private void watch() {
+		try {
+			while (true) {
+				boolean changed = drain(watchService.take());
+				//Let the writer finish before reading the file
+				WatchKey key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+				while (key != null) {
+					changed |= drain(key);
+					key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				if (changed) {
+					try {
+						executor.execute(reload);
+					} catch (RuntimeException e) {
+						//A rejected reload, or a listener that failed on this thread, does not stop the watch
+						Thread thread = Thread.currentThread();
+						thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+					}
+				}
+			}
+		} catch (ClosedWatchServiceException | InterruptedException e) {
+			//Closed, so stop watching
+		}
+	}
+
+	/**
+	 * Reads the events from a key and resets it.
+	 * @param key key with pending events
+	 * @return true if any event was for the catalog file
+	 */
+	private boolean drain(WatchKey key) {
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+}
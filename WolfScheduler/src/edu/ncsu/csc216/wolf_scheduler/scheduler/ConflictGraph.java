@@ -0,0 +1,632 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingPattern;
+import edu.ncsu.csc216.wolf_scheduler.io.FileReplacement;
+
+/**
+ * Which sections of a catalog conflict with each other, as Activity.checkConflict() decides.
+ * Sections are identified by their position in the catalog.
+ *
+ * Whether two sections conflict depends only on their meeting patterns, and a catalog has far
+ * fewer distinct patterns than sections, so the graph is kept between patterns: each pattern
+ * has a row of bits, one for each pattern, set for the patterns it conflicts with.  Two
+ * different sections conflict if the row of the one's pattern has the bit of the other's.
+ * Arranged sections have no pattern and conflict with nothing.
+ *
+ * Rows are built in parallel, each by one task, so no two tasks write the same row.  For each
+ * day of a pattern, the patterns of that day are sorted by start time, and only those whose
+ * start is within the longest meeting of that day before the pattern's end can overlap it, so
+ * each row only looks at a window of that sorted list.  Patterns that touch it, ending as it
+ * starts or starting as it ends, come from tables by minute.
+ *
+ * When the catalog is reloaded, apply() moves the sections that were kept to their new
+ * positions and only builds rows for meeting patterns new to the catalog.
+ *
+ * A graph can be written to a file and read back for the same catalog, or any catalog whose
+ * sections have the same meeting patterns in the same order.  The file ends with a CRC32C of
+ * everything before it.
+ *
+ * @author Srikar Donepudi
+ */
+public class ConflictGraph {
+
+	/** First four bytes of every graph file, "WCGR". */
+	private static final int MAGIC = 0x57434752;
+	/** Version of the file layout. */
+	private static final int VERSION = 1;
+	/** Number of bytes in the checksum at the end of a file. */
+	private static final int CHECKSUM_BYTES = Long.BYTES;
+	/** Number of days a pattern can meet on. */
+	private static final int DAYS = 7;
+	/** Pattern of an arranged section. */
+	private static final int NONE = -1;
+	/** Largest number of rows a task builds without splitting. */
+	private static final int ROWS_PER_TASK = 64;
+
+	/** Pattern of each section, or NONE if it is arranged. */
+	private final int[] sectionPatterns;
+	/** Day bits of each pattern. */
+	private final int[] days;
+	/** Start of each pattern in minutes. */
+	private final int[] starts;
+	/** End of each pattern in minutes. */
+	private final int[] ends;
+	/** Bit q of row p is set if pattern p conflicts with pattern q. */
+	private final long[][] rows;
+	/** Sections of each pattern, in catalog order, or null until getConflicts() needs them. */
+	private int[][] sectionsByPattern;
+
+	/**
+	 * Constructs a graph from its parts.
+	 *
+	 * @param sectionPatterns pattern of each section
+	 * @param days day bits of each pattern
+	 * @param starts start of each pattern
+	 * @param ends end of each pattern
+	 * @param rows conflict row of each pattern
+	 */
+	private ConflictGraph(int[] sectionPatterns, int[] days, int[] starts, int[] ends, long[][] rows) {
+		this.sectionPatterns = sectionPatterns;
+		this.days = days;
+		this.starts = starts;
+		this.ends = ends;
+		this.rows = rows;
+	}
+
+	/**
+	 * Builds the conflict graph of a catalog, building the rows in parallel in the pool.
+	 *
+	 * @param catalog the sections
+	 * @param pool the pool to build the rows in
+	 * @return the graph
+	 */
+	public static ConflictGraph build(List<Course> catalog, ForkJoinPool pool) {
+		HashMap<MeetingPattern, Integer> ids = new HashMap<MeetingPattern, Integer>();
+		ArrayList<MeetingPattern> patterns = new ArrayList<MeetingPattern>();
+		int[] sectionPatterns = new int[catalog.size()];
+		for (int i = 0; i < sectionPatterns.length; i++) {
+			MeetingPattern pattern = catalog.get(i).getMeetingPattern();
+			if (pattern.isArranged()) {
+				sectionPatterns[i] = NONE;
+				continue;
+			}
+			Integer id = ids.get(pattern);
+			if (id == null) {
+				id = patterns.size();
+				ids.put(pattern, id);
+				patterns.add(pattern);
+			}
+			sectionPatterns[i] = id;
+		}
+		int count = patterns.size();
+		int[] days = new int[count];
+		int[] starts = new int[count];
+		int[] ends = new int[count];
+		for (int p = 0; p < count; p++) {
+			days[p] = patterns.get(p).getDays();
+			starts[p] = patterns.get(p).getStartMinute();
+			ends[p] = patterns.get(p).getEndMinute();
+		}
+		ConflictGraph graph = new ConflictGraph(sectionPatterns, days, starts, ends, new long[count][words(count)]);
+		pool.invoke(new RowTask(graph, new Sweep(days, starts, ends), 0, count));
+		return graph;
+	}
+
+	/**
+	 * Returns the graph of a reloaded catalog.  The kept sections are moved to their new
+	 * positions, and only patterns new to the catalog get rows, tested against every pattern.
+	 * This graph is not changed, since it may have been handed out, but the new one shares
+	 * its rows when there are no new patterns.  Once fewer than half the patterns are used by
+	 * a section, the graph is built again from the catalog.
+	 *
+	 * @param change where the kept sections moved to
+	 * @param catalog the new catalog
+	 * @param pool the pool to build the rows in if the graph is built again
+	 * @return the graph of the new catalog
+	 */
+	ConflictGraph apply(CatalogChange change, List<Course> catalog, ForkJoinPool pool) {
+		int[] moved = change.getMoved();
+		int[] newSections = new int[catalog.size()];
+		boolean[] kept = new boolean[newSections.length];
+		for (int i = 0; i < moved.length; i++) {
+			if (moved[i] >= 0) {
+				kept[moved[i]] = true;
+				newSections[moved[i]] = sectionPatterns[i];
+			}
+		}
+		HashMap<Long, Integer> ids = new HashMap<Long, Integer>();
+		for (int p = 0; p < rows.length; p++) {
+			ids.put(key(days[p], starts[p], ends[p]), p);
+		}
+		ArrayList<MeetingPattern> added = new ArrayList<MeetingPattern>();
+		for (int i = 0; i < newSections.length; i++) {
+			if (kept[i]) {
+				continue;
+			}
+			MeetingPattern pattern = catalog.get(i).getMeetingPattern();
+			if (pattern.isArranged()) {
+				newSections[i] = NONE;
+				continue;
+			}
+			Integer id = ids.putIfAbsent(key(pattern.getDays(), pattern.getStartMinute(), pattern.getEndMinute()), ids.size());
+			if (id == null) {
+				id = rows.length + added.size();
+				added.add(pattern);
+			}
+			newSections[i] = id;
+		}
+		int count = rows.length + added.size();
+		int[] newDays = Arrays.copyOf(days, count);
+		int[] newStarts = Arrays.copyOf(starts, count);
+		int[] newEnds = Arrays.copyOf(ends, count);
+		for (int p = rows.length; p < count; p++) {
+			newDays[p] = added.get(p - rows.length).getDays();
+			newStarts[p] = added.get(p - rows.length).getStartMinute();
+			newEnds[p] = added.get(p - rows.length).getEndMinute();
+		}
+		boolean[] used = new boolean[count];
+		int usedCount = 0;
+		for (int p : newSections) {
+			if (p != NONE && !used[p]) {
+				used[p] = true;
+				usedCount++;
+			}
+		}
+		if (usedCount * 2 < count) {
+			return build(catalog, pool);
+		}
+		if (count == rows.length) {
+			return new ConflictGraph(newSections, days, starts, ends, rows);
+		}
+		long[][] newRows = new long[count][];
+		for (int p = 0; p < count; p++) {
+			newRows[p] = p < rows.length ? Arrays.copyOf(rows[p], words(count)) : new long[words(count)];
+		}
+		for (int p = rows.length; p < count; p++) {
+			for (int q = 0; q < count; q++) {
+				if (newEnds[p] == newStarts[q] || newStarts[p] == newEnds[q]
+						|| (newDays[p] & newDays[q]) != 0 && newStarts[p] < newEnds[q] && newEnds[p] > newStarts[q]) {
+					newRows[p][q >>> 6] |= 1L << q;
+					newRows[q][p >>> 6] |= 1L << p;
+				}
+			}
+		}
+		return new ConflictGraph(newSections, newDays, newStarts, newEnds, newRows);
+	}
+
+	/**
+	 * Returns a key that identifies a pattern by its days and times.
+	 *
+	 * @param days day bits of the pattern
+	 * @param start start of the pattern in minutes
+	 * @param end end of the pattern in minutes
+	 * @return the key
+	 */
+	private static long key(int days, int start, int end) {
+		return (long) days << 32 | start << 16 | end;
+	}
+
+	/**
+	 * Returns the number of sections in the graph.
+	 *
+	 * @return the number of sections
+	 */
+	public int size() {
+		return sectionPatterns.length;
+	}
+
+	/**
+	 * Returns true if two sections conflict.  A section does not conflict with itself.
+	 *
+	 * @param section position of one section
+	 * @param other position of the other section
+	 * @return true if the sections conflict
+	 * @throws IndexOutOfBoundsException if either position is out of range
+	 */
+	public boolean conflicts(int section, int other) {
+		int p = sectionPatterns[section];
+		int q = sectionPatterns[other];
+		return section != other && p != NONE && q != NONE && (rows[p][q >>> 6] & 1L << q) != 0;
+	}
+
+	/**
+	 * Returns true if a section conflicts with any of the others.
+	 *
+	 * @param section position of the section
+	 * @param others positions of the other sections
+	 * @return true if the section conflicts with at least one of the others
+	 * @throws IndexOutOfBoundsException if any position is out of range
+	 */
+	public boolean conflictsWithAny(int section, int[] others) {
+		for (int other : others) {
+			if (conflicts(section, other)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns every section that conflicts with a section.
+	 *
+	 * @param section position of the section
+	 * @return the positions of the conflicting sections, in increasing order
+	 * @throws IndexOutOfBoundsException if the position is out of range
+	 */
+	public int[] getConflicts(int section) {
+		int p = sectionPatterns[section];
+		if (p == NONE) {
+			return new int[0];
+		}
+		int[][] sections = getSectionsByPattern();
+		int count = 0;
+		long[] row = rows[p];
+		for (int q = nextSetBit(row, 0); q >= 0; q = nextSetBit(row, q + 1)) {
+			count += sections[q].length;
+		}
+		int[] conflicts = new int[count];
+		count = 0;
+		for (int q = nextSetBit(row, 0); q >= 0; q = nextSetBit(row, q + 1)) {
+			for (int other : sections[q]) {
+				if (other != section) {
+					conflicts[count++] = other;
+				}
+			}
+		}
+		conflicts = Arrays.copyOf(conflicts, count);
+		Arrays.sort(conflicts);
+		return conflicts;
+	}
+
+	/**
+	 * Returns the sections of each pattern, grouping them on first use.
+	 *
+	 * @return the sections of each pattern, in catalog order
+	 */
+	private synchronized int[][] getSectionsByPattern() {
+		if (sectionsByPattern == null) {
+			int[] counts = new int[rows.length];
+			for (int p : sectionPatterns) {
+				if (p != NONE) {
+					counts[p]++;
+				}
+			}
+			int[][] sections = new int[rows.length][];
+			for (int p = 0; p < sections.length; p++) {
+				sections[p] = new int[counts[p]];
+				counts[p] = 0;
+			}
+			for (int i = 0; i < sectionPatterns.length; i++) {
+				int p = sectionPatterns[i];
+				if (p != NONE) {
+					sections[p][counts[p]++] = i;
+				}
+			}
+			sectionsByPattern = sections;
+		}
+		return sectionsByPattern;
+	}
+
+	/**
+	 * Writes the graph to a file.  The graph is written to a temporary file first and then
+	 * moved into place, so a reader never sees half a graph.
+	 *
+	 * @param fileName the file to write the graph to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(String fileName) throws IOException {
+		File target = FileReplacement.resolve(fileName);
+		File temp = FileReplacement.createTempFile(target);
+		try {
+			CRC32C crc = new CRC32C();
+			try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				//Buffered ahead of the checksum, so it is updated a block at a time rather than a byte
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(sectionPatterns.length);
+				out.writeInt(rows.length);
+				for (int p = 0; p < rows.length; p++) {
+					out.writeByte(days[p]);
+					out.writeShort(starts[p]);
+					out.writeShort(ends[p]);
+				}
+				for (int p : sectionPatterns) {
+					out.writeInt(p);
+				}
+				for (long[] row : rows) {
+					for (long word : row) {
+						out.writeLong(word);
+					}
+				}
+				out.flush();
+				//The checksum itself is not part of what it covers
+				file.writeLong(crc.getValue());
+			}
+			FileReplacement.replace(temp, target);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * Reads a graph written by write() if it fits a catalog: it has as many sections, and each
+	 * section has the same meeting pattern as the section at the same position of the catalog.
+	 *
+	 * @param fileName the file to read
+	 * @param catalog the catalog the graph should fit
+	 * @return the graph, or null if the file is missing, damaged or does not fit the catalog
+	 */
+	public static ConflictGraph read(String fileName, List<Course> catalog) {
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(new File(fileName).toPath());
+		} catch (IOException e) {
+			return null;
+		}
+		if (bytes.length < CHECKSUM_BYTES) {
+			return null;
+		}
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		CRC32C crc = new CRC32C();
+		crc.update(bytes, 0, bytes.length - CHECKSUM_BYTES);
+		if (crc.getValue() != buf.getLong(bytes.length - CHECKSUM_BYTES)) {
+			return null;
+		}
+		buf.limit(bytes.length - CHECKSUM_BYTES);
+		try {
+			if (buf.getInt() != MAGIC || buf.getInt() != VERSION || buf.getInt() != catalog.size()) {
+				return null;
+			}
+			int count = buf.getInt();
+			int[] days = new int[count];
+			int[] starts = new int[count];
+			int[] ends = new int[count];
+			for (int p = 0; p < count; p++) {
+				days[p] = buf.get();
+				starts[p] = buf.getShort();
+				ends[p] = buf.getShort();
+			}
+			int[] sectionPatterns = new int[catalog.size()];
+			for (int i = 0; i < sectionPatterns.length; i++) {
+				int p = buf.getInt();
+				MeetingPattern pattern = catalog.get(i).getMeetingPattern();
+				if (p == NONE ? !pattern.isArranged()
+						: pattern.getDays() != days[p] || pattern.getStartMinute() != starts[p] || pattern.getEndMinute() != ends[p]) {
+					return null;
+				}
+				sectionPatterns[i] = p;
+			}
+			long[][] rows = new long[count][words(count)];
+			for (long[] row : rows) {
+				for (int w = 0; w < row.length; w++) {
+					row[w] = buf.getLong();
+				}
+			}
+			return buf.hasRemaining() ? null : new ConflictGraph(sectionPatterns, days, starts, ends, rows);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of words in a row of bits.
+	 *
+	 * @param bits the number of bits
+	 * @return the number of longs that hold them
+	 */
+	private static int words(int bits) {
+		return (bits + Long.SIZE - 1) / Long.SIZE;
+	}
+
+	/**
+	 * Returns the first set bit of a row at or after a bit.
+	 *
+	 * @param row the row
+	 * @param from the bit to start at
+	 * @return the set bit, or -1 if there is none
+	 */
+	private static int nextSetBit(long[] row, int from) {
+		int w = from >>> 6;
+		if (w >= row.length) {
+			return -1;
+		}
+		long word = row[w] & -1L << from;
+		while (word == 0) {
+			if (++w == row.length) {
+				return -1;
+			}
+			word = row[w];
+		}
+		return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * The patterns of each day sorted by start, and the patterns by start and by end minute,
+	 * shared read only by every RowTask.
+	 */
+	private static class Sweep {
+
+		/** Patterns of each day, sorted by start. */
+		private final int[][] byStart = new int[DAYS][];
+		/** Start of each pattern in byStart, for binary search. */
+		private final int[][] startsByDay = new int[DAYS][];
+		/** Longest meeting of each day, in minutes. */
+		private final int[] longest = new int[DAYS];
+		/** Patterns that start at each minute. */
+		private final HashMap<Integer, int[]> startingAt;
+		/** Patterns that end at each minute. */
+		private final HashMap<Integer, int[]> endingAt;
+
+		/**
+		 * Sorts the patterns for a sweep.
+		 *
+		 * @param days day bits of each pattern
+		 * @param starts start of each pattern
+		 * @param ends end of each pattern
+		 */
+		Sweep(int[] days, int[] starts, int[] ends) {
+			for (int day = 0; day < DAYS; day++) {
+				int bit = 1 << day;
+				Integer[] patterns = new Integer[days.length];
+				int count = 0;
+				for (int p = 0; p < days.length; p++) {
+					if ((days[p] & bit) != 0) {
+						patterns[count++] = p;
+						longest[day] = Math.max(longest[day], ends[p] - starts[p]);
+					}
+				}
+				Arrays.sort(patterns, 0, count, (a, b) -> Integer.compare(starts[a], starts[b]));
+				byStart[day] = new int[count];
+				startsByDay[day] = new int[count];
+				for (int i = 0; i < count; i++) {
+					byStart[day][i] = patterns[i];
+					startsByDay[day][i] = starts[patterns[i]];
+				}
+			}
+			startingAt = byMinute(starts);
+			endingAt = byMinute(ends);
+		}
+
+		/**
+		 * Groups the patterns by a minute.
+		 *
+		 * @param minutes the minute of each pattern
+		 * @return the patterns of each minute
+		 */
+		private static HashMap<Integer, int[]> byMinute(int[] minutes) {
+			HashMap<Integer, int[]> patterns = new HashMap<Integer, int[]>();
+			for (int p = 0; p < minutes.length; p++) {
+				int[] list = patterns.get(minutes[p]);
+				list = list == null ? new int[1] : Arrays.copyOf(list, list.length + 1);
+				list[list.length - 1] = p;
+				patterns.put(minutes[p], list);
+			}
+			return patterns;
+		}
+
+		/**
+		 * Sets the bits of one pattern's row.
+		 *
+		 * @param graph the graph
+		 * @param p the pattern
+		 */
+		void fillRow(ConflictGraph graph, int p) {
+			long[] row = graph.rows[p];
+			int start = graph.starts[p];
+			int end = graph.ends[p];
+			for (int day = 0; day < DAYS; day++) {
+				if ((graph.days[p] & 1 << day) == 0) {
+					continue;
+				}
+				//A pattern that starts longest[day] or more before p starts ends by the time p starts
+				int from = firstAfter(startsByDay[day], start - longest[day]);
+				int[] patterns = byStart[day];
+				for (int i = from; i < patterns.length && startsByDay[day][i] < end; i++) {
+					int q = patterns[i];
+					if (graph.ends[q] > start) {
+						row[q >>> 6] |= 1L << q;
+					}
+				}
+			}
+			setAll(row, startingAt.get(end));
+			setAll(row, endingAt.get(start));
+		}
+
+		/**
+		 * Returns the index of the first value greater than a key in a sorted array.
+		 *
+		 * @param values the sorted values
+		 * @param key the key
+		 * @return the index of the first greater value, or values.length if there is none
+		 */
+		private static int firstAfter(int[] values, int key) {
+			int low = 0;
+			int high = values.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (values[mid] <= key) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Sets the bits of a list of patterns in a row.
+		 *
+		 * @param row the row
+		 * @param patterns the patterns, or null if there are none
+		 */
+		private static void setAll(long[] row, int[] patterns) {
+			for (int i = 0; patterns != null && i < patterns.length; i++) {
+				row[patterns[i] >>> 6] |= 1L << patterns[i];
+			}
+		}
+	}
+
+	/**
+	 * Builds a range of rows, splitting the range in half until each task has at most
+	 * ROWS_PER_TASK rows.
+	 */
+	private static class RowTask extends RecursiveAction {
+
+		/** Default serial version UID */
+		private static final long serialVersionUID = 1L;
+		/** The graph whose rows are built. */
+		private final transient ConflictGraph graph;
+		/** The sorted patterns. */
+		private final transient Sweep sweep;
+		/** First row of the range. */
+		private final int from;
+		/** One past the last row of the range. */
+		private final int to;
+
+		/**
+		 * Constructs a task for rows from through to - 1.
+		 *
+		 * @param graph the graph whose rows are built
+		 * @param sweep the sorted patterns
+		 * @param from first row of the range
+		 * @param to one past the last row of the range
+		 */
+		RowTask(ConflictGraph graph, Sweep sweep, int from, int to) {
+			this.graph = graph;
+			this.sweep = sweep;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= ROWS_PER_TASK) {
+				for (int p = from; p < to; p++) {
+					sweep.fillRow(graph, p);
+				}
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new RowTask(graph, sweep, from, mid), new RowTask(graph, sweep, mid, to));
+			}
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A set of closed intervals of ints, each with an id, that finds every interval overlapping a
+ * range.  It is a treap ordered by start and then id in which every node also keeps the
+ * latest end below it, so a query skips every subtree that ends too early or starts too late.
+ * A query visits about one path of the tree for each interval it finds, and the tree is
+ * logarithmic in height with high probability.  Each id is used once per tree.
+ *
+ * @author Srikar Donepudi
+ */
+class IntervalTree {
+
+	/** Root of the tree, or null if it is empty. */
+	private Node root;
+
+	/**
+	 * Adds an interval.
+	 *
+	 * @param start the start of the interval
+	 * @param end the end of the interval
+	 * @param id the id of the interval
+	 */
+	void add(int start, int end, int id) {
+		root = insert(root, new Node(start, end, id));
+	}
+
+	/**
+	 * Removes an interval.  An interval that is not in the tree is ignored.
+	 *
+	 * @param start the start of the interval
+	 * @param id the id of the interval
+	 */
+	void remove(int start, int id) {
+		root = delete(root, start, id);
+	}
+
+	/**
+	 * Passes the id of every interval that has a point from from through to, in order of start
+	 * and then id.  A range that ends before it starts finds the intervals that start at or
+	 * before to and end at or after from.
+	 *
+	 * @param from the start of the range
+	 * @param to the end of the range
+	 * @param action told the id of each interval found
+	 */
+	void find(int from, int to, IntConsumer action) {
+		find(root, from, to, action);
+	}
+
+	/**
+	 * Passes, in order, the ids of a subtree's intervals that overlap a range.
+	 *
+	 * @param node the root of the subtree
+	 * @param from the start of the range
+	 * @param to the end of the range
+	 * @param action told the id of each interval found
+	 */
+	private static void find(Node node, int from, int to, IntConsumer action) {
+		if (node == null || node.maxEnd < from) {
+			return; //Everything below ends before the range
+		}
+		find(node.left, from, to, action);
+		if (node.start <= to) {
+			if (node.end >= from) {
+				action.accept(node.id);
+			}
+			find(node.right, from, to, action);
+		}
+	}
+
+	/**
+	 * Inserts a node into a subtree.
+	 *
+	 * @param root the root of the subtree
+	 * @param node the node to insert
+	 * @return the new root of the subtree
+	 */
+	private static Node insert(Node root, Node node) {
+		if (root == null) {
+			return node;
+		}
+		if (node.compareTo(root.start, root.id) < 0) {
+			root.left = insert(root.left, node);
+			if (root.left.priority > root.priority) {
+				root = rotateRight(root);
+			}
+		} else {
+			root.right = insert(root.right, node);
+			if (root.right.priority > root.priority) {
+				root = rotateLeft(root);
+			}
+		}
+		root.update();
+		return root;
+	}
+
+	/**
+	 * Deletes the node with the given start and id from a subtree.
+	 *
+	 * @param root the root of the subtree
+	 * @param start the start of the node
+	 * @param id the id of the node
+	 * @return the new root of the subtree
+	 */
+	private static Node delete(Node root, int start, int id) {
+		if (root == null) {
+			return null;
+		}
+		int cmp = root.compareTo(start, id);
+		if (cmp > 0) {
+			root.left = delete(root.left, start, id);
+		} else if (cmp < 0) {
+			root.right = delete(root.right, start, id);
+		} else if (root.left == null) {
+			return root.right;
+		} else if (root.right == null) {
+			return root.left;
+		} else if (root.left.priority > root.right.priority) {
+			root = rotateRight(root);
+			root.right = delete(root.right, start, id);
+		} else {
+			root = rotateLeft(root);
+			root.left = delete(root.left, start, id);
+		}
+		root.update();
+		return root;
+	}
+
+	/**
+	 * Rotates a node's left child up into its place.
+	 *
+	 * @param node the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		node.update();
+		left.update();
+		return left;
+	}
+
+	/**
+	 * Rotates a node's right child up into its place.
+	 *
+	 * @param node the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		node.update();
+		right.update();
+		return right;
+	}
+
+	/**
+	 * One interval of the tree.
+	 */
+	private static class Node {
+
+		/** Start of the interval. */
+		private final int start;
+		/** End of the interval. */
+		private final int end;
+		/** Id of the interval, which breaks ties between equal starts. */
+		private final int id;
+		/** Heap priority of the node, fixed from its id so the tree shape is repeatable. */
+		private final int priority;
+		/** Latest end of this node and every node below it. */
+		private int maxEnd;
+		/** Subtree of earlier intervals. */
+		private Node left;
+		/** Subtree of later intervals. */
+		private Node right;
+
+		/**
+		 * Constructs a node for an interval.
+		 *
+		 * @param start the start
+		 * @param end the end
+		 * @param id the id
+		 */
+		Node(int start, int end, int id) {
+			this.start = start;
+			this.end = end;
+			this.id = id;
+			this.priority = id * 0x9E3779B9;
+			this.maxEnd = end;
+		}
+
+		/**
+		 * Compares this node's place in the tree with a start and id.
+		 *
+		 * @param otherStart the other start
+		 * @param otherId the other id
+		 * @return negative, zero or positive as this node comes before, at or after the other
+		 */
+		int compareTo(int otherStart, int otherId) {
+			if (start != otherStart) {
+				return Integer.compare(start, otherStart);
+			}
+			return Integer.compare(id, otherId);
+		}
+
+		/**
+		 * Recomputes the latest end below this node after its children change.
+		 */
+		void update() {
+			maxEnd = end;
+			if (left != null && left.maxEnd > maxEnd) {
+				maxEnd = left.maxEnd;
+			}
+			if (right != null && right.maxEnd > maxEnd) {
+				maxEnd = right.maxEnd;
+			}
+		}
+	}
+}
@@ -0,0 +1,319 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingPattern;
+
+/**
+ * Finds the sections of a catalog that addCourseToSchedule() would accept with the current
+ * schedule: those that neither conflict with a scheduled activity nor share a name with a
+ * scheduled Course.
+ *
+ * The schedule is kept as a bitmap of the week.  Each day has two cells for every minute, and
+ * a meeting from start to end fills cells 2 * start + 1 through 2 * end - 1, or cell 2 * start
+ * if it starts and ends in the same minute.  Two meetings on the same day share a cell exactly
+ * when Activity.checkConflict() finds their times overlapping, so a section is tested with a
+ * few word-wise ANDs on each of its days.  Meetings that touch, one ending at the minute the
+ * other starts, conflict on any day and are found from counts of the schedule's start and end
+ * minutes.  Each cell also has a count, so a removed activity clears only the cells no other
+ * activity fills.
+ *
+ * Sections with the same meeting pattern fit or not together, so the fit is kept for each
+ * distinct pattern of the catalog.  Adding an activity only retests the patterns that fit,
+ * against the new activity, and removing one only retests the patterns that did not.  When the
+ * catalog is reloaded, the kept sections are moved to their new positions and only patterns
+ * new to the catalog are tested.
+ *
+ * @author Srikar Donepudi
+ */
+class OccupancyFilter {
+
+	/** Number of days in the week. */
+	private static final int DAYS = 7;
+	/** Minutes in a day. */
+	private static final int MINUTES = 24 * 60;
+	/** Cells in a day, two for each minute. */
+	private static final int CELLS = 2 * MINUTES;
+	/** Pattern of an arranged section. */
+	private static final int NONE = -1;
+
+	/** The catalog. */
+	private List<Course> catalog;
+	/** Pattern of each section, or NONE if it is arranged. */
+	private int[] sectionPatterns;
+	/** Name of each section, as an index into nameCounts. */
+	private int[] sectionNames;
+	/** Index of each course name in the catalog or the schedule. */
+	private final HashMap<String, Integer> names = new HashMap<String, Integer>();
+	/** Number of scheduled Courses with each name, with room for more past names.size(). */
+	private int[] nameCounts = new int[0];
+	/** Index of each distinct pattern in patterns. */
+	private final HashMap<MeetingPattern, Integer> patternIds = new HashMap<MeetingPattern, Integer>();
+	/** Distinct patterns of the catalog, with room for more past patternIds.size(). */
+	private MeetingPattern[] patterns = new MeetingPattern[0];
+	/** Whether each pattern fits the schedule. */
+	private boolean[] fits = new boolean[0];
+	/** Bits of the cells the schedule fills, day after day. */
+	private final long[] occupied = new long[(DAYS * CELLS + Long.SIZE - 1) / Long.SIZE];
+	/** Number of scheduled activities that fill each cell. */
+	private final short[] cellCounts = new short[DAYS * CELLS];
+	/** Number of scheduled activities that start at each minute. */
+	private final int[] startCounts = new int[MINUTES];
+	/** Number of scheduled activities that end at each minute. */
+	private final int[] endCounts = new int[MINUTES];
+
+	/**
+	 * Builds a filter of a catalog with an empty schedule.
+	 *
+	 * @param catalog the catalog
+	 */
+	OccupancyFilter(List<Course> catalog) {
+		this.catalog = catalog;
+		sectionPatterns = new int[catalog.size()];
+		sectionNames = new int[catalog.size()];
+		for (int i = 0; i < sectionPatterns.length; i++) {
+			index(i);
+		}
+	}
+
+	/**
+	 * Applies a reload of the catalog.  Patterns that no section has any more are kept, as
+	 * they cost only a test when the schedule changes.
+	 *
+	 * @param change where the kept sections moved to
+	 * @param catalog the new catalog
+	 */
+	void apply(CatalogChange change, List<Course> catalog) {
+		int[] moved = change.getMoved();
+		int[] oldPatterns = sectionPatterns;
+		int[] oldNames = sectionNames;
+		this.catalog = catalog;
+		sectionPatterns = new int[catalog.size()];
+		sectionNames = new int[catalog.size()];
+		boolean[] kept = new boolean[catalog.size()];
+		for (int i = 0; i < moved.length; i++) {
+			if (moved[i] >= 0) {
+				kept[moved[i]] = true;
+				sectionPatterns[moved[i]] = oldPatterns[i];
+				sectionNames[moved[i]] = oldNames[i];
+			}
+		}
+		for (int i = 0; i < kept.length; i++) {
+			if (!kept[i]) {
+				index(i);
+			}
+		}
+	}
+
+	/**
+	 * Finds the name and pattern of the section at a position, adding them if they are new.
+	 *
+	 * @param position the position of the section
+	 */
+	private void index(int position) {
+		Course c = catalog.get(position);
+		sectionNames[position] = nameOf(c.getName());
+		MeetingPattern pattern = c.getMeetingPattern();
+		if (pattern.isArranged()) {
+			sectionPatterns[position] = NONE;
+			return;
+		}
+		Integer id = patternIds.get(pattern);
+		if (id == null) {
+			id = patternIds.size();
+			patternIds.put(pattern, id);
+			if (id == patterns.length) {
+				patterns = Arrays.copyOf(patterns, Math.max(16, 2 * id));
+				fits = Arrays.copyOf(fits, patterns.length);
+			}
+			patterns[id] = pattern;
+			fits[id] = fitsSchedule(pattern);
+		}
+		sectionPatterns[position] = id;
+	}
+
+	/**
+	 * Returns the index of a course name, adding it if it is new.
+	 *
+	 * @param name the course name
+	 * @return the index of the name in nameCounts
+	 */
+	private int nameOf(String name) {
+		Integer id = names.get(name);
+		if (id == null) {
+			id = names.size();
+			names.put(name, id);
+			if (id == nameCounts.length) {
+				nameCounts = Arrays.copyOf(nameCounts, Math.max(16, 2 * id));
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Adds a scheduled activity, and drops the patterns it conflicts with.
+	 *
+	 * @param activity the activity
+	 */
+	void add(Activity activity) {
+		countName(activity, 1);
+		MeetingPattern pattern = activity.getMeetingPattern();
+		if (pattern.isArranged()) {
+			return;
+		}
+		fill(pattern, 1);
+		for (int p = 0, count = patternIds.size(); p < count; p++) {
+			if (fits[p]) {
+				fits[p] = fitsSchedule(patterns[p]);
+			}
+		}
+	}
+
+	/**
+	 * Removes a scheduled activity, and brings back the patterns that now fit.
+	 *
+	 * @param activity the activity
+	 */
+	void remove(Activity activity) {
+		countName(activity, -1);
+		MeetingPattern pattern = activity.getMeetingPattern();
+		if (pattern.isArranged()) {
+			return;
+		}
+		fill(pattern, -1);
+		for (int p = 0, count = patternIds.size(); p < count; p++) {
+			if (!fits[p]) {
+				fits[p] = fitsSchedule(patterns[p]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the sections that fit the schedule.
+	 *
+	 * @return the sections, in catalog order
+	 */
+	List<Course> getCompatibleSections() {
+		ArrayList<Course> sections = new ArrayList<Course>();
+		for (int i = 0; i < sectionPatterns.length; i++) {
+			int p = sectionPatterns[i];
+			if ((p == NONE || fits[p]) && nameCounts[sectionNames[i]] == 0) {
+				sections.add(catalog.get(i));
+			}
+		}
+		return Collections.unmodifiableList(sections);
+	}
+
+	/**
+	 * Counts a scheduled Course's name.  Names that are not in the catalog are counted too, in
+	 * case a reload adds sections with that name.
+	 *
+	 * @param activity the scheduled activity
+	 * @param delta 1 if the activity is added, -1 if it is removed
+	 */
+	private void countName(Activity activity, int delta) {
+		if (activity instanceof Course) {
+			nameCounts[nameOf(((Course) activity).getName())] += delta;
+		}
+	}
+
+	/**
+	 * Returns true if a pattern neither touches nor shares a cell with the schedule.
+	 *
+	 * @param pattern the pattern
+	 * @return true if the pattern fits
+	 */
+	private boolean fitsSchedule(MeetingPattern pattern) {
+		if (startCounts[pattern.getEndMinute()] > 0 || endCounts[pattern.getStartMinute()] > 0) {
+			return false;
+		}
+		int first = firstCell(pattern);
+		int last = lastCell(pattern);
+		for (int day = 0; day < DAYS; day++) {
+			if ((pattern.getDays() & 1 << day) != 0 && anySet(day * CELLS + first, day * CELLS + last)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if any cell from one through another is occupied, a word at a time.
+	 *
+	 * @param from the first cell
+	 * @param to the last cell
+	 * @return true if any of the cells is occupied
+	 */
+	private boolean anySet(int from, int to) {
+		int firstWord = from >>> 6;
+		int lastWord = to >>> 6;
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> (Long.SIZE - 1 - (to & (Long.SIZE - 1)));
+		if (firstWord == lastWord) {
+			return (occupied[firstWord] & firstMask & lastMask) != 0;
+		}
+		if ((occupied[firstWord] & firstMask) != 0 || (occupied[lastWord] & lastMask) != 0) {
+			return true;
+		}
+		for (int w = firstWord + 1; w < lastWord; w++) {
+			if (occupied[w] != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds or removes one activity's cells and its start and end minutes.
+	 *
+	 * @param pattern the activity's pattern
+	 * @param delta 1 to add the activity, -1 to remove it
+	 */
+	private void fill(MeetingPattern pattern, int delta) {
+		startCounts[pattern.getStartMinute()] += delta;
+		endCounts[pattern.getEndMinute()] += delta;
+		int first = firstCell(pattern);
+		int last = lastCell(pattern);
+		for (int day = 0; day < DAYS; day++) {
+			if ((pattern.getDays() & 1 << day) == 0) {
+				continue;
+			}
+			for (int cell = day * CELLS + first; cell <= day * CELLS + last; cell++) {
+				cellCounts[cell] += delta;
+				if (cellCounts[cell] == 0) {
+					occupied[cell >>> 6] &= ~(1L << cell);
+				} else {
+					occupied[cell >>> 6] |= 1L << cell;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the first cell of a day that a pattern fills.
+	 *
+	 * @param pattern the pattern
+	 * @return the first cell
+	 */
+	private static int firstCell(MeetingPattern pattern) {
+		int start = pattern.getStartMinute();
+		return start == pattern.getEndMinute() ? 2 * start : 2 * start + 1;
+	}
+
+	/**
+	 * Returns the last cell of a day that a pattern fills.
+	 *
+	 * @param pattern the pattern
+	 * @return the last cell
+	 */
+	private static int lastCell(MeetingPattern pattern) {
+		int end = pattern.getEndMinute();
+		return pattern.getStartMinute() == end ? 2 * end : 2 * end - 1;
+	}
+}
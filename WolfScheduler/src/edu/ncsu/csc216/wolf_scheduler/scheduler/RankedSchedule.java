@@ -0,0 +1,48 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * A schedule found by WolfScheduler.optimizeSchedule() and its score under the preferences
+ * it was found with.  A lower score is better.
+ *
+ * @author Srikar Donepudi
+ */
+public class RankedSchedule {
+
+	/** The activities of the schedule, in the order they can be added */
+	private final List<Activity> activities;
+	/** The score of the schedule */
+	private final long score;
+
+	/**
+	 * Constructs a ranked schedule.
+	 *
+	 * @param activities the activities of the schedule
+	 * @param score the score of the schedule
+	 */
+	RankedSchedule(List<Activity> activities, long score) {
+		this.activities = Collections.unmodifiableList(activities);
+		this.score = score;
+	}
+
+	/**
+	 * Returns the activities of the schedule: the scheduled activities that are kept, in
+	 * schedule order, and then a section of each course on the wishlist, in wishlist order.
+	 * @return the activities
+	 */
+	public List<Activity> getActivities() {
+		return activities;
+	}
+
+	/**
+	 * Returns the score of the schedule.
+	 * @return the score; lower is better
+	 */
+	public long getScore() {
+		return score;
+	}
+}
@@ -0,0 +1,474 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Finds every way to pick one section from each of several groups so that no two picked
+ * sections conflict, as Activity.checkConflict() defines it.
+ *
+ * The candidate sections are numbered group after group, with the smallest groups first so
+ * that dead ends are found early.  Each candidate has a bitset of the candidates it conflicts
+ * with.  The search keeps a bitset of the candidates that are still allowed, clears a row from
+ * it with each pick, and backs up as soon as some group has no allowed candidate left.  The
+ * first few levels of the search are split into parts that run on the pool.
+ *
+ * Schedules are handed to the consumer through a queue, and the search stays at most about a
+ * queue ahead of the consumer.  A part that finds the queue full does not wait for room: it
+ * parks itself and returns its thread to the pool, and the consumer hands the parked parts
+ * back to the pool once it has taken half of the queue.  So a consumer that stops pulling,
+ * such as findFirst() on a stream that is never closed, leaves no task running or blocked.
+ * The search stops once the limit is reached, the time is up or the stream is closed.
+ *
+ * @author Srikar Donepudi
+ */
+class ScheduleGenerator {
+
+	/** Number of schedules the search may be ahead of the consumer. */
+	private static final int CAPACITY = 256;
+	/** Number of parts to split the search into for each thread of the pool. */
+	private static final int TASKS_PER_THREAD = 8;
+	/** Marks the end of the search in the queue. */
+	private static final List<Course> END = Collections.unmodifiableList(new ArrayList<Course>());
+
+	/** The candidate sections, group after group in search order. */
+	private final Course[] candidates;
+	/** First candidate of each group in search order, and then the number of candidates. */
+	private final int[] groupStarts;
+	/** Position in the result of each group in search order. */
+	private final int[] positions;
+	/** Bits of the candidates each candidate conflicts with. */
+	private final long[][] conflicts;
+	/** Number of groups that are split into parts. */
+	private final int forkDepth;
+	/** Largest number of schedules to find. */
+	private final int limit;
+	/** Time allowed for the search, in nanoseconds. */
+	private final long timeout;
+	/** The pool to search on. */
+	private final ForkJoinPool pool;
+	/** Schedules found and not yet consumed; parts only add to it while it has fewer than CAPACITY. */
+	private final LinkedBlockingQueue<List<Course>> queue = new LinkedBlockingQueue<List<Course>>();
+	/** Parts that are waiting for room in the queue. */
+	private final ConcurrentLinkedQueue<Part> parked = new ConcurrentLinkedQueue<Part>();
+	/** Number of parts that have not finished. */
+	private final AtomicInteger running = new AtomicInteger();
+	/** Number of schedules found. */
+	private final AtomicInteger found = new AtomicInteger();
+	/** When the search must stop, in System.nanoTime() */
+	private volatile long deadline;
+	/** Whether the search must stop. */
+	private volatile boolean stopped;
+
+	/**
+	 * Sets up a search.
+	 *
+	 * @param groups the sections to pick from, one group for each position of a schedule
+	 * @param limit the largest number of schedules to find
+	 * @param timeoutMillis the time allowed for the search, in milliseconds
+	 * @param pool the pool to search on
+	 */
+	private ScheduleGenerator(List<List<Course>> groups, int limit, long timeoutMillis, ForkJoinPool pool) {
+		this.limit = limit;
+		//Far enough from overflowing that deadlines can be compared by subtraction
+		this.timeout = Math.min(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), Long.MAX_VALUE / 4);
+		this.pool = pool;
+		Integer[] order = new Integer[groups.size()];
+		for (int g = 0; g < order.length; g++) {
+			order[g] = g;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(groups.get(a).size(), groups.get(b).size()));
+		positions = new int[order.length];
+		groupStarts = new int[order.length + 1];
+		ArrayList<Course> sections = new ArrayList<Course>();
+		for (int g = 0; g < order.length; g++) {
+			positions[g] = order[g];
+			groupStarts[g] = sections.size();
+			sections.addAll(groups.get(order[g]));
+		}
+		groupStarts[order.length] = sections.size();
+		candidates = sections.toArray(new Course[sections.size()]);
+		int[] groupOf = new int[candidates.length];
+		for (int g = 0; g < order.length; g++) {
+			Arrays.fill(groupOf, groupStarts[g], groupStarts[g + 1], g);
+		}
+
+		int words = (candidates.length + Long.SIZE - 1) / Long.SIZE;
+		conflicts = new long[candidates.length][words];
+		for (int i = 0; i < candidates.length; i++) {
+			for (int j = i + 1; j < candidates.length; j++) {
+				if (groupOf[i] != groupOf[j] && candidates[i].getMeetingPattern().conflictsWith(candidates[j].getMeetingPattern())) {
+					conflicts[i][j >>> 6] |= 1L << j;
+					conflicts[j][i >>> 6] |= 1L << i;
+				}
+			}
+		}
+
+		int depth = 0;
+		long tasks = 1;
+		while (depth < order.length - 1 && tasks < (long) TASKS_PER_THREAD * pool.getParallelism()) {
+			tasks *= Math.max(1, groupStarts[depth + 1] - groupStarts[depth]);
+			depth++;
+		}
+		forkDepth = depth;
+	}
+
+	/**
+	 * Returns a stream of the conflict-free schedules with one section from each group.  The
+	 * search starts when the first schedule is asked for.  Each schedule lists its sections in
+	 * the order of the groups, and the schedules come in no particular order.  The stream ends
+	 * after limit schedules or once timeoutMillis have passed since the search started.
+	 * Closing it stops the search at once; a stream that is left unfinished and unclosed
+	 * leaves only parked parts behind, which run no further.
+	 *
+	 * @param groups the sections to pick from, one group for each position of a schedule
+	 * @param limit the largest number of schedules to find
+	 * @param timeoutMillis the time allowed for the search, in milliseconds
+	 * @param pool the pool to search on
+	 * @return the schedules
+	 */
+	static Stream<List<Course>> generate(List<List<Course>> groups, int limit, long timeoutMillis, ForkJoinPool pool) {
+		ScheduleGenerator generator = new ScheduleGenerator(groups, limit, timeoutMillis, pool);
+		Iterator<List<Course>> schedules = generator.new Schedules();
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(schedules, Spliterator.NONNULL), false)
+				.onClose(generator::cancel);
+	}
+
+	/**
+	 * Stops the search.  Running parts stop at their next pick, and parked parts stop once
+	 * they have handed over the schedule they hold.
+	 */
+	private void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Stops the search for a consumer that wants no more schedules.  The parked parts and
+	 * the queued schedules are dropped, so nothing is left to run.
+	 */
+	private void cancel() {
+		stop();
+		parked.clear();
+		queue.clear();
+	}
+
+	/**
+	 * Returns true if the search must stop, because it was stopped or the time is up.
+	 *
+	 * @return true if the search must stop
+	 */
+	private boolean isStopped() {
+		if (!stopped && System.nanoTime() - deadline > 0) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	/**
+	 * Starts the search by splitting it into parts and handing them to the pool.
+	 */
+	private void start() {
+		deadline = System.nanoTime() + timeout;
+		for (int g = 0; g < positions.length; g++) {
+			if (groupStarts[g] == groupStarts[g + 1]) {
+				queue.add(END);
+				return;
+			}
+		}
+		if (positions.length == 0) {
+			//The one way to pick from no groups
+			if (limit > 0) {
+				queue.add(Collections.unmodifiableList(new ArrayList<Course>()));
+			}
+			queue.add(END);
+			return;
+		}
+		long[] allowed = new long[(candidates.length + Long.SIZE - 1) / Long.SIZE];
+		Arrays.fill(allowed, -1L);
+		ArrayList<Part> parts = new ArrayList<Part>();
+		split(0, new int[positions.length], allowed, parts);
+		running.set(parts.size());
+		if (parts.isEmpty()) {
+			queue.add(END);
+		}
+		for (Part part : parts) {
+			pool.execute(part);
+		}
+	}
+
+	/**
+	 * Makes a part of the search for each way to pick the groups before forkDepth.
+	 *
+	 * @param depth the group to pick for next
+	 * @param chosen the candidates picked for the groups before depth
+	 * @param allowed bits of the candidates that are still allowed
+	 * @param parts where to add the parts
+	 */
+	private void split(int depth, int[] chosen, long[] allowed, List<Part> parts) {
+		if (depth == forkDepth) {
+			parts.add(new Part(chosen.clone(), allowed));
+			return;
+		}
+		for (int c = nextAllowed(allowed, groupStarts[depth], groupStarts[depth + 1]); c >= 0;
+				c = nextAllowed(allowed, c + 1, groupStarts[depth + 1])) {
+			long[] next = new long[allowed.length];
+			pick(allowed, c, next);
+			if (canComplete(next, depth + 1)) {
+				chosen[depth] = c;
+				split(depth + 1, chosen, next, parts);
+			}
+		}
+	}
+
+	/**
+	 * Hands the parts that are waiting for room back to the pool.
+	 */
+	private void resume() {
+		for (Part part = parked.poll(); part != null; part = parked.poll()) {
+			pool.execute(part);
+		}
+	}
+
+	/**
+	 * Returns a complete pick as a schedule in group order.
+	 *
+	 * @param chosen the candidate picked for each group in search order
+	 * @return the schedule
+	 */
+	private List<Course> schedule(int[] chosen) {
+		Course[] schedule = new Course[chosen.length];
+		for (int g = 0; g < chosen.length; g++) {
+			schedule[positions[g]] = candidates[chosen[g]];
+		}
+		return Collections.unmodifiableList(Arrays.asList(schedule));
+	}
+
+	/**
+	 * Returns true if every group from one on still has an allowed candidate.
+	 *
+	 * @param allowed bits of the allowed candidates
+	 * @param from the first group to check
+	 * @return true if no group has run out of candidates
+	 */
+	private boolean canComplete(long[] allowed, int from) {
+		for (int g = from; g < positions.length; g++) {
+			if (nextAllowed(allowed, groupStarts[g], groupStarts[g + 1]) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the first allowed candidate from one candidate up to, but not including, another.
+	 *
+	 * @param allowed bits of the allowed candidates
+	 * @param from the first candidate to look at
+	 * @param to the candidate to stop at
+	 * @return the candidate, or -1 if there is none
+	 */
+	private static int nextAllowed(long[] allowed, int from, int to) {
+		if (from >= to) {
+			return -1;
+		}
+		int w = from >>> 6;
+		long word = allowed[w] & -1L << from;
+		while (true) {
+			if (word != 0) {
+				int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+				return bit < to ? bit : -1;
+			}
+			if (++w << 6 >= to) {
+				return -1;
+			}
+			word = allowed[w];
+		}
+	}
+
+	/**
+	 * Clears the candidates one candidate conflicts with.
+	 *
+	 * @param allowed bits of the allowed candidates
+	 * @param candidate the candidate that was picked
+	 * @param into where to put the bits that are still allowed
+	 */
+	private void pick(long[] allowed, int candidate, long[] into) {
+		long[] row = conflicts[candidate];
+		for (int w = 0; w < allowed.length; w++) {
+			into[w] = allowed[w] & ~row[w];
+		}
+	}
+
+	/**
+	 * A part of the search: every completion of the groups picked before forkDepth.  The part
+	 * keeps its place in the search in its own arrays rather than on the stack, so when the
+	 * queue is full it can park itself and give its thread back to the pool, and carry on from
+	 * the same place when the consumer makes room.
+	 */
+	private class Part implements Runnable {
+
+		/** The candidates picked so far, for each group in search order. */
+		private final int[] picked;
+		/** Bits of the allowed candidates at each level, from forkDepth on. */
+		private final long[][] levels;
+		/** The next candidate to try at each level. */
+		private final int[] next;
+		/** The group being picked for. */
+		private int level;
+		/** A schedule found that is waiting for room in the queue, or null. */
+		private List<Course> held;
+
+		/**
+		 * Constructs a part of the search.
+		 *
+		 * @param picked the candidates picked for the groups before forkDepth
+		 * @param allowed bits of the candidates that are still allowed
+		 */
+		Part(int[] picked, long[] allowed) {
+			this.picked = picked;
+			this.levels = new long[positions.length + 1][];
+			this.next = new int[positions.length];
+			levels[forkDepth] = allowed;
+			for (int d = forkDepth + 1; d <= positions.length; d++) {
+				levels[d] = new long[allowed.length];
+			}
+			level = forkDepth;
+			next[level] = groupStarts[level];
+		}
+
+		@Override
+		public void run() {
+			if (held != null && !deliver()) {
+				return;
+			}
+			while (level >= forkDepth && !isStopped()) {
+				int c = nextAllowed(levels[level], next[level], groupStarts[level + 1]);
+				if (c < 0) {
+					level--;
+					continue;
+				}
+				next[level] = c + 1;
+				pick(levels[level], c, levels[level + 1]);
+				if (!canComplete(levels[level + 1], level + 1)) {
+					continue;
+				}
+				picked[level] = c;
+				if (level + 1 < positions.length) {
+					level++;
+					next[level] = groupStarts[level];
+				} else if (found.incrementAndGet() > limit) {
+					stop();
+				} else {
+					held = schedule(picked);
+					if (!deliver()) {
+						//Parked; whoever resumes the part carries on from here
+						return;
+					}
+				}
+			}
+			if (running.decrementAndGet() == 0) {
+				queue.add(END);
+			}
+		}
+
+		/**
+		 * Puts the held schedule in the queue if it has room, or else parks the part.
+		 *
+		 * @return true if the schedule was queued, or false if the part was parked and must
+		 * not be touched again by this thread
+		 */
+		private boolean deliver() {
+			if (queue.size() >= CAPACITY) {
+				parked.add(this);
+				//The consumer may have made room just before the part was parked, and found
+				//nothing to resume.  Only one of this thread and resume() can take it back out.
+				if (queue.size() >= CAPACITY || stopped || !parked.remove(this)) {
+					return false;
+				}
+			}
+			queue.add(held);
+			held = null;
+			return true;
+		}
+	}
+
+	/**
+	 * The consumer's side of the queue.
+	 */
+	private class Schedules implements Iterator<List<Course>> {
+
+		/** Whether the search has been started. */
+		private boolean started;
+		/** Whether the stream has ended. */
+		private boolean done;
+		/** Number of schedules handed out. */
+		private int count;
+		/** The next schedule, or null if it has not been taken from the queue. */
+		private List<Course> next;
+
+		@Override
+		public boolean hasNext() {
+			if (next != null) {
+				return true;
+			}
+			if (done) {
+				return false;
+			}
+			if (!started) {
+				started = true;
+				start();
+			}
+			try {
+				List<Course> schedule = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (schedule == null || schedule == END) {
+					end();
+					return false;
+				}
+				next = schedule;
+				if (++count == limit) {
+					end();
+				} else if (queue.size() <= CAPACITY / 2) {
+					resume();
+				}
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				end();
+				return false;
+			}
+		}
+
+		@Override
+		public List<Course> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			List<Course> schedule = next;
+			next = null;
+			return schedule;
+		}
+
+		/**
+		 * Ends the stream and stops the search.
+		 */
+		private void end() {
+			done = true;
+			cancel();
+		}
+	}
+}
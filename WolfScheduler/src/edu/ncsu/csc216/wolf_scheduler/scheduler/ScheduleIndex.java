@@ -0,0 +1,189 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingPattern;
+
+/**
+ * Finds the first scheduled activity that a new activity duplicates or conflicts with,
+ * without checking the new activity against every scheduled one.  Each day of the week has an
+ * IntervalTree of the meeting times of the activities on that day, which finds the ones that
+ * overlap the new activity.  Activities that end at the minute the new one starts, or start
+ * at the minute it ends, conflict whatever their days, so they are kept by start and end
+ * minute.  Duplicates are kept by the name or title Activity.isDuplicate() compares.  Arranged
+ * activities never conflict and are only kept for duplicates.
+ *
+ * Each activity has a sequence number in schedule order, so "first" means what the schedule
+ * list would find first.  Adding, removing and finding each take O(log n + k) for k matching
+ * activities.
+ *
+ * @author Srikar Donepudi
+ */
+class ScheduleIndex {
+
+	/** Meeting times of the activities on each day, by the bits of MeetingPattern.getDays(). */
+	private final IntervalTree[] days = new IntervalTree[7];
+	/** Sequence numbers of the activities that start at each minute. */
+	private final HashMap<Integer, TreeSet<Integer>> starts = new HashMap<Integer, TreeSet<Integer>>();
+	/** Sequence numbers of the activities that end at each minute. */
+	private final HashMap<Integer, TreeSet<Integer>> ends = new HashMap<Integer, TreeSet<Integer>>();
+	/** Sequence number of the activity with each duplicate key. */
+	private final HashMap<String, Integer> duplicates = new HashMap<String, Integer>();
+	/** Sequence number of each activity. */
+	private final IdentityHashMap<Activity, Integer> sequences = new IdentityHashMap<Activity, Integer>();
+	/** Activity of each sequence number. */
+	private final HashMap<Integer, Activity> activities = new HashMap<Integer, Activity>();
+	/** Next sequence number, which is after every activity in the index. */
+	private int nextSequence;
+
+	/**
+	 * Constructs an empty index.
+	 */
+	ScheduleIndex() {
+		for (int i = 0; i < days.length; i++) {
+			days[i] = new IntervalTree();
+		}
+	}
+
+	/**
+	 * Adds an activity after every activity in the index.
+	 *
+	 * @param activity the activity to add
+	 */
+	void add(Activity activity) {
+		add(activity, nextSequence++);
+	}
+
+	/**
+	 * Puts a new version of an activity in its place, as when a scheduled section changes.
+	 *
+	 * @param old the activity in the index
+	 * @param activity the activity to put in its place
+	 */
+	void replace(Activity old, Activity activity) {
+		Integer sequence = sequences.get(old);
+		remove(old);
+		add(activity, sequence);
+	}
+
+	/**
+	 * Adds an activity with the given sequence number.
+	 *
+	 * @param activity the activity to add
+	 * @param sequence the sequence number
+	 */
+	private void add(Activity activity, int sequence) {
+		sequences.put(activity, sequence);
+		activities.put(sequence, activity);
+		duplicates.put(duplicateKey(activity), sequence);
+		MeetingPattern pattern = activity.getMeetingPattern();
+		if (pattern.isArranged()) {
+			return;
+		}
+		for (int day = 0; day < days.length; day++) {
+			if ((pattern.getDays() & 1 << day) != 0) {
+				days[day].add(pattern.getStartMinute(), pattern.getEndMinute(), sequence);
+			}
+		}
+		starts.computeIfAbsent(pattern.getStartMinute(), m -> new TreeSet<Integer>()).add(sequence);
+		ends.computeIfAbsent(pattern.getEndMinute(), m -> new TreeSet<Integer>()).add(sequence);
+	}
+
+	/**
+	 * Removes an activity.  An activity that is not in the index is ignored.
+	 *
+	 * @param activity the activity to remove
+	 */
+	void remove(Activity activity) {
+		Integer sequence = sequences.remove(activity);
+		if (sequence == null) {
+			return;
+		}
+		activities.remove(sequence);
+		duplicates.remove(duplicateKey(activity), sequence);
+		MeetingPattern pattern = activity.getMeetingPattern();
+		if (pattern.isArranged()) {
+			return;
+		}
+		for (int day = 0; day < days.length; day++) {
+			if ((pattern.getDays() & 1 << day) != 0) {
+				days[day].remove(pattern.getStartMinute(), sequence);
+			}
+		}
+		removeSequence(starts, pattern.getStartMinute(), sequence);
+		removeSequence(ends, pattern.getEndMinute(), sequence);
+	}
+
+	/**
+	 * Returns the first activity in the index that the given activity duplicates or conflicts
+	 * with, which is the one a check of each activity in schedule order would stop at.
+	 *
+	 * @param activity the activity to check
+	 * @return the first duplicate or conflicting activity, or null if there is none
+	 */
+	Activity findClash(Activity activity) {
+		int[] first = {Integer.MAX_VALUE};
+		Integer duplicate = duplicates.get(duplicateKey(activity));
+		if (duplicate != null) {
+			first[0] = duplicate;
+		}
+		MeetingPattern pattern = activity.getMeetingPattern();
+		if (!pattern.isArranged()) {
+			first[0] = Math.min(first[0], firstSequence(starts, pattern.getEndMinute()));
+			first[0] = Math.min(first[0], firstSequence(ends, pattern.getStartMinute()));
+			//Meeting times that overlap, ends excluded, are those with a minute in start + 1 through end - 1
+			for (int day = 0; day < days.length; day++) {
+				if ((pattern.getDays() & 1 << day) != 0) {
+					days[day].find(pattern.getStartMinute() + 1, pattern.getEndMinute() - 1,
+							sequence -> first[0] = Math.min(first[0], sequence));
+				}
+			}
+		}
+		return activities.get(first[0]);
+	}
+
+	/**
+	 * Returns the first sequence number kept for a minute.
+	 *
+	 * @param sequences the sequence numbers by minute
+	 * @param minute the minute
+	 * @return the first sequence number, or Integer.MAX_VALUE if there is none
+	 */
+	private static int firstSequence(HashMap<Integer, TreeSet<Integer>> sequences, int minute) {
+		TreeSet<Integer> set = sequences.get(minute);
+		return set == null ? Integer.MAX_VALUE : set.first();
+	}
+
+	/**
+	 * Removes a sequence number kept for a minute, dropping the minute once it has none.
+	 *
+	 * @param sequences the sequence numbers by minute
+	 * @param minute the minute
+	 * @param sequence the sequence number to remove
+	 */
+	private static void removeSequence(HashMap<Integer, TreeSet<Integer>> sequences, int minute, int sequence) {
+		TreeSet<Integer> set = sequences.get(minute);
+		set.remove(sequence);
+		if (set.isEmpty()) {
+			sequences.remove(minute);
+		}
+	}
+
+	/**
+	 * Returns the key under which Activity.isDuplicate() considers two activities the same:
+	 * the name of a Course, or the title of an Event.
+	 *
+	 * @param activity the activity
+	 * @return the activity's duplicate key
+	 */
+	private static String duplicateKey(Activity activity) {
+		if (activity instanceof Course) {
+			return "C" + ((Course) activity).getName();
+		}
+		return "E" + activity.getTitle();
+	}
+}
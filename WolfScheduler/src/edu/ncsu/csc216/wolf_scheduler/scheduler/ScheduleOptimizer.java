@@ -0,0 +1,463 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingPattern;
+
+/**
+ * Finds the best scoring ways to pick one section from each of several groups, on top of a
+ * schedule whose Courses are kept and whose Events are kept if they fit.  Scores are defined by
+ * SchedulePreferences, over the kept Courses and the picked sections.
+ *
+ * The search is a branch and bound over the groups, smallest group first, trying the
+ * sections that add the least to the score first.  Conflicts are bitsets over the candidate
+ * sections and the Events, as in ScheduleGenerator.  A branch is cut off once a lower bound
+ * of its best score is no better than the worst of the schedules kept so far.  The bound adds
+ * up:
+ * <ul>
+ * <li>the day and early start penalties of the schedule so far, which picking more
+ * sections can only raise, and the most that any one remaining group must add to them</li>
+ * <li>the gap penalty of the schedule so far, less the most each remaining group
+ * could fill in</li>
+ * <li>the penalty for the Events the sections picked so far already rule out</li>
+ * </ul>
+ * None of these can be more than what any completion of the branch scores, so cutting off a
+ * branch never loses a schedule that would have been kept.  If the time runs out, the best
+ * schedules found so far are returned.
+ *
+ * @author Srikar Donepudi
+ */
+class ScheduleOptimizer {
+
+	/** Number of days in the week. */
+	private static final int DAYS = 7;
+
+	/** The preferences to score with. */
+	private final SchedulePreferences preferences;
+	/** The kept Courses and the Events of the schedule, in schedule order. */
+	private final List<Activity> base;
+	/** The candidate sections, group after group in search order. */
+	private final Course[] candidates;
+	/** First candidate of each group in search order, and then the number of candidates. */
+	private final int[] groupStarts;
+	/** Position in the result of each group in search order. */
+	private final int[] positions;
+	/** The Events of the schedule, numbered after the candidates. */
+	private final Event[] events;
+	/** Bits of the candidates and Events each candidate or Event conflicts with. */
+	private final long[][] conflicts;
+	/** Largest number of schedules to return. */
+	private final int count;
+	/** Time allowed for the search, in nanoseconds. */
+	private final long budget;
+
+	/** Start minute of each kept or picked meeting, by day. */
+	private final int[][] dayStarts;
+	/** End minute of each kept or picked meeting, by day. */
+	private final int[][] dayEnds;
+	/** Number of kept or picked meetings, by day. */
+	private final int[] dayCounts = new int[DAYS];
+	/** The candidate picked for each group in search order. */
+	private final int[] chosen;
+	/** Bits of the allowed candidates and Events at each level of the search. */
+	private final long[][] levels;
+	/** The best schedules found so far, worst first. */
+	private final PriorityQueue<RankedSchedule> best;
+	/** When the search must stop, in System.nanoTime() */
+	private long deadline;
+
+	/**
+	 * Sets up a search.
+	 *
+	 * @param groups the sections to pick from, one group for each wishlist course
+	 * @param base the scheduled activities to build on, in schedule order
+	 * @param preferences the preferences to score with
+	 * @param count the largest number of schedules to return
+	 * @param budgetMillis the time allowed for the search, in milliseconds
+	 */
+	ScheduleOptimizer(List<List<Course>> groups, List<Activity> base, SchedulePreferences preferences, int count, long budgetMillis) {
+		this.preferences = preferences;
+		this.base = base;
+		this.count = count;
+		this.budget = Math.min(TimeUnit.MILLISECONDS.toNanos(budgetMillis), Long.MAX_VALUE / 4);
+		Integer[] order = new Integer[groups.size()];
+		for (int g = 0; g < order.length; g++) {
+			order[g] = g;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(groups.get(a).size(), groups.get(b).size()));
+		positions = new int[order.length];
+		groupStarts = new int[order.length + 1];
+		ArrayList<Course> sections = new ArrayList<Course>();
+		for (int g = 0; g < order.length; g++) {
+			positions[g] = order[g];
+			groupStarts[g] = sections.size();
+			sections.addAll(groups.get(order[g]));
+		}
+		groupStarts[order.length] = sections.size();
+		candidates = sections.toArray(new Course[sections.size()]);
+		ArrayList<Event> scheduled = new ArrayList<Event>();
+		for (Activity activity : base) {
+			if (activity instanceof Event) {
+				scheduled.add((Event) activity);
+			}
+		}
+		events = scheduled.toArray(new Event[scheduled.size()]);
+
+		int items = candidates.length + events.length;
+		int[] groupOf = new int[items];
+		for (int g = 0; g < order.length; g++) {
+			Arrays.fill(groupOf, groupStarts[g], groupStarts[g + 1], g);
+		}
+		Arrays.fill(groupOf, candidates.length, items, -1);
+		int words = (items + Long.SIZE - 1) / Long.SIZE;
+		conflicts = new long[items][words];
+		for (int i = 0; i < items; i++) {
+			for (int j = i + 1; j < items; j++) {
+				if ((groupOf[i] != groupOf[j] || groupOf[i] < 0) && item(i).getMeetingPattern().conflictsWith(item(j).getMeetingPattern())) {
+					conflicts[i][j >>> 6] |= 1L << j;
+					conflicts[j][i >>> 6] |= 1L << i;
+				}
+			}
+		}
+
+		dayStarts = new int[DAYS][base.size() - events.length + order.length];
+		dayEnds = new int[DAYS][base.size() - events.length + order.length];
+		chosen = new int[order.length];
+		levels = new long[order.length + 1][words];
+		best = new PriorityQueue<RankedSchedule>(Comparator.comparingLong(RankedSchedule::getScore).reversed());
+	}
+
+	/**
+	 * Returns a candidate section or an Event by its number.
+	 *
+	 * @param item the number
+	 * @return the section or Event
+	 */
+	private Activity item(int item) {
+		return item < candidates.length ? candidates[item] : events[item - candidates.length];
+	}
+
+	/**
+	 * Runs the search.
+	 *
+	 * @return the best schedules found, best first
+	 */
+	List<RankedSchedule> optimize() {
+		deadline = System.nanoTime() + budget;
+		for (Activity activity : base) {
+			if (activity instanceof Course) {
+				push(activity.getMeetingPattern());
+			}
+		}
+		Arrays.fill(levels[0], -1L);
+		if (bound(0) != Long.MAX_VALUE) {
+			search(0);
+		}
+		List<RankedSchedule> ranked = new ArrayList<RankedSchedule>(best);
+		ranked.sort(Comparator.comparingLong(RankedSchedule::getScore));
+		return ranked;
+	}
+
+	/**
+	 * Picks a section for each group from depth on, best looking section first.
+	 *
+	 * @param depth the group to pick for
+	 */
+	private void search(int depth) {
+		if (System.nanoTime() - deadline > 0) {
+			return;
+		}
+		long[] allowed = levels[depth];
+		if (depth == chosen.length) {
+			found(allowed);
+			return;
+		}
+		int size = 0;
+		int[] order = new int[groupStarts[depth + 1] - groupStarts[depth]];
+		long[] costs = new long[order.length];
+		for (int c = groupStarts[depth]; c < groupStarts[depth + 1]; c++) {
+			if (isSet(allowed, c)) {
+				//Insertion sort by the cost the section adds, which keeps ties in catalog order
+				long cost = addedCost(candidates[c].getMeetingPattern());
+				int i = size++;
+				for (; i > 0 && costs[i - 1] > cost; i--) {
+					order[i] = order[i - 1];
+					costs[i] = costs[i - 1];
+				}
+				order[i] = c;
+				costs[i] = cost;
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			int c = order[i];
+			long[] row = conflicts[c];
+			long[] next = levels[depth + 1];
+			for (int w = 0; w < next.length; w++) {
+				next[w] = allowed[w] & ~row[w];
+			}
+			chosen[depth] = c;
+			push(candidates[c].getMeetingPattern());
+			long bound = bound(depth + 1);
+			if (bound != Long.MAX_VALUE && (best.size() < count || bound < best.peek().getScore())) {
+				search(depth + 1);
+			}
+			pop(candidates[c].getMeetingPattern());
+		}
+	}
+
+	/**
+	 * Scores a complete pick, keeping each Event that fits in schedule order, and keeps it if
+	 * it is among the best.
+	 *
+	 * @param allowed bits of the candidates and Events the picked sections allow
+	 */
+	private void found(long[] allowed) {
+		long[] left = allowed.clone();
+		ArrayList<Activity> activities = new ArrayList<Activity>(base.size() + chosen.length);
+		int dropped = 0;
+		int e = 0;
+		for (Activity activity : base) {
+			if (!(activity instanceof Event)) {
+				activities.add(activity);
+				continue;
+			}
+			int item = candidates.length + e++;
+			if (isSet(left, item)) {
+				activities.add(activity);
+				for (int w = 0; w < left.length; w++) {
+					left[w] &= ~conflicts[item][w];
+				}
+			} else {
+				dropped++;
+			}
+		}
+		Course[] sections = new Course[chosen.length];
+		for (int g = 0; g < chosen.length; g++) {
+			sections[positions[g]] = candidates[chosen[g]];
+		}
+		activities.addAll(Arrays.asList(sections));
+		long score = dayCost() + (long) preferences.getGapWeight() * gapMinutes()
+				+ (long) preferences.getDroppedEventWeight() * dropped;
+		if (best.size() < count) {
+			best.add(new RankedSchedule(activities, score));
+		} else if (score < best.peek().getScore()) {
+			best.poll();
+			best.add(new RankedSchedule(activities, score));
+		}
+	}
+
+	/**
+	 * Returns a lower bound of the score of any completion of the sections picked for the
+	 * groups before depth.
+	 *
+	 * @param depth the first group without a pick
+	 * @return the bound, or Long.MAX_VALUE if some group has no section left
+	 */
+	private long bound(int depth) {
+		long[] allowed = levels[depth];
+		long added = 0;
+		long fillable = 0;
+		for (int g = depth; g < chosen.length; g++) {
+			long cheapest = Long.MAX_VALUE;
+			long mostFilled = 0;
+			for (int c = groupStarts[g]; c < groupStarts[g + 1]; c++) {
+				if (isSet(allowed, c)) {
+					MeetingPattern pattern = candidates[c].getMeetingPattern();
+					cheapest = Math.min(cheapest, addedCost(pattern));
+					mostFilled = Math.max(mostFilled, gapFilled(pattern));
+				}
+			}
+			if (cheapest == Long.MAX_VALUE) {
+				return Long.MAX_VALUE;
+			}
+			added = Math.max(added, cheapest);
+			fillable += mostFilled;
+		}
+		int ruledOut = 0;
+		for (int e = 0; e < events.length; e++) {
+			if (!isSet(allowed, candidates.length + e)) {
+				ruledOut++;
+			}
+		}
+		return dayCost() + added + (long) preferences.getGapWeight() * Math.max(0, gapMinutes() - fillable)
+				+ (long) preferences.getDroppedEventWeight() * ruledOut;
+	}
+
+	/**
+	 * Returns the day and early start penalties of the schedule so far.
+	 *
+	 * @return the penalties
+	 */
+	private long dayCost() {
+		long cost = 0;
+		for (int d = 0; d < DAYS; d++) {
+			if (dayCounts[d] > 0) {
+				cost += preferences.getCampusDayWeight() + earlyCost(first(d));
+			}
+		}
+		return cost;
+	}
+
+	/**
+	 * Returns how much a section would add to the day and early start penalties of the
+	 * schedule so far.
+	 *
+	 * @param pattern the section's meeting pattern
+	 * @return the added penalties
+	 */
+	private long addedCost(MeetingPattern pattern) {
+		long cost = 0;
+		int start = pattern.getStartMinute();
+		for (int d = 0; d < DAYS; d++) {
+			if ((pattern.getDays() & 1 << d) == 0) {
+				continue;
+			}
+			if (dayCounts[d] == 0) {
+				cost += preferences.getCampusDayWeight() + earlyCost(start);
+			} else {
+				int first = first(d);
+				cost += earlyCost(Math.min(start, first)) - earlyCost(first);
+			}
+		}
+		return cost;
+	}
+
+	/**
+	 * Returns the early start penalty of a day that starts at a minute.
+	 *
+	 * @param start the first start of the day, in minutes from midnight
+	 * @return the penalty
+	 */
+	private long earlyCost(int start) {
+		return (long) preferences.getEarlyStartWeight() * Math.max(0, preferences.getPreferredStartMinute() - start);
+	}
+
+	/**
+	 * Returns the minutes between the classes of the schedule so far, day by day.  The classes
+	 * do not overlap, so the minutes between them are a day's span less their lengths.
+	 *
+	 * @return the gap minutes
+	 */
+	private int gapMinutes() {
+		int gaps = 0;
+		for (int d = 0; d < DAYS; d++) {
+			if (dayCounts[d] > 0) {
+				gaps += last(d) - first(d);
+				for (int i = 0; i < dayCounts[d]; i++) {
+					gaps -= dayEnds[d][i] - dayStarts[d][i];
+				}
+			}
+		}
+		return gaps;
+	}
+
+	/**
+	 * Returns how many gap minutes of the schedule so far a section would fill.
+	 *
+	 * @param pattern the section's meeting pattern
+	 * @return the minutes it would fill
+	 */
+	private int gapFilled(MeetingPattern pattern) {
+		int start = pattern.getStartMinute();
+		int end = pattern.getEndMinute();
+		int filled = 0;
+		for (int d = 0; d < DAYS; d++) {
+			if ((pattern.getDays() & 1 << d) == 0 || dayCounts[d] == 0) {
+				continue;
+			}
+			filled += overlap(start, end, first(d), last(d));
+			for (int i = 0; i < dayCounts[d]; i++) {
+				filled -= overlap(start, end, dayStarts[d][i], dayEnds[d][i]);
+			}
+		}
+		return filled;
+	}
+
+	/**
+	 * Returns the number of minutes two spans of time share.
+	 *
+	 * @param start1 start of one span
+	 * @param end1 end of one span
+	 * @param start2 start of the other span
+	 * @param end2 end of the other span
+	 * @return the minutes they share
+	 */
+	private static int overlap(int start1, int end1, int start2, int end2) {
+		return Math.max(0, Math.min(end1, end2) - Math.max(start1, start2));
+	}
+
+	/**
+	 * Returns the first start of a day with picked meetings.
+	 *
+	 * @param d the day
+	 * @return the first start in minutes from midnight
+	 */
+	private int first(int d) {
+		int first = Integer.MAX_VALUE;
+		for (int i = 0; i < dayCounts[d]; i++) {
+			first = Math.min(first, dayStarts[d][i]);
+		}
+		return first;
+	}
+
+	/**
+	 * Returns the last end of a day with picked meetings.
+	 *
+	 * @param d the day
+	 * @return the last end in minutes from midnight
+	 */
+	private int last(int d) {
+		int last = 0;
+		for (int i = 0; i < dayCounts[d]; i++) {
+			last = Math.max(last, dayEnds[d][i]);
+		}
+		return last;
+	}
+
+	/**
+	 * Adds a picked section's meetings.
+	 *
+	 * @param pattern the section's meeting pattern
+	 */
+	private void push(MeetingPattern pattern) {
+		for (int d = 0; d < DAYS; d++) {
+			if ((pattern.getDays() & 1 << d) != 0) {
+				dayStarts[d][dayCounts[d]] = pattern.getStartMinute();
+				dayEnds[d][dayCounts[d]] = pattern.getEndMinute();
+				dayCounts[d]++;
+			}
+		}
+	}
+
+	/**
+	 * Removes the meetings of the section picked last.
+	 *
+	 * @param pattern the section's meeting pattern
+	 */
+	private void pop(MeetingPattern pattern) {
+		for (int d = 0; d < DAYS; d++) {
+			if ((pattern.getDays() & 1 << d) != 0) {
+				dayCounts[d]--;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if a bit is set.
+	 *
+	 * @param bits the bits
+	 * @param bit the bit
+	 * @return true if the bit is set
+	 */
+	private static boolean isSet(long[] bits, int bit) {
+		return (bits[bit >>> 6] & 1L << bit) != 0;
+	}
+}
@@ -0,0 +1,95 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingPattern;
+
+/**
+ * How a student weighs the things that make a schedule worse.  A schedule's score is the sum
+ * of these penalties, and a lower score is better:
+ * <ul>
+ * <li>for each day with a class, earlyStartWeight for every minute the first class of the day
+ * starts before preferredStart</li>
+ * <li>campusDayWeight for each day with a class</li>
+ * <li>gapWeight for every minute between two classes on the same day</li>
+ * <li>droppedEventWeight for each scheduled Event that does not fit with the classes</li>
+ * </ul>
+ * Arranged sections have no meetings, so they add nothing.
+ *
+ * @author Srikar Donepudi
+ */
+public class SchedulePreferences {
+
+	/** Time of day classes should not start before, in minutes from midnight */
+	private final int preferredStart;
+	/** Penalty for each minute a day starts before the preferred start */
+	private final int earlyStartWeight;
+	/** Penalty for each day with a class */
+	private final int campusDayWeight;
+	/** Penalty for each minute between classes */
+	private final int gapWeight;
+	/** Penalty for each Event that is left out */
+	private final int droppedEventWeight;
+
+	/**
+	 * Constructs a set of preferences.
+	 *
+	 * @param preferredStart the time of day classes should not start before, in 24 hour HHMM form
+	 * @param earlyStartWeight the penalty for each minute a day starts before preferredStart
+	 * @param campusDayWeight the penalty for each day with a class
+	 * @param gapWeight the penalty for each minute between classes
+	 * @param droppedEventWeight the penalty for each Event that is left out
+	 * @throws IllegalArgumentException if the time is invalid or a weight is negative
+	 */
+	public SchedulePreferences(int preferredStart, int earlyStartWeight, int campusDayWeight, int gapWeight, int droppedEventWeight) {
+		if (preferredStart < 0 || preferredStart / 100 > 23 || preferredStart % 100 > 59) {
+			throw new IllegalArgumentException("Invalid preferences.");
+		}
+		if (earlyStartWeight < 0 || campusDayWeight < 0 || gapWeight < 0 || droppedEventWeight < 0) {
+			throw new IllegalArgumentException("Invalid preferences.");
+		}
+		this.preferredStart = MeetingPattern.toMinutes(preferredStart);
+		this.earlyStartWeight = earlyStartWeight;
+		this.campusDayWeight = campusDayWeight;
+		this.gapWeight = gapWeight;
+		this.droppedEventWeight = droppedEventWeight;
+	}
+
+	/**
+	 * Returns the time of day classes should not start before.
+	 * @return the preferred start in minutes from midnight
+	 */
+	public int getPreferredStartMinute() {
+		return preferredStart;
+	}
+
+	/**
+	 * Returns the penalty for each minute a day starts before the preferred start.
+	 * @return the early start weight
+	 */
+	public int getEarlyStartWeight() {
+		return earlyStartWeight;
+	}
+
+	/**
+	 * Returns the penalty for each day with a class.
+	 * @return the campus day weight
+	 */
+	public int getCampusDayWeight() {
+		return campusDayWeight;
+	}
+
+	/**
+	 * Returns the penalty for each minute between classes.
+	 * @return the gap weight
+	 */
+	public int getGapWeight() {
+		return gapWeight;
+	}
+
+	/**
+	 * Returns the penalty for each Event that is left out.
+	 * @return the dropped event weight
+	 */
+	public int getDroppedEventWeight() {
+		return droppedEventWeight;
+	}
+}
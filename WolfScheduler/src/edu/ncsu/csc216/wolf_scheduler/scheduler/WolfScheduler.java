@@ -1,15 +1,35 @@
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.course.Event;
 import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseReadMode;
 import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordReport;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseSnapshotIO;
+import edu.ncsu.csc216.wolf_scheduler.io.LazyCourseCatalog;
 
 /** 
  * WolfScheduler is something that lets a student manage his/her course schedule.
@@ -21,13 +41,61 @@ import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
 public class WolfScheduler {
 	
 	/** A course catalog */
-	private ArrayList<Activity> catalog;
+	private List<Course> catalog;
+	
+	/** Index of the catalog by name and section, or null if the catalog is lazy */
+	private CatalogIndex index;
+	
+	/** Search index of the catalog, or null until the first search */
+	private CatalogSearchIndex search;
+	
+	/** Instructor, meeting day and credit indexes of the catalog, or null until the first query */
+	private CatalogAttributeIndex attributes;
+	
+	/** Meeting time index of the catalog, or null until the first query */
+	private CatalogTimeIndex times;
+	
+	/** Conflict graph of the catalog, or null until it is first asked for */
+	private ConflictGraph conflicts;
 	
 	/**A course schedule */
 	private ArrayList<Activity> schedule;
 	
+	/** Index of the schedule's meeting times and duplicate keys */
+	private ScheduleIndex scheduleIndex;
+	
+	/** Which catalog sections fit the schedule, or null until it is first asked for */
+	private OccupancyFilter occupancy;
+	
 	/**The title of the schedule*/
 	private String title;
+	
+	/** The file the catalog is loaded from */
+	private String catalogFilename;
+	
+	/** The snapshot of the catalog file, or null if there is none */
+	private String snapshotFilename;
+	
+	/** Number of Courses a lazy catalog keeps built, or 0 if the catalog is built at load */
+	private int cacheSize;
+	
+	/** How the catalog file is read when there is no snapshot and the catalog is not lazy */
+	private CourseReadMode readMode = CourseReadMode.BUFFERED;
+	
+	/** Incremented each time the catalog is replaced */
+	private int catalogVersion;
+	
+	/** Incremented each time the schedule changes */
+	private int scheduleVersion;
+	
+	/** Short display rows of the catalog, or null until they are first asked for */
+	private DisplaySnapshot catalogRows;
+	
+	/** Short display rows of the schedule, or null until they are first asked for */
+	private DisplaySnapshot scheduleRows;
+	
+	/** Long display rows of the schedule, or null until they are first asked for */
+	private DisplaySnapshot fullScheduleRows;
 
 	/**
 	 * Constructs a wolfScheduler object by initializing 
@@ -37,55 +105,492 @@ public class WolfScheduler {
 	 * @throws IllegalArgumentException if file is not found
 	 */
 	public WolfScheduler(String filename) {
+		this(filename, (String) null);
+	}
+	
+	/**
+	 * Constructs a wolfScheduler object whose catalog file is read, at startup and on every
+	 * reload, in the given mode.  The other constructors read it BUFFERED.  MAPPED and PARALLEL
+	 * avoid copying the file onto the heap, so they suit a large catalog that is replaced rather
+	 * than rewritten in place: a mapped file that is truncated while it is read fails with an
+	 * InternalError, and on Windows a mapped file cannot be replaced until the mapping is freed.
+	 * 
+	 * @param filename the file containing the course records
+	 * @param readMode how to read the catalog file
+	 * @throws IllegalArgumentException if file is not found or the mode is null
+	 */
+	public WolfScheduler(String filename, CourseReadMode readMode) {
+		if (readMode == null) {
+			throw new IllegalArgumentException("Invalid read mode.");
+		}
+		this.schedule = new ArrayList<Activity>();
+		this.scheduleIndex = new ScheduleIndex();
+		
+		this.title = "My Schedule";
+		
+		this.catalogFilename = filename;
+		this.readMode = readMode;
+		setCatalog(loadCatalog());
+	}
+	
+	/**
+	 * Constructs a wolfScheduler object whose catalog is loaded from a binary snapshot of the
+	 * course records file when the snapshot is up to date.  Otherwise the course records file
+	 * is read and the snapshot is rewritten for the next start.
+	 * 
+	 * @param filename the file containing the course records
+	 * @param snapshotFilename the snapshot of the course records, or null to always read filename
+	 * @throws IllegalArgumentException if file is not found
+	 */
+	public WolfScheduler(String filename, String snapshotFilename) {
+		this.schedule = new ArrayList<Activity>();
+		this.scheduleIndex = new ScheduleIndex();
+		
+		this.title = "My Schedule";
+		
+		this.catalogFilename = filename;
+		this.snapshotFilename = snapshotFilename;
+		setCatalog(loadCatalog());
+	}
+	
+	/**
+	 * Constructs a wolfScheduler object whose catalog builds each Course only when it is first
+	 * used, keeping at most cacheSize of them built at once (see LazyCourseCatalog).  Startup
+	 * only checks the records, and a catalog that is mostly looked up by name and section
+	 * never holds most of its Courses.
+	 * 
+	 * @param filename the file containing the course records
+	 * @param cacheSize the number of Courses to keep built
+	 * @throws IllegalArgumentException if file is not found or the cache size is less than one
+	 */
+	public WolfScheduler(String filename, int cacheSize) {
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("Invalid cache size.");
+		}
 		this.schedule = new ArrayList<Activity>();
+		this.scheduleIndex = new ScheduleIndex();
 		
 		this.title = "My Schedule";
 		
+		this.catalogFilename = filename;
+		this.cacheSize = cacheSize;
+		setCatalog(loadCatalog());
+	}
+	
+	/**
+	 * Reads the catalog file, or its snapshot if the snapshot is up to date.
+	 * 
+	 * @return the Courses in the catalog file
+	 * @throws IllegalArgumentException if file is not found
+	 */
+	private List<Course> loadCatalog() {
 		try {
-			List<Course> courses = CourseRecordIO.readCourseRecords(filename);
-			this.catalog = new ArrayList<>(courses);
+			if (cacheSize > 0) {
+				return CourseRecordIO.readLazyCourseRecords(catalogFilename, new CourseRecordReport(), cacheSize);
+			}
+			if (snapshotFilename == null) {
+				return CourseRecordIO.readCourseRecords(catalogFilename, new CourseRecordReport(), readMode);
+			}
+			return CourseSnapshotIO.readCourseRecords(catalogFilename, snapshotFilename, new CourseRecordReport());
 		} catch(Exception e) {
 			throw new IllegalArgumentException("Cannot find file.");
 		}
 	}
 	
 	/**
-	 * Gets full scheduled activities as a 2D string array.
+	 * Re-reads the catalog file and applies only the differences to the catalog.  Unchanged
+	 * sections keep their Course objects, changed sections are replaced by their new version,
+	 * removed sections are dropped and added sections are inserted, all in file order.
+	 * 
+	 * Scheduled sections that changed are updated to their new version, and are reported if
+	 * they now conflict with another scheduled activity.  Scheduled sections that were removed
+	 * from the catalog stay in the schedule and are reported.
+	 * 
+	 * A lazy catalog is replaced by the newly loaded one as a whole, so its Courses stay
+	 * unbuilt until they are used.  If its file was rewritten in place, the old sections that
+	 * were never built cannot be read back; scheduled sections are still compared, but other
+	 * such sections are reported as added rather than changed, and never as removed.
+	 * 
+	 * @return what changed in the catalog and the schedule
+	 * @throws IllegalArgumentException if file is not found
+	 */
+	public CatalogChange reloadCatalog() {
+		List<Course> courses = loadCatalog();
+		LinkedHashMap<String, Course> current = new LinkedHashMap<String, Course>();
+		HashMap<String, Integer> positions = new HashMap<String, Integer>();
+		boolean unreadable = false;
+		for (int i = 0; i < catalog.size(); i++) {
+			try {
+				Course c = catalog.get(i);
+				current.put(catalogKey(c.getName(), c.getSection()), c);
+				positions.put(catalogKey(c.getName(), c.getSection()), i);
+			} catch (IllegalStateException | UncheckedIOException e) {
+				unreadable = true; //Rewritten in place
+			}
+		}
+		for (int i = 0; unreadable && i < schedule.size(); i++) {
+			if (schedule.get(i) instanceof Course) {
+				Course c = (Course) schedule.get(i);
+				current.putIfAbsent(catalogKey(c.getName(), c.getSection()), c);
+			}
+		}
+		CatalogChange change = new CatalogChange();
+		ArrayList<Course> updated = new ArrayList<Course>(courses.size());
+		int[] moved = new int[catalog.size()];
+		Arrays.fill(moved, -1);
+		for (Course c : courses) {
+			String key = catalogKey(c.getName(), c.getSection());
+			Course old = current.remove(key);
+			if (old == null) {
+				change.addAdded(c);
+				updated.add(c);
+			} else if (old.equals(c)) {
+				Integer position = positions.get(key);
+				if (position != null) {
+					moved[position] = updated.size();
+				}
+				updated.add(old);
+			} else {
+				change.addChanged(old, c);
+				updated.add(c);
+			}
+		}
+		//What is left in current was removed, still in catalog order
+		for (Course c : current.values()) {
+			change.addRemoved(c);
+		}
+		//A catalog that can no longer read its file is replaced even if nothing else changed
+		if (change.isEmpty() && !unreadable) {
+			close(courses);
+			return change;
+		}
+		if (courses instanceof LazyCourseCatalog) {
+			setCatalog(courses);
+			//The change may be incomplete if the old file was rewritten in place
+			search = null;
+			times = null;
+		} else if (inOrder(moved)) {
+			change.setMoved(moved);
+			applyCatalog(updated, change);
+		} else {
+			//Kept sections changed places, which the indexes by position cannot follow
+			setCatalog(updated);
+			search = null;
+			if (times != null) {
+				times.apply(change);
+			}
+		}
+		updateSchedule(change, current);
+		scheduleVersion++;
+		return change;
+	}
+	
+	/**
+	 * Brings the schedule up to date with a catalog change.
+	 * 
+	 * @param change the catalog change to apply and record the schedule's changes in
+	 * @param removed the removed sections, by catalog key
+	 */
+	private void updateSchedule(CatalogChange change, HashMap<String, Course> removed) {
+		HashMap<String, Course> changed = new HashMap<String, Course>();
+		for (Course c : change.getChanged()) {
+			changed.put(catalogKey(c.getName(), c.getSection()), c);
+		}
+		for (int i = 0; i < schedule.size(); i++) {
+			if (!(schedule.get(i) instanceof Course)) {
+				continue;
+			}
+			Course scheduled = (Course) schedule.get(i);
+			String key = catalogKey(scheduled.getName(), scheduled.getSection());
+			if (removed.containsKey(key)) {
+				change.addScheduleRemoved(scheduled);
+			} else if (changed.containsKey(key)) {
+				Course c = changed.get(key);
+				schedule.set(i, c);
+				unpin(scheduled);
+				pin(c);
+				scheduleIndex.replace(scheduled, c);
+				if (occupancy != null) {
+					occupancy.remove(scheduled);
+					occupancy.add(c);
+				}
+				change.addScheduleChanged(c);
+				for (Activity activity : schedule) {
+					try {
+						if (activity != c) {
+							activity.checkConflict(c);
+						}
+					} catch (ConflictException e) {
+						change.addScheduleConflict(c);
+						break;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Starts watching the catalog file and reloads the catalog whenever the file is written or
+	 * replaced.  The reload runs on the given executor, so a GUI can pass SwingUtilities::invokeLater
+	 * to keep every change to the WolfScheduler on its event thread.  A reload that finds the file
+	 * missing or unreadable, such as in the middle of being replaced, is skipped.  Any other
+	 * failure of a reload is passed to the uncaught exception handler of the thread it ran on,
+	 * and the file is still watched.
+	 * 
+	 * @param executor the executor to reload the catalog on
+	 * @param listener told about each reload that changed the catalog
+	 * @return the watcher; close it to stop watching
+	 * @throws IllegalArgumentException if the file cannot be watched
+	 */
+	public CatalogWatcher watchCatalog(Executor executor, Consumer<CatalogChange> listener) {
+		return watchCatalog(executor, listener, e -> {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		});
+	}
+	
+	/**
+	 * Starts watching the catalog file as watchCatalog(Executor, Consumer) does, passing any
+	 * failure of a reload other than a missing or unreadable file, such as a file truncated
+	 * while it is mapped, to failureListener.  The file is still watched after a failure.
+	 * 
+	 * @param executor the executor to reload the catalog on
+	 * @param listener told about each reload that changed the catalog
+	 * @param failureListener told about each reload that failed
+	 * @return the watcher; close it to stop watching
+	 * @throws IllegalArgumentException if the file cannot be watched
+	 */
+	public CatalogWatcher watchCatalog(Executor executor, Consumer<CatalogChange> listener, Consumer<Throwable> failureListener) {
+		try {
+			return new CatalogWatcher(Paths.get(catalogFilename), executor, () -> {
+				CatalogChange change;
+				try {
+					change = reloadCatalog();
+				} catch (IllegalArgumentException e) {
+					//The next write to the file will trigger another reload
+					return;
+				} catch (RuntimeException | InternalError e) {
+					failureListener.accept(e);
+					return;
+				}
+				if (!change.isEmpty()) {
+					listener.accept(change);
+				}
+			});
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot watch file.");
+		}
+	}
+	
+	/**
+	 * Replaces the catalog and indexes it.  A lazy catalog has hash tables of its own, and
+	 * indexing it here would build every Course.  The catalog it replaces is closed, and the
+	 * scheduled Courses are pinned in a lazy one.
+	 * 
+	 * @param courses the new catalog
+	 */
+	private void setCatalog(List<Course> courses) {
+		if (catalog != null && catalog != courses) {
+			close(catalog);
+		}
+		catalog = courses;
+		for (Activity a : schedule) {
+			pin(a);
+		}
+		index = courses instanceof LazyCourseCatalog ? null : new CatalogIndex(courses);
+		attributes = null;
+		conflicts = null;
+		occupancy = null;
+		catalogVersion++;
+	}
+	
+	/**
+	 * Returns true if the kept sections of a reloaded catalog are in the same order as before.
+	 * 
+	 * @param moved the new position of each old section, or -1 if it was not kept
+	 * @return true if the new positions of the kept sections increase
+	 */
+	private static boolean inOrder(int[] moved) {
+		int last = -1;
+		for (int position : moved) {
+			if (position >= 0) {
+				if (position < last) {
+					return false;
+				}
+				last = position;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Replaces the catalog with a reloaded version of it, applying the change to each index
+	 * that has been built rather than building it again.
+	 * 
+	 * @param courses the reloaded catalog
+	 * @param change the sections that were added, removed and changed, and where the kept
+	 * sections moved to
+	 */
+	private void applyCatalog(List<Course> courses, CatalogChange change) {
+		catalog = courses;
+		index.apply(change, catalog);
+		if (search != null) {
+			search.apply(change, catalog);
+		}
+		if (attributes != null) {
+			attributes.apply(change, catalog);
+		}
+		if (times != null) {
+			times.apply(change);
+		}
+		if (conflicts != null) {
+			conflicts = conflicts.apply(change, catalog, ForkJoinPool.commonPool());
+		}
+		if (occupancy != null) {
+			occupancy.apply(change, catalog);
+		}
+		catalogVersion++;
+	}
+	
+	/**
+	 * Pins a scheduled Course in a lazy catalog, so the catalog keeps returning the object
+	 * that is in the schedule rather than building an equal one after evicting it.
+	 * 
+	 * @param activity the scheduled activity
+	 */
+	private void pin(Activity activity) {
+		if (catalog instanceof LazyCourseCatalog && activity instanceof Course) {
+			try {
+				((LazyCourseCatalog) catalog).pin((Course) activity);
+			} catch (IllegalStateException | UncheckedIOException e) {
+				//Rewritten in place; the next reload pins it in the new catalog
+			}
+		}
+	}
+	
+	/**
+	 * Unpins a Course that has left the schedule.
+	 * 
+	 * @param activity the activity that left the schedule
+	 */
+	private void unpin(Activity activity) {
+		if (catalog instanceof LazyCourseCatalog && activity instanceof Course) {
+			((LazyCourseCatalog) catalog).unpin((Course) activity);
+		}
+	}
+	
+	/**
+	 * Closes a catalog that keeps its file open.
+	 * 
+	 * @param courses the catalog to close
+	 */
+	private static void close(List<Course> courses) {
+		if (courses instanceof Closeable) {
+			try {
+				((Closeable) courses).close();
+			} catch (IOException e) {
+				//The catalog is no longer used either way
+			}
+		}
+	}
+	
+	/**
+	 * Runs a lookup on the catalog.  A lazy catalog reads its file as Courses are used, and if
+	 * the file has been rewritten in place since it was loaded, a Course can no longer be read
+	 * back.  The catalog is then reloaded as reloadCatalog() does and the lookup is run once
+	 * more on the new catalog.  If the file cannot be reloaded, or changes again in the
+	 * meantime, the fallback is returned, so a catalog that loaded once never fails a lookup.
+	 * 
+	 * @param <T> the type of the lookup's result
+	 * @param lookup the lookup to run
+	 * @param fallback the result if the catalog cannot be read
+	 * @return the lookup's result, or the fallback
+	 */
+	private <T> T readCatalog(Supplier<T> lookup, T fallback) {
+		try {
+			return lookup.get();
+		} catch (IllegalStateException | UncheckedIOException e) {
+			try {
+				reloadCatalog();
+				return lookup.get();
+			} catch (IllegalArgumentException | IllegalStateException | UncheckedIOException e2) {
+				return fallback;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the key that identifies a section in the catalog.
+	 * 
+	 * @param name the course name
+	 * @param section the course section
+	 * @return the key for the section
+	 */
+	private static String catalogKey(String name, String section) {
+		return name + "," + section;
+	}
+	
+	/**
+	 * Gets full scheduled activities as a 2D string array.  The rows are built once for each
+	 * version of the catalog and rebuilt after any Course is changed through its setters.  The
+	 * array is shared by every call until then, so callers must treat it and its rows as
+	 * read-only and copy them to change them.  The Courses of a lazy catalog can be rebuilt
+	 * from the file at any time, so changes to them are not looked for.
 	 * @return catalogArray returns the course catalog
 	 */
 	public String[][] getCourseCatalog() {
-		String [][] catalogArray = new String[catalog.size()][4];
-		for (int i = 0; i < catalog.size(); i++) {
-			Activity c = catalog.get(i);
-			catalogArray[i] = c.getShortDisplayArray();
+		long changes = index == null ? 0 : Activity.getChangeCount();
+		if (catalogRows == null || catalogRows.version != catalogVersion || catalogRows.changes != changes) {
+			//Rows of the last catalog that could be read, if the file cannot be read at all
+			String[][] stale = catalogRows == null ? new String[0][4] : catalogRows.rows;
+			catalogRows = readCatalog(() -> {
+				String [][] catalogArray = new String[catalog.size()][4];
+				for (int i = 0; i < catalog.size(); i++) {
+					Activity c = catalog.get(i);
+					catalogArray[i] = c.getShortDisplayArray();
+				}
+				return new DisplaySnapshot(catalogVersion, changes, catalogArray);
+			}, new DisplaySnapshot(-1, changes, stale));
 		}
-		return catalogArray;
+		return catalogRows.rows;
 	}
 	
 	/**
-	 * returns 2D array of course schedule.
+	 * returns 2D array of course schedule.  The rows are rebuilt only when the schedule changes
+	 * or an activity is changed through its setters.  The array is shared by every call until
+	 * then, so callers must treat it and its rows as read-only.
 	 * 
 	 * @return 2D string array of course schedule.
 	 */
 	public String[][] getScheduledActivities() {
-		 String[][] scheduledActivities = new String[schedule.size()][4];
-		    for (int i = 0; i < schedule.size(); i++) {
-		        scheduledActivities[i] = schedule.get(i).getShortDisplayArray();
-		    }
-		    return scheduledActivities;
+		long changes = Activity.getChangeCount();
+		if (scheduleRows == null || scheduleRows.version != scheduleVersion || scheduleRows.changes != changes) {
+			String[][] scheduledActivities = new String[schedule.size()][4];
+			for (int i = 0; i < schedule.size(); i++) {
+				scheduledActivities[i] = schedule.get(i).getShortDisplayArray();
+			}
+			scheduleRows = new DisplaySnapshot(scheduleVersion, changes, scheduledActivities);
+		}
+		return scheduleRows.rows;
 	}
 
 	/**
-	 * returns 2D array of full course schedule information
+	 * returns 2D array of full course schedule information.  The rows are rebuilt only when the
+	 * schedule changes or an activity is changed through its setters.  The array is shared by
+	 * every call until then, so callers must treat it and its rows as read-only.
 	 * 
 	 * @return 2D string array of full course schedule.
 	 */
 	public String[][] getFullScheduledActivities() {
-		 String[][] fullScheduledActivities = new String[schedule.size()][7];
-		    for (int i = 0; i < schedule.size(); i++) {
-		        fullScheduledActivities[i] = schedule.get(i).getLongDisplayArray();
-		    }
-		    return fullScheduledActivities;
+		long changes = Activity.getChangeCount();
+		if (fullScheduleRows == null || fullScheduleRows.version != scheduleVersion || fullScheduleRows.changes != changes) {
+			String[][] fullScheduledActivities = new String[schedule.size()][7];
+			for (int i = 0; i < schedule.size(); i++) {
+				fullScheduledActivities[i] = schedule.get(i).getLongDisplayArray();
+			}
+			fullScheduleRows = new DisplaySnapshot(scheduleVersion, changes, fullScheduledActivities);
+		}
+		return fullScheduleRows.rows;
 	}
 	
 	/**
@@ -96,12 +601,293 @@ public class WolfScheduler {
 	 *  @return the course information or null
      */
 	public Course getCourseFromCatalog(String name, String section) {
-		for(Activity course : catalog) {
-			if(((Course) course).getName().equals(name) && ((Course) course).getSection().equals(section)) {
-				return (Course) course;
+		if (index == null) {
+			return readCatalog(() -> ((LazyCourseCatalog) catalog).getCourse(name, section), null);
+		}
+		return index.get(name, section);
+	}
+	
+	/**
+	 * Searches the catalog by course name and title and returns one page of the matching
+	 * sections, best match first.  Sections whose name starts with the query come first,
+	 * ignoring case and spaces, then sections whose title shares at least half of the query's
+	 * three letter sequences, so a few words or a misspelled word still find a title.  The
+	 * search index is built on the first search and kept up to date as the catalog is
+	 * reloaded; with a lazy catalog, building it builds every Course.
+	 * 
+	 * @param query the text to search for
+	 * @param page the page to return, counting from 0
+	 * @param pageSize the number of sections on a page
+	 * @return the sections on the page, which is empty past the last match
+	 * @throws IllegalArgumentException if the page is negative or the page size is less than one
+	 */
+	public List<Course> searchCatalog(String query, int page, int pageSize) {
+		if (search == null) {
+			search = new CatalogSearchIndex(catalog);
+		}
+		return search.search(query, page, pageSize);
+	}
+	
+	/**
+	 * Returns the sections in the catalog that match every given attribute, such as every MWF
+	 * section taught by jtking worth 3 credits.  The answer comes from inverted indexes of the
+	 * catalog, which are built on the first query and kept up to date as the catalog is
+	 * reloaded, so no other section is looked at.
+	 * 
+	 * @param instructorId the instructor to match, or null to match any
+	 * @param meetingDays days the section must meet on, all of them, or "A" for arranged
+	 * sections; null to match any
+	 * @param credits the credits to match, or 0 to match any
+	 * @return the matching sections in catalog order
+	 */
+	public List<Course> findSections(String instructorId, String meetingDays, int credits) {
+		if (attributes == null) {
+			attributes = new CatalogAttributeIndex(catalog);
+		}
+		int[] positions = attributes.find(instructorId, meetingDays, credits);
+		List<Course> sections = new ArrayList<Course>(positions.length);
+		for (int position : positions) {
+			sections.add(catalog.get(position));
+		}
+		return sections;
+	}
+	
+	/**
+	 * Returns the sections in the catalog that are in session on a day at a time, counting
+	 * both a section's start and end time as in session.  Arranged sections are never in
+	 * session.  The answer comes from a per-day interval index of the catalog, which is built
+	 * on the first query and kept up to date as the catalog is reloaded.
+	 * 
+	 * @param day the meeting day letter, one of UMTWHFS
+	 * @param time the time, in 24 hour HHMM form
+	 * @return the sections, ordered by start time
+	 * @throws IllegalArgumentException if the day or time is invalid
+	 */
+	public List<Course> getSectionsInSession(char day, int time) {
+		return getSectionsInSession(day, time, time);
+	}
+	
+	/**
+	 * Returns the sections in the catalog that are in session on a day at any time from
+	 * startTime through endTime.
+	 * 
+	 * @param day the meeting day letter, one of UMTWHFS
+	 * @param startTime the start of the range, in 24 hour HHMM form
+	 * @param endTime the end of the range, in 24 hour HHMM form
+	 * @return the sections, ordered by start time
+	 * @throws IllegalArgumentException if the day or either time is invalid, or the range ends
+	 * before it starts
+	 */
+	public List<Course> getSectionsInSession(char day, int startTime, int endTime) {
+		if (!isValidTime(startTime) || !isValidTime(endTime) || endTime < startTime) {
+			throw new IllegalArgumentException("Invalid meeting days and times.");
+		}
+		if (times == null) {
+			times = new CatalogTimeIndex(catalog);
+		}
+		return times.find(day, startTime, endTime);
+	}
+	
+	/**
+	 * Returns true if a time is a valid 24 hour HHMM time.
+	 * 
+	 * @param time the time to check
+	 * @return true if the time is valid
+	 */
+	private static boolean isValidTime(int time) {
+		return time >= 0 && time / 100 < 24 && time % 100 < 60;
+	}
+	
+	/**
+	 * Returns which sections of the catalog conflict with each other, by their position in
+	 * the catalog.  The graph is built in parallel on the common pool the first time it is
+	 * asked for.  When the catalog is reloaded, a new graph is made from it with rows only for
+	 * the meeting times new to the catalog; graphs returned earlier are not changed.
+	 * 
+	 * @return the conflict graph of the catalog
+	 */
+	public ConflictGraph getConflictGraph() {
+		if (conflicts == null) {
+			conflicts = ConflictGraph.build(catalog, ForkJoinPool.commonPool());
+		}
+		return conflicts;
+	}
+	
+	/**
+	 * Writes the conflict graph of the catalog to a file, building it first if needed.
+	 * 
+	 * @param filename the file to write the graph to
+	 * @throws IllegalArgumentException if the file cannot be saved
+	 */
+	public void saveConflictGraph(String filename) {
+		try {
+			getConflictGraph().write(filename);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+	
+	/**
+	 * Uses a conflict graph saved by saveConflictGraph() if it fits the current catalog, so the
+	 * graph does not have to be built again.
+	 * 
+	 * @param filename the file the graph was saved to
+	 * @return true if the graph was loaded, false if the file is missing, damaged or was saved
+	 * for sections with different meeting times
+	 */
+	public boolean loadConflictGraph(String filename) {
+		ConflictGraph graph = ConflictGraph.read(filename, catalog);
+		if (graph == null) {
+			return false;
+		}
+		conflicts = graph;
+		return true;
+	}
+	
+	/**
+	 * Returns the sections in the catalog that could be added to the schedule as it is now:
+	 * those that neither conflict with a scheduled activity nor are a course already in the
+	 * schedule.  The schedule is kept as a bitmap of the week that is built on the first call
+	 * and updated as activities are added and removed and as the catalog is reloaded, so the
+	 * sections can be filtered again after every change.  With a lazy catalog, the first call
+	 * builds every Course.
+	 * 
+	 * @return the sections in catalog order
+	 */
+	public List<Course> getCompatibleSections() {
+		if (occupancy == null) {
+			occupancy = new OccupancyFilter(catalog);
+			for (Activity activity : schedule) {
+				occupancy.add(activity);
+			}
+		}
+		return occupancy.getCompatibleSections();
+	}
+	
+	/**
+	 * Returns the schedules that could be made from a wishlist of courses, such as
+	 * "CSC 216, CSC 217, CSC 226".  Each schedule has one section of every course on the
+	 * wishlist, in wishlist order, and all of its sections could be added to the schedule as
+	 * it is now with addCourseToSchedule().  A course that is not in the catalog, or that is on
+	 * the wishlist twice, leaves no schedules.
+	 * 
+	 * The schedules are searched for in parallel on the common pool, starting when the first
+	 * one is asked for, and come in no particular order.  The stream ends after limit schedules
+	 * or once timeoutMillis have passed since the search started, whichever comes first.
+	 * Close the stream to stop the search early.
+	 * 
+	 * @param wishlist the course names, separated by commas
+	 * @param limit the largest number of schedules to return
+	 * @param timeoutMillis the time allowed for the search, in milliseconds
+	 * @return the schedules
+	 * @throws IllegalArgumentException if the wishlist has no course names, or the limit or
+	 * the timeout is less than one
+	 */
+	public Stream<List<Course>> generateSchedules(String wishlist, int limit, long timeoutMillis) {
+		if (limit < 1 || timeoutMillis < 1) {
+			throw new IllegalArgumentException("Invalid limit or timeout.");
+		}
+		List<String> names = parseWishlist(wishlist);
+		if (new HashSet<String>(names).size() < names.size()) {
+			return Stream.empty();
+		}
+		return ScheduleGenerator.generate(getWishlistSections(names, scheduleIndex), limit, timeoutMillis, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Returns the best schedules that could be made from a wishlist of courses, ranked by a
+	 * student's preferences (see SchedulePreferences).  Each schedule keeps the scheduled
+	 * Courses that are not on the wishlist, keeps each scheduled Event that fits, and has one
+	 * section of every course on the wishlist; a scheduled section of a wishlist course may be
+	 * swapped for another.  Adding a schedule's activities in order to an empty schedule with
+	 * addCourseToSchedule() and addEventToSchedule() always succeeds.  A course that is not in
+	 * the catalog, or that is on the wishlist twice, leaves no schedules.
+	 * 
+	 * The search is a branch and bound that skips sets of sections that cannot beat the
+	 * schedules it already has.  If it runs out of time, the best schedules found so far are
+	 * returned.
+	 * 
+	 * @param wishlist the course names, separated by commas
+	 * @param preferences how to score the schedules
+	 * @param count the largest number of schedules to return
+	 * @param budgetMillis the time allowed for the search, in milliseconds
+	 * @return the schedules, best first
+	 * @throws IllegalArgumentException if the wishlist has no course names, the preferences
+	 * are null, or the count or the budget is less than one
+	 */
+	public List<RankedSchedule> optimizeSchedule(String wishlist, SchedulePreferences preferences, int count, long budgetMillis) {
+		if (preferences == null || count < 1 || budgetMillis < 1) {
+			throw new IllegalArgumentException("Invalid preferences, count or budget.");
+		}
+		List<String> names = parseWishlist(wishlist);
+		if (new HashSet<String>(names).size() < names.size()) {
+			return new ArrayList<RankedSchedule>();
+		}
+		ArrayList<Activity> base = new ArrayList<Activity>();
+		ScheduleIndex kept = new ScheduleIndex();
+		for (Activity activity : schedule) {
+			if (!(activity instanceof Course) || !names.contains(((Course) activity).getName())) {
+				base.add(activity);
+				if (activity instanceof Course) {
+					kept.add(activity);
+				}
+			}
+		}
+		return new ScheduleOptimizer(getWishlistSections(names, kept), base, preferences, count, budgetMillis).optimize();
+	}
+	
+	/**
+	 * Splits a wishlist into course names.
+	 * 
+	 * @param wishlist the course names, separated by commas
+	 * @return the course names, in wishlist order
+	 * @throws IllegalArgumentException if the wishlist has no course names
+	 */
+	private static List<String> parseWishlist(String wishlist) {
+		List<String> names = new ArrayList<String>();
+		for (String name : wishlist == null ? new String[0] : wishlist.split(",")) {
+			if (!name.trim().isEmpty()) {
+				names.add(name.trim());
+			}
+		}
+		if (names.isEmpty()) {
+			throw new IllegalArgumentException("Invalid wishlist.");
+		}
+		return names;
+	}
+	
+	/**
+	 * Returns the sections of each wishlist course that do not clash with an indexed schedule.
+	 * 
+	 * @param names the course names
+	 * @param activities the index of the activities the sections must fit with
+	 * @return the sections of each course, in wishlist order
+	 */
+	private List<List<Course>> getWishlistSections(List<String> names, ScheduleIndex activities) {
+		List<List<Course>> groups = new ArrayList<List<Course>>();
+		for (String name : names) {
+			List<Course> sections = new ArrayList<Course>();
+			for (Course c : getSectionsFromCatalog(name)) {
+				if (activities.findClash(c) == null) {
+					sections.add(c);
+				}
 			}
+			groups.add(sections);
 		}
-		return null;
+		return groups;
+	}
+	
+	/**
+	 * Returns every section of a course in the catalog.
+	 * 
+	 * @param name the name to search for
+	 * @return the sections in catalog order, or an empty list if there are none
+	 */
+	public List<Course> getSectionsFromCatalog(String name) {
+		if (index == null) {
+			return readCatalog(() -> ((LazyCourseCatalog) catalog).getSections(name), Collections.<Course>emptyList());
+		}
+		return index.getSections(name);
 	}
 
 	/**
@@ -120,18 +906,20 @@ public class WolfScheduler {
 	        return false;
 	    }
 	    
-	    for (Activity activity : schedule) {
-	        if (activity.isDuplicate(c)) {
-	            throw new IllegalArgumentException("You are already enrolled in " + name);
-	        }
-	        try {
-	        	activity.checkConflict(c);
-	        	} catch(ConflictException e) {
-	        		throw new IllegalArgumentException("The course cannot be added due to a conflict.");
-	        }
+	    Activity clash = scheduleIndex.findClash(c);
+	    if (clash != null && clash.isDuplicate(c)) {
+	        throw new IllegalArgumentException("You are already enrolled in " + name);
+	    } else if (clash != null) {
+	        throw new IllegalArgumentException("The course cannot be added due to a conflict.");
 	    }
 
 	    schedule.add(c);
+	    pin(c);
+	    scheduleIndex.add(c);
+	    if (occupancy != null) {
+	        occupancy.add(c);
+	    }
+	    scheduleVersion++;
 	    return true;
 	}
 	
@@ -143,7 +931,13 @@ public class WolfScheduler {
 	 * */
 	public Boolean removeActivityFromSchedule(int idx) {
 		try {
-	        schedule.remove(idx);
+	        Activity removed = schedule.remove(idx);
+	        unpin(removed);
+	        scheduleIndex.remove(removed);
+	        if (occupancy != null) {
+	            occupancy.remove(removed);
+	        }
+	        scheduleVersion++;
 	        return true;
 	    } catch (IndexOutOfBoundsException e) {
 	        return false;
@@ -154,7 +948,13 @@ public class WolfScheduler {
 	 * Resets schedule to an empty array.
 	 * */
 	public void resetSchedule() {
+		for (Activity a : schedule) {
+			unpin(a);
+		}
 		schedule = new ArrayList<Activity>();
+		scheduleIndex = new ScheduleIndex();
+		occupancy = null;
+		scheduleVersion++;
 	}
 	
 	/**
@@ -181,6 +981,55 @@ public class WolfScheduler {
 		
 	}
 
+	/**
+	 * Exports the schedule to a file on the given executor, so a GUI does not wait on the disk.
+	 * The schedule is copied when this method is called, so adding or removing activities
+	 * afterwards does not change what is written.  Cancelling the returned future before the
+	 * file has been moved into place stops the export and leaves any existing file as it was.
+	 * 
+	 * @param filename the file to export the schedule to
+	 * @param executor the executor to write the file on
+	 * @return a future that completes when the file is written, or completes exceptionally
+	 * with an IllegalArgumentException if the file cannot be saved
+	 */
+	public CompletableFuture<Void> exportScheduleAsync(String filename, Executor executor) {
+		ArrayList<Activity> snapshot = new ArrayList<Activity>(schedule);
+		CompletableFuture<Void> export = new CompletableFuture<Void>();
+		//Checked between records, so a cancelled export throws before the file is moved into place
+		Iterable<Activity> records = () -> new Iterator<Activity>() {
+			private final Iterator<Activity> activities = snapshot.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return activities.hasNext();
+			}
+
+			@Override
+			public Activity next() {
+				if (export.isCancelled()) {
+					throw new CancellationException();
+				}
+				return activities.next();
+			}
+		};
+		executor.execute(() -> {
+			if (export.isDone()) {
+				return;
+			}
+			try {
+				ActivityRecordIO.writeActivityRecords(filename, records);
+				export.complete(null);
+			} catch (CancellationException e) {
+				//The future was already completed by cancel()
+			} catch (IOException e) {
+				export.completeExceptionally(new IllegalArgumentException("The file cannot be saved."));
+			} catch (RuntimeException e) {
+				export.completeExceptionally(e);
+			}
+		});
+		return export;
+	}
+
 	/**
      * Sets the schedule title.
      *
@@ -207,16 +1056,45 @@ public class WolfScheduler {
 	 */
 	public void addEventToSchedule(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime, String eventDetails) {
 		Event eventToAdd = new Event(eventTitle, eventMeetingDays, eventStartTime, eventEndTime, eventDetails);
-	    for (Activity activity : schedule) {
-	        if (activity.isDuplicate(eventToAdd)) {
-	            throw new IllegalArgumentException("You have already created an event called " + eventTitle);
-	        }
-	        try {
-	        	activity.checkConflict(eventToAdd);
-	        	} catch(ConflictException e) {
-	        		throw new IllegalArgumentException("The event cannot be added due to a conflict.");
-	        }
+	    Activity clash = scheduleIndex.findClash(eventToAdd);
+	    if (clash != null && clash.isDuplicate(eventToAdd)) {
+	        throw new IllegalArgumentException("You have already created an event called " + eventTitle);
+	    } else if (clash != null) {
+	        throw new IllegalArgumentException("The event cannot be added due to a conflict.");
 	    }
 	    schedule.add(eventToAdd);
+	    scheduleIndex.add(eventToAdd);
+	    if (occupancy != null) {
+	        occupancy.add(eventToAdd);
+	    }
+	    scheduleVersion++;
+	}
+	
+	/**
+	 * Display rows built for one version of the catalog or schedule.
+	 */
+	private static class DisplaySnapshot {
+		
+		/** Version of the catalog or schedule the rows were built from */
+		private final int version;
+		
+		/** Changes to all activities when the rows were built */
+		private final long changes;
+		
+		/** The display rows, shared with callers that must not change them */
+		private final String[][] rows;
+		
+		/**
+		 * Constructs a snapshot of display rows.
+		 * 
+		 * @param version the version the rows were built from
+		 * @param changes the changes to all activities when the rows were built
+		 * @param rows the display rows
+		 */
+		DisplaySnapshot(int version, long changes, String[][] rows) {
+			this.version = version;
+			this.changes = changes;
+			this.rows = rows;
+		}
 	}
-}
\ No newline at end of file
+}
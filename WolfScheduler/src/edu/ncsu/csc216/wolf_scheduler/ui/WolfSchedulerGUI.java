@@ -8,7 +8,14 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -23,6 +30,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -31,6 +39,8 @@ import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.CatalogChange;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.CatalogWatcher;
 import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
 
 /**
@@ -59,6 +69,14 @@ public class WolfSchedulerGUI extends JFrame {
 	private CardLayout cardLayout;
 	/** Reference to the WolfScheduler */
 	private WolfScheduler scheduler;
+	/** Watches the catalog file, or null if it cannot be watched or the window is closed */
+	private transient CatalogWatcher catalogWatcher;
+	/** Runs schedule exports one at a time, off the event thread */
+	private final transient ExecutorService exportExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Schedule export");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	/**
 	 * Constructs the WolfSchedulerGUI and sets up the GUI 
@@ -98,6 +116,26 @@ public class WolfSchedulerGUI extends JFrame {
 		Container c = getContentPane();
 		c.add(panel, BorderLayout.CENTER);
 		
+		//Reload the catalog on the event thread whenever the catalog file changes
+		try {
+			catalogWatcher = scheduler.watchCatalog(SwingUtilities::invokeLater, this::catalogChanged,
+					e -> JOptionPane.showMessageDialog(this, "The course catalog could not be reloaded.\n" + e));
+		} catch (IllegalArgumentException e) {
+			//The catalog can still be used, it just won't be reloaded
+		}
+		//Stop watching when the window is closed or disposed
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				closeCatalogWatcher();
+			}
+
+			@Override
+			public void windowClosed(WindowEvent e) {
+				closeCatalogWatcher();
+			}
+		});
+		
 		//Set the GUI visible
 		setVisible(true);
 	}
@@ -127,6 +165,32 @@ public class WolfSchedulerGUI extends JFrame {
 		return catalogFile.getAbsolutePath();
 	}
 
+	/**
+	 * Stops watching the catalog file, which ends the watch thread and releases its handle.
+	 */
+	private void closeCatalogWatcher() {
+		if (catalogWatcher != null) {
+			catalogWatcher.close();
+			catalogWatcher = null;
+		}
+	}
+
+	/**
+	 * Refreshes the tables after the catalog was reloaded and tells the user if any
+	 * scheduled course was affected.
+	 * @param change what changed in the catalog and the schedule
+	 */
+	private void catalogChanged(CatalogChange change) {
+		pnlScheduler.updateTables();
+		pnlSchedule.updateFinalizedTable();
+		if (change.affectsSchedule()) {
+			JOptionPane.showMessageDialog(this, "The course catalog was updated.\n"
+					+ change.getScheduleChanged().size() + " scheduled course(s) changed, "
+					+ change.getScheduleConflicts().size() + " of them now conflict.\n"
+					+ change.getScheduleRemoved().size() + " scheduled course(s) are no longer offered.");
+		}
+	}
+
 	/**
 	 * Starts the Wolf Scheduler program.
 	 * @param args command line arguments
@@ -695,6 +759,8 @@ public class WolfSchedulerGUI extends JFrame {
 			private String [] columnNames = {"Name", "Section", "Title", "Meeting Information"};
 			/** Data stored in the table */
 			private Object [][] data;
+			/** True if data is this model's own copy rather than the scheduler's shared rows */
+			private boolean copied;
 			/** Boolean flag if the model applies to the catalog or schedule */
 			private boolean catalog;
 			
@@ -758,6 +824,15 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
+				if (!copied) {
+					//The scheduler shares its rows with every caller, so change a copy of them
+					Object [][] copy = new Object[data.length][];
+					for (int i = 0; i < data.length; i++) {
+						copy[i] = Arrays.copyOf(data[i], data[i].length, Object[].class);
+					}
+					data = copy;
+					copied = true;
+				}
 				data[row][col] = value;
 				fireTableCellUpdated(row, col);
 			}
@@ -771,6 +846,7 @@ public class WolfSchedulerGUI extends JFrame {
 				} else {
 					data = scheduler.getScheduledActivities();
 				}
+				copied = false;
 			}
 		}
 	}
@@ -852,19 +928,42 @@ public class WolfSchedulerGUI extends JFrame {
 			if (e.getSource() == btnReviseSchedule) {
 				cardLayout.show(panel, SCHEDULER_PANEL);
 			} else if (e.getSource() == btnExportSchedule) {
-				try {
-					String fileName = getFileName(false);
-					scheduler.exportSchedule(fileName);
-				} catch (IllegalArgumentException iae) {
-					JOptionPane.showMessageDialog(WolfSchedulerGUI.this, iae.getMessage());
-					String fileName = getFileName(false);
-					scheduler.exportSchedule(fileName);
-				} catch (IllegalStateException ise) {
-					//do nothing if the window is closed.
-				}
+				exportSchedule();
+			}
+		}
+		
+		/**
+		 * Asks for a file name and exports the schedule to it in the background.  The export
+		 * button is disabled until the export finishes.
+		 */
+		private void exportSchedule() {
+			try {
+				String fileName = getFileName(false);
+				btnExportSchedule.setEnabled(false);
+				scheduler.exportScheduleAsync(fileName, exportExecutor).whenComplete(
+						(result, error) -> SwingUtilities.invokeLater(() -> exportFinished(error)));
+			} catch (IllegalStateException ise) {
+				//do nothing if the window is closed.
 			}
 		}
 		
+		/**
+		 * Re-enables the export button once an export finishes.  If the file could not be saved
+		 * the user is told why and asked for another file name.
+		 * @param error why the export failed, or null if it succeeded
+		 */
+		private void exportFinished(Throwable error) {
+			btnExportSchedule.setEnabled(true);
+			if (error instanceof CompletionException) {
+				error = error.getCause();
+			}
+			if (error == null || error instanceof CancellationException) {
+				return;
+			}
+			JOptionPane.showMessageDialog(WolfSchedulerGUI.this, error.getMessage());
+			exportSchedule();
+		}
+		
 		/**
 		 * Updates the finalized schedule table
 		 */
@@ -887,6 +986,8 @@ public class WolfSchedulerGUI extends JFrame {
 			private String [] columnNames = {"Name", "Section", "Title", "Credits", "Instructor", "Meeting Information", "Details"};
 			/** Data stored in the table */
 			private Object [][] data;
+			/** True if data is this model's own copy rather than the scheduler's shared rows */
+			private boolean copied;
 			
 			/**
 			 * Constructs the {@link CourseTableModel} by requesting the latest information
@@ -946,6 +1047,15 @@ public class WolfSchedulerGUI extends JFrame {
 			 * @param col location to modify the data.
 			 */
 			public void setValueAt(Object value, int row, int col) {
+				if (!copied) {
+					//The scheduler shares its rows with every caller, so change a copy of them
+					Object [][] copy = new Object[data.length][];
+					for (int i = 0; i < data.length; i++) {
+						copy[i] = Arrays.copyOf(data[i], data[i].length, Object[].class);
+					}
+					data = copy;
+					copied = true;
+				}
 				data[row][col] = value;
 				fireTableCellUpdated(row, col);
 			}
@@ -955,6 +1065,7 @@ public class WolfSchedulerGUI extends JFrame {
 			 */
 			private void updateData() {
 				data = scheduler.getFullScheduledActivities();
+				copied = false;
 			}
 		}
 		
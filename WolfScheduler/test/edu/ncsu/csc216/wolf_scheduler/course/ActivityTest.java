@@ -50,4 +50,20 @@ class ActivityTest {
 	    assertThrows(ConflictException.class, () -> a2.checkConflict(a1));
 	    
 	}
+	
+	/**
+	 * Tests that an activity ending at the minute another starts conflicts even when they
+	 * share no meeting day, and that an arranged activity never conflicts.
+	 */
+	@Test
+	public void startTimeEqualsEndTimeOnOtherDays() {
+		Activity a1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445);
+	    Activity a2 = new Event("Exercise", "F", 1200, 1330, "Cardio Time!");
+	    Activity a3 = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A", 0, 0);
+	    
+	    assertThrows(ConflictException.class, () -> a1.checkConflict(a2));
+	    assertThrows(ConflictException.class, () -> a2.checkConflict(a1));
+	    assertDoesNotThrow(() -> a1.checkConflict(a3));
+	    assertDoesNotThrow(() -> a3.checkConflict(a3));
+	}
 }
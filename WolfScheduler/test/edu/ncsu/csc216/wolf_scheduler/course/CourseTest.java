@@ -458,4 +458,31 @@ public class CourseTest {
 		assertEquals(s2, c2.toString());
 	}
 
+	/**
+	 * Tests that the validators accept exactly what the setters accept, so a record can be
+	 * checked without constructing a Course.
+	 */
+	@Test
+	public void testValidators() {
+		assertTrue(Course.isValidName(NAME));
+		assertFalse(Course.isValidName("CSC216"));
+		assertFalse(Course.isValidName(null));
+		assertTrue(Course.isValidTitle(TITLE));
+		assertFalse(Course.isValidTitle(""));
+		assertTrue(Course.isValidSection(SECTION));
+		assertFalse(Course.isValidSection("01"));
+		assertTrue(Course.isValidCredits(CREDITS));
+		assertFalse(Course.isValidCredits(6));
+		assertTrue(Course.isValidInstructorId(INSTRUCTOR_ID));
+		assertFalse(Course.isValidInstructorId(""));
+		assertTrue(Course.isValidMeetingDaysAndTime(MEETING_DAYS, START_TIME, END_TIME));
+		assertTrue(Course.isValidMeetingDaysAndTime("A", 0, 0));
+		assertFalse(Course.isValidMeetingDaysAndTime("A", START_TIME, END_TIME));
+		assertFalse(Course.isValidMeetingDaysAndTime("MA", 0, 0));
+		assertFalse(Course.isValidMeetingDaysAndTime("MS", START_TIME, END_TIME));
+		assertFalse(Course.isValidMeetingDaysAndTime("MM", START_TIME, END_TIME));
+		assertFalse(Course.isValidMeetingDaysAndTime(MEETING_DAYS, END_TIME, START_TIME));
+		assertFalse(Course.isValidMeetingDaysAndTime(MEETING_DAYS, 1360, END_TIME));
+	}
+
 }
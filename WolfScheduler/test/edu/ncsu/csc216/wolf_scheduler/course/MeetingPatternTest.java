@@ -0,0 +1,118 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests MeetingPattern.
+ * @author Srikar Donepudi
+ */
+public class MeetingPatternTest {
+
+	/**
+	 * Tests the days and minutes of a pattern, and that equal patterns are shared.
+	 */
+	@Test
+	public void testOf() {
+		MeetingPattern mw = MeetingPattern.of("MW", 1330, 1445);
+		assertEquals(0b101, mw.getDays());
+		assertEquals(810, mw.getStartMinute());
+		assertEquals(885, mw.getEndMinute());
+		assertFalse(mw.isArranged());
+		assertSame(mw, MeetingPattern.of("WM", 1330, 1445));
+		assertNotSame(mw, MeetingPattern.of("MW", 1330, 1446));
+		assertEquals(0b1100000, MeetingPattern.of("SU", 0, 2359).getDays());
+		assertEquals(1439, MeetingPattern.of("SU", 0, 2359).getEndMinute());
+
+		MeetingPattern arranged = MeetingPattern.of("A", 0, 0);
+		assertTrue(arranged.isArranged());
+		assertSame(arranged, MeetingPattern.of("A", 0, 0));
+
+		Course c1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		Course c2 = new Course("CSC 226", "Discrete Mathematics", "001", 3, "tmbarnes", "TH", 1330, 1445);
+		assertSame(c1.getMeetingPattern(), c2.getMeetingPattern());
+		c2.setMeetingDaysAndTime("A", 0, 0);
+		assertSame(arranged, c2.getMeetingPattern());
+	}
+
+	/**
+	 * Tests conflicts at the edges of the rules.
+	 */
+	@Test
+	public void testConflictsWith() {
+		MeetingPattern mw = MeetingPattern.of("MW", 1330, 1445);
+		assertTrue(mw.conflictsWith(MeetingPattern.of("W", 1400, 1500)));
+		assertTrue(mw.conflictsWith(MeetingPattern.of("M", 1200, 1331)));
+		assertFalse(mw.conflictsWith(MeetingPattern.of("TH", 1330, 1445)));
+		assertFalse(mw.conflictsWith(MeetingPattern.of("M", 1446, 1500)));
+		//Touching ends conflict, even on different days
+		assertTrue(mw.conflictsWith(MeetingPattern.of("M", 1445, 1500)));
+		assertTrue(mw.conflictsWith(MeetingPattern.of("F", 1200, 1330)));
+		assertTrue(MeetingPattern.of("F", 1200, 1330).conflictsWith(mw));
+		//Arranged never conflicts
+		assertFalse(mw.conflictsWith(MeetingPattern.of("A", 0, 0)));
+		assertFalse(MeetingPattern.of("A", 0, 0).conflictsWith(MeetingPattern.of("A", 0, 0)));
+		assertFalse(MeetingPattern.of("A", 0, 0).conflictsWith(MeetingPattern.of("M", 0, 10)));
+	}
+
+	/**
+	 * Tests that checkConflict() agrees with the meeting day and HHMM time comparison it
+	 * replaced, on random Events and arranged Courses.
+	 */
+	@Test
+	public void testRandomConflicts() {
+		String[] days = {"M", "T", "W", "H", "F", "S", "U", "MW", "TH", "MWF", "SU", "MTWHFSU", "A"};
+		int[] times = {0, 830, 945, 959, 1000, 1001, 1145, 1200, 1330, 1445, 2359};
+		Random random = new Random(20);
+		for (int i = 0; i < 20000; i++) {
+			Activity a = randomActivity(random, days, times);
+			Activity b = randomActivity(random, days, times);
+			boolean expected = oldConflict(a, b);
+			assertEquals(expected, a.getMeetingPattern().conflictsWith(b.getMeetingPattern()), a + " " + b);
+			if (expected) {
+				assertThrows(ConflictException.class, () -> a.checkConflict(b));
+			} else {
+				assertDoesNotThrow(() -> a.checkConflict(b));
+			}
+		}
+	}
+
+	/**
+	 * Returns a random valid Event, or an arranged Course.
+	 * @param random the random numbers
+	 * @param days the meeting days to pick from
+	 * @param times the times to pick from
+	 * @return the Activity
+	 */
+	private static Activity randomActivity(Random random, String[] days, int[] times) {
+		String meetingDays = days[random.nextInt(days.length)];
+		if ("A".equals(meetingDays)) {
+			return new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A", 0, 0);
+		}
+		int start = times[random.nextInt(times.length)];
+		int end = times[random.nextInt(times.length)];
+		return new Event("Event", meetingDays, Math.min(start, end), Math.max(start, end), "");
+	}
+
+	/**
+	 * The conflict check as it was before meeting patterns.
+	 * @param a one Activity
+	 * @param b the other Activity
+	 * @return true if the Activities conflict
+	 */
+	private static boolean oldConflict(Activity a, Activity b) {
+		if ("A".equals(a.getMeetingDays()) || "A".equals(b.getMeetingDays())) {
+			return false;
+		}
+		for (char day : a.getMeetingDays().toCharArray()) {
+			if (b.getMeetingDays().indexOf(day) != -1 && a.getStartTime() < b.getEndTime() && a.getEndTime() > b.getStartTime()
+					|| a.getEndTime() == b.getStartTime() || a.getStartTime() == b.getEndTime()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -4,10 +4,21 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
@@ -59,6 +70,110 @@ public class ActivityRecordIOTest {
 		checkFiles("test-files/expected_activity_records.txt", "test-files/actual_activity_records.txt");
 	}
 
+	/**
+	 * Tests writeActivityRecords() with any Iterable of Activities and with sync.
+	 */
+	@Test
+	public void testWriteActivityRecordsIterable() {
+		ArrayDeque<Course> courses = new ArrayDeque<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		
+		try {
+			ActivityRecordIO.writeActivityRecords("test-files/actual_course_records.txt", courses, true);
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		}
+		
+		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
+		assertEquals(0, countTempFiles());
+	}
+
+	/**
+	 * Tests that a write that fails part way through leaves the old file as it was.
+	 */
+	@Test
+	public void testWriteActivityRecordsFailure() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		try {
+			ActivityRecordIO.writeActivityRecords("test-files/actual_course_records.txt", activities);
+		} catch (IOException e) {
+			fail("Cannot write to course records file");
+		}
+		
+		Iterable<Activity> failing = () -> new Iterator<Activity>() {
+			private int count;
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Activity next() {
+				if (count++ == 2) {
+					throw new IllegalStateException("Failed part way through");
+				}
+				return activities.get(0);
+			}
+		};
+		assertThrows(IllegalStateException.class,
+				() -> ActivityRecordIO.writeActivityRecords("test-files/actual_course_records.txt", failing));
+		
+		checkFiles("test-files/expected_course_records.txt", "test-files/actual_course_records.txt");
+		assertEquals(0, countTempFiles());
+	}
+
+	/**
+	 * Tests that a schedule named with a ".gz" or ".zz" extension is written compressed.
+	 */
+	@Test
+	public void testWriteActivityRecordsCompressed() throws IOException {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		Path expected = Path.of("test-files/expected_course_records.txt");
+		Path gzip = Path.of("test-files/actual_course_records.txt.gz");
+		Path deflate = Path.of("test-files/actual_course_records.zz");
+		try {
+			ActivityRecordIO.writeActivityRecords(gzip.toString(), activities, true);
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+				assertEquals(Files.readAllLines(expected), readLines(in));
+			}
+			ActivityRecordIO.writeActivityRecords(deflate.toString(), activities);
+			try (InputStream in = new InflaterInputStream(Files.newInputStream(deflate))) {
+				assertEquals(Files.readAllLines(expected), readLines(in));
+			}
+			assertEquals(0, countTempFiles());
+		} finally {
+			Files.deleteIfExists(gzip);
+			Files.deleteIfExists(deflate);
+		}
+	}
+
+	/**
+	 * Reads every line of a stream.
+	 * @param in stream to read
+	 * @return the lines
+	 * @throws IOException if the stream cannot be read
+	 */
+	private List<String> readLines(InputStream in) throws IOException {
+		return new BufferedReader(new InputStreamReader(in)).lines().collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the number of temporary files writeActivityRecords() left in test-files.
+	 * @return number of temporary files
+	 */
+	private int countTempFiles() {
+		return new File("test-files").list((dir, name) -> name.startsWith(".") && name.endsWith(".tmp")).length;
+	}
+
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
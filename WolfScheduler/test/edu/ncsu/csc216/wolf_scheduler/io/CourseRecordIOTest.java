@@ -8,11 +8,14 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
@@ -93,6 +96,136 @@ public class CourseRecordIOTest {
 		}
 	}
 
+	/**
+	 * Tests that readCourseRecords() keeps the first of two records with the same name
+	 * and section and counts the one it drops.
+	 */
+	@Test
+	public void testReadCourseRecordsDuplicates() {
+		try {
+			CourseRecordReport report = new CourseRecordReport();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, report);
+			assertEquals(13, courses.size());
+			assertEquals(validCourse2, courses.get(1).toString());
+			assertEquals(1, report.getDuplicateCount());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
+	/**
+	 * Tests that every line of invalid_course_records.txt is reported with the reason listed
+	 * for it in test-files/README.txt, whichever way the file is read.
+	 */
+	@Test
+	public void testReadCourseRecordsRejected() {
+		CourseRecordError[] expected = {
+			CourseRecordError.NAME, CourseRecordError.NAME, CourseRecordError.NAME,
+			CourseRecordError.NAME, CourseRecordError.NAME, CourseRecordError.NAME,
+			CourseRecordError.NAME, CourseRecordError.FIELD_COUNT, CourseRecordError.FIELD_COUNT,
+			CourseRecordError.SECTION, CourseRecordError.FIELD_COUNT, CourseRecordError.CREDITS,
+			CourseRecordError.CREDITS, CourseRecordError.FIELD_COUNT, CourseRecordError.FIELD_COUNT,
+			CourseRecordError.FIELD_COUNT, CourseRecordError.SECTION, CourseRecordError.INSTRUCTOR_ID,
+			CourseRecordError.MEETING_DAYS_AND_TIME, CourseRecordError.FIELD_COUNT,
+			CourseRecordError.MEETING_DAYS_AND_TIME, CourseRecordError.MEETING_DAYS_AND_TIME,
+			CourseRecordError.MEETING_DAYS_AND_TIME, CourseRecordError.MEETING_DAYS_AND_TIME,
+			CourseRecordError.FIELD_COUNT
+		};
+		try {
+			for (CourseReadMode mode : CourseReadMode.values()) {
+				CourseRecordReport report = new CourseRecordReport();
+				assertEquals(0, CourseRecordIO.readCourseRecords(invalidTestFile, report, mode).size());
+				assertEquals(expected.length, report.getRejectedRecords().size());
+				for (int i = 0; i < expected.length; i++) {
+					RejectedCourseRecord rejected = report.getRejectedRecords().get(i);
+					assertEquals(i + 1, rejected.getLineNumber(), mode + " line " + (i + 1));
+					assertEquals(expected[i], rejected.getError(), mode + " line " + (i + 1));
+				}
+				assertEquals(0, report.getDuplicateCount());
+
+				report = new CourseRecordReport();
+				CourseRecordIO.readCourseRecords(validTestFile, report, mode);
+				assertEquals(1, report.getRejectedRecords().size());
+				assertEquals("line 4: Duplicate course.", report.getRejectedRecords().get(0).toString());
+			}
+		} catch (IOException e) {
+			fail("Unexpected error reading " + invalidTestFile);
+		}
+	}
+
+	/**
+	 * Tests that gzip and deflate compressed catalogs give the same Courses as the plain file
+	 * in every mode, with gzip recognized by its magic bytes even without a ".gz" extension.
+	 */
+	@Test
+	public void testReadCourseRecordsCompressed() throws IOException {
+		Path plain = Path.of(validTestFile);
+		Path gzip = Path.of("test-files/actual_course_records.txt.gz");
+		Path gzipNoExtension = Path.of("test-files/actual_course_records_gzip.txt");
+		Path deflate = Path.of("test-files/actual_course_records.txt.deflate");
+		try {
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+				Files.copy(plain, out);
+			}
+			Files.copy(gzip, gzipNoExtension);
+			try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(deflate))) {
+				Files.copy(plain, out);
+			}
+			
+			ArrayList<Course> expected = CourseRecordIO.readCourseRecords(validTestFile);
+			for (Path compressed : new Path[] {gzip, gzipNoExtension, deflate}) {
+				for (CourseReadMode mode : CourseReadMode.values()) {
+					CourseRecordReport report = new CourseRecordReport();
+					assertEquals(expected, CourseRecordIO.readCourseRecords(compressed.toString(), report, mode), compressed + " " + mode);
+					assertEquals(1, report.getDuplicateCount());
+				}
+			}
+		} finally {
+			Files.deleteIfExists(gzip);
+			Files.deleteIfExists(gzipNoExtension);
+			Files.deleteIfExists(deflate);
+		}
+	}
+
+	/**
+	 * Tests that reading through a memory mapping gives the same Courses as the buffered reader.
+	 */
+	@Test
+	public void testReadCourseRecordsMapped() {
+		try {
+			CourseRecordReport report = new CourseRecordReport();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, report, CourseReadMode.MAPPED);
+			assertEquals(13, courses.size());
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			assertEquals(1, report.getDuplicateCount());
+			
+			assertEquals(0, CourseRecordIO.readCourseRecords(invalidTestFile, report, CourseReadMode.MAPPED).size());
+		} catch (IOException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		assertThrows(FileNotFoundException.class, 
+				() -> CourseRecordIO.readCourseRecords("test-files/no_such_file.txt", new CourseRecordReport(), CourseReadMode.MAPPED));
+	}
+
+	/**
+	 * Tests that the parallel reader gives the same Courses as the sequential reader.
+	 */
+	@Test
+	public void testReadCourseRecordsParallel() {
+		try {
+			CourseRecordReport report = new CourseRecordReport();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, report, CourseReadMode.PARALLEL);
+			assertEquals(CourseRecordIO.readCourseRecords(validTestFile), courses);
+			assertEquals(1, report.getDuplicateCount());
+			
+			assertEquals(0, CourseRecordIO.readCourseRecords(invalidTestFile, report, CourseReadMode.PARALLEL).size());
+		} catch (IOException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
 	/**
 	 * Tests readInvalidCourseRecords().
 	 */
@@ -0,0 +1,112 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseRecordIterator and CourseRecordIO.streamCourseRecords().
+ * @author Srikar Donepudi
+ */
+public class CourseRecordIteratorTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+	/** Invalid course records */
+	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+
+	/**
+	 * Tests that the iterator returns Courses in file order, skipping invalid lines and
+	 * duplicates, and only reads as far as it needs to.
+	 */
+	@Test
+	public void testIterator() {
+		String records = "CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100\n"
+				+ "not a course\n"
+				+ "CSC 116,Intro to Programming - Java,001,3,jtking,TH,0910,1100\r\n"
+				+ "CSC 216,Software Development Fundamentals,601,3,jctetter,A";
+		CourseRecordReport report = new CourseRecordReport();
+		CourseRecordIterator iterator = new CourseRecordIterator(new StringReader(records), report);
+
+		assertTrue(iterator.hasNext());
+		assertEquals("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100", iterator.next().toString());
+		assertEquals(0, report.getDuplicateCount());
+
+		assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", iterator.next().toString());
+		assertEquals(1, report.getDuplicateCount());
+
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, () -> iterator.next());
+		iterator.close();
+	}
+
+	/**
+	 * Tests that rejected lines are reported with the line numbers Scanner.nextLine() would
+	 * give them, counting blank lines and treating "\r\n" as one separator.
+	 */
+	@Test
+	public void testRejectedLineNumbers() {
+		String records = "CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100\r\n"
+				+ "\r\n"
+				+ "CSC 116,Intro to Programming - Java,001,3,jtking,TH,0910,1100\r"
+				+ "CSC 116,,002,3,jtking,TH,0910,1100\n"
+				+ "CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0";
+		CourseRecordReport report = new CourseRecordReport();
+		CourseRecordIterator iterator = new CourseRecordIterator(new StringReader(records), report);
+		while (iterator.hasNext()) {
+			iterator.next();
+		}
+		List<RejectedCourseRecord> rejected = report.getRejectedRecords();
+		assertEquals(3, rejected.size());
+		assertEquals("line 3: Duplicate course.", rejected.get(0).toString());
+		assertEquals(4, rejected.get(1).getLineNumber());
+		assertEquals(CourseRecordError.TITLE, rejected.get(1).getError());
+		assertEquals(5, rejected.get(2).getLineNumber());
+		assertEquals(CourseRecordError.FIELD_COUNT, rejected.get(2).getError());
+		assertEquals(1, report.getDuplicateCount());
+	}
+
+	/**
+	 * Tests that an iterator closed early returns no more Courses.
+	 */
+	@Test
+	public void testClose() {
+		try {
+			CourseRecordIterator iterator = CourseRecordIO.iterateCourseRecords(validTestFile, new CourseRecordReport());
+			assertTrue(iterator.hasNext());
+			iterator.next();
+			iterator.close();
+			iterator.close();
+			assertFalse(iterator.hasNext());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+
+	/**
+	 * Tests streamCourseRecords().
+	 */
+	@Test
+	public void testStreamCourseRecords() {
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile, new CourseRecordReport())) {
+			assertEquals(4, courses.filter(c -> "CSC 217".equals(c.getName())).count());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(invalidTestFile, new CourseRecordReport())) {
+			assertEquals(0, courses.count());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + invalidTestFile);
+		}
+		assertThrows(FileNotFoundException.class,
+				() -> CourseRecordIO.streamCourseRecords("test-files/no_such_file.txt", new CourseRecordReport()));
+	}
+}
@@ -0,0 +1,113 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseRecordParser.
+ * @author Srikar Donepudi
+ */
+public class CourseRecordParserTest {
+
+	/**
+	 * Tests parsing valid records with and without meeting times.
+	 */
+	@Test
+	public void testParseValid() {
+		CourseRecordParser parser = new CourseRecordParser();
+		Course c = parser.parse("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100");
+		assertEquals("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100", c.toString());
+
+		c = parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A");
+		assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", c.toString());
+		assertEquals(0, c.getStartTime());
+		assertEquals(0, c.getEndTime());
+
+		//An empty first or last field is dropped, like Scanner did
+		c = parser.parse(",CSC 217,Software Development Fundamentals Lab,202,+1,sesmith5,M,1040,1230,");
+		assertEquals("CSC 217,Software Development Fundamentals Lab,202,1,sesmith5,M,1040,1230", c.toString());
+	}
+
+	/**
+	 * Tests parsing a record out of the middle of a larger buffer.
+	 */
+	@Test
+	public void testParseBufferRange() {
+		char[] buf = "xxCSC 316,Data Structures and Algorithms,001,3,jtking,MW,830,945\nyy".toCharArray();
+		Course c = new CourseRecordParser().parse(buf, 2, buf.length - 3);
+		assertEquals("CSC 316,Data Structures and Algorithms,001,3,jtking,MW,830,945", c.toString());
+	}
+
+	/**
+	 * Tests that records with the wrong number of fields or bad integers are rejected.
+	 */
+	@Test
+	public void testParseInvalid() {
+		CourseRecordParser parser = new CourseRecordParser();
+		assertThrows(IllegalArgumentException.class, () -> parser.parse(""));
+		assertThrows(IllegalArgumentException.class, () -> parser.parse(","));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0"));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330"));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,extra"));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,001,three,sesmith5,MW,1330,1445"));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,13-30,1445"));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,99999999999"));
+		assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,001,-,sesmith5,MW,1330,1445"));
+	}
+
+	/**
+	 * Tests that tryParse() returns null and the reason instead of throwing.
+	 */
+	@Test
+	public void testTryParse() {
+		CourseRecordParser parser = new CourseRecordParser();
+		char[] buf = "CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445".toCharArray();
+		assertNotNull(parser.tryParse(buf, 0, buf.length));
+		assertNull(parser.getError());
+
+		buf = "CSC 216,Software Development Fundamentals,001,three,sesmith5,MW,1330,1445".toCharArray();
+		assertNull(parser.tryParse(buf, 0, buf.length));
+		assertEquals(CourseRecordError.CREDITS, parser.getError());
+
+		buf = "CSC 216,Software Development Fundamentals,601,3,jctetter,A,0,0".toCharArray();
+		assertNull(parser.tryParse(buf, 0, buf.length));
+		assertEquals(CourseRecordError.FIELD_COUNT, parser.getError());
+
+		buf = "CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,99999999999".toCharArray();
+		assertNull(parser.tryParse(buf, 0, buf.length));
+		assertEquals(CourseRecordError.MEETING_DAYS_AND_TIME, parser.getError());
+
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> parser.parse("CSC 216,Software Development Fundamentals,01,3,sesmith5,MW,1330,1445"));
+		assertEquals("Invalid section.", e.getMessage());
+	}
+
+	/**
+	 * Tests that Courses parsed by the same parser share their repeated field values.
+	 */
+	@Test
+	public void testSharedFields() {
+		CourseRecordParser parser = new CourseRecordParser();
+		Course c1 = parser.parse("CSC 217,Software Development Fundamentals Lab,202,1,sesmith5,M,1040,1230");
+		Course c2 = parser.parse("CSC 217,Software Development Fundamentals Lab,211,1,sesmith5,M,830,1020");
+		assertSame(c1.getName(), c2.getName());
+		assertSame(c1.getTitle(), c2.getTitle());
+		assertSame(c1.getInstructorId(), c2.getInstructorId());
+		assertSame(c1.getMeetingDays(), c2.getMeetingDays());
+		assertEquals("211", c2.getSection());
+
+		Course c3 = new CourseRecordParser().parse("CSC 217,Software Development Fundamentals Lab,223,1,sesmith5,W,1500,1650");
+		assertEquals(c1.getTitle(), c3.getTitle());
+		assertNotSame(c1.getTitle(), c3.getTitle());
+	}
+}
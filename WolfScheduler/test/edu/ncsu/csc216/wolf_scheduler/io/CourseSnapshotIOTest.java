@@ -0,0 +1,125 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseSnapshotIO.
+ * @author Srikar Donepudi
+ */
+public class CourseSnapshotIOTest {
+
+	/** Course records the snapshot is built from */
+	private final String recordsFile = "test-files/actual_snapshot_records.txt";
+	/** Snapshot of the course records */
+	private final String snapshotFile = "test-files/actual_snapshot.snap";
+
+	/**
+	 * Copies the starter course records so the tests can change them.
+	 * @throws IOException if the file cannot be copied
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		Files.copy(Path.of("test-files", "starter_course_records.txt"), Path.of(recordsFile), StandardCopyOption.REPLACE_EXISTING);
+		Files.deleteIfExists(Path.of(snapshotFile));
+	}
+
+	/**
+	 * Removes the files the tests created.
+	 * @throws IOException if the files cannot be removed
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(Path.of(recordsFile));
+		Files.deleteIfExists(Path.of(snapshotFile));
+	}
+
+	/**
+	 * Tests that a snapshot reads back the same Courses it was written from.
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testWriteAndReadSnapshot() throws IOException {
+		ArrayList<Course> courses = CourseRecordIO.readCourseRecords(recordsFile);
+		assertNull(CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+
+		CourseSnapshotIO.writeSnapshot(snapshotFile, recordsFile, courses);
+		ArrayList<Course> snapshot = CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile);
+		assertEquals(courses, snapshot);
+		assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", snapshot.get(5).toString());
+	}
+
+	/**
+	 * Tests that a snapshot of an older version of the course records is not used, and that
+	 * readCourseRecords() falls back to the course records and rewrites the snapshot.
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testStaleSnapshot() throws IOException {
+		ArrayList<Course> courses = CourseSnapshotIO.readCourseRecords(recordsFile, snapshotFile, new CourseRecordReport());
+		assertEquals(13, courses.size());
+		assertNotNull(CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+
+		Files.writeString(Path.of(recordsFile), "CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245\n");
+		assertTrue(new File(recordsFile).setLastModified(new File(recordsFile).lastModified() - 60000));
+		assertNull(CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+
+		courses = CourseSnapshotIO.readCourseRecords(recordsFile, snapshotFile, new CourseRecordReport());
+		assertEquals(1, courses.size());
+		assertEquals(courses, CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+	}
+
+	/**
+	 * Tests that an edit that keeps the size and modified time of the course records is not
+	 * looked for by default, and makes the snapshot stale in strict mode.
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testSameSizeEdit() throws IOException {
+		File records = new File(recordsFile);
+		long modified = records.lastModified();
+		long length = records.length();
+		ArrayList<Course> original = CourseSnapshotIO.readCourseRecords(recordsFile, snapshotFile, new CourseRecordReport());
+
+		String text = Files.readString(records.toPath());
+		Files.writeString(records.toPath(), text.replaceFirst("sesmith5", "sesmith6"));
+		assertTrue(records.setLastModified(modified));
+		assertEquals(length, records.length());
+		assertEquals(original, CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+		assertEquals(original, CourseSnapshotIO.readCourseRecords(recordsFile, snapshotFile, new CourseRecordReport()));
+		assertNull(CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile, true));
+
+		ArrayList<Course> courses = CourseSnapshotIO.readCourseRecords(recordsFile, snapshotFile, new CourseRecordReport(), true);
+		assertEquals(CourseRecordIO.readCourseRecords(recordsFile), courses);
+		assertEquals(courses, CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile, true));
+		assertEquals(courses, CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+	}
+
+	/**
+	 * Tests that a damaged snapshot is not used.
+	 * @throws IOException if a file cannot be read or written
+	 */
+	@Test
+	public void testDamagedSnapshot() throws IOException {
+		CourseSnapshotIO.writeSnapshot(snapshotFile, recordsFile, CourseRecordIO.readCourseRecords(recordsFile));
+		byte[] bytes = Files.readAllBytes(Path.of(snapshotFile));
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(Path.of(snapshotFile), bytes);
+		assertNull(CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+
+		Files.write(Path.of(snapshotFile), new byte[] {1, 2, 3});
+		assertNull(CourseSnapshotIO.readSnapshot(snapshotFile, recordsFile));
+	}
+}
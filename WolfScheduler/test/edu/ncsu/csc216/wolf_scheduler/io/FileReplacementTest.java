@@ -0,0 +1,108 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests FileReplacement.
+ * @author Srikar Donepudi
+ */
+public class FileReplacementTest {
+
+	/**
+	 * Tests that writing through a symbolic link replaces the file it points to and keeps the link.
+	 * @throws IOException if a test file cannot be written
+	 */
+	@Test
+	public void testSymbolicLink() throws IOException {
+		Path real = Paths.get("test-files", "actual_linked_records.txt");
+		Path link = Paths.get("test-files", "actual_link.txt");
+		try {
+			try {
+				Files.createSymbolicLink(link, real.getFileName());
+			} catch (UnsupportedOperationException | IOException e) {
+				assumeTrue(false, "Symbolic links are not supported");
+			}
+			//A link to a file that does not exist yet creates that file
+			assertEquals(real.toAbsolutePath().normalize().toFile(), FileReplacement.resolve(link.toString()));
+			ActivityRecordIO.writeActivityRecords(link.toString(), activities());
+			assertTrue(Files.isSymbolicLink(link));
+			assertEquals(1, Files.readAllLines(real).size());
+
+			ActivityRecordIO.writeActivityRecords(link.toString(), new ArrayList<Activity>());
+			assertTrue(Files.isSymbolicLink(link));
+			assertEquals(0, Files.size(real));
+			assertEquals(real.toRealPath().toFile(), FileReplacement.resolve(link.toString()));
+		} finally {
+			Files.deleteIfExists(link);
+			Files.deleteIfExists(real);
+		}
+	}
+
+	/**
+	 * Tests that replacing a file keeps its permissions.
+	 * @throws IOException if a test file cannot be written
+	 */
+	@Test
+	public void testPermissions() throws IOException {
+		assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+		Path target = Paths.get("test-files", "actual_private_records.txt");
+		try {
+			Files.createFile(target);
+			Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-------");
+			Files.setPosixFilePermissions(target, permissions);
+			ActivityRecordIO.writeActivityRecords(target.toString(), activities());
+			assertEquals(permissions, Files.getPosixFilePermissions(target));
+			assertEquals(1, Files.readAllLines(target).size());
+		} finally {
+			Files.deleteIfExists(target);
+		}
+	}
+
+	/**
+	 * Tests replace() with a target that does not exist yet.
+	 * @throws IOException if a test file cannot be written
+	 */
+	@Test
+	public void testReplaceNewFile() throws IOException {
+		File target = FileReplacement.resolve("test-files/actual_new_records.txt");
+		File temp = FileReplacement.createTempFile(target);
+		try {
+			assertEquals(target.getParentFile(), temp.getParentFile());
+			Files.write(temp.toPath(), List.of("line"));
+			FileReplacement.replace(temp, target);
+			assertFalse(temp.exists());
+			assertEquals(List.of("line"), Files.readAllLines(target.toPath()));
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+			Files.deleteIfExists(target.toPath());
+		}
+	}
+
+	/**
+	 * Returns a schedule with one Course.
+	 * @return the schedule
+	 */
+	private static List<Activity> activities() {
+		List<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		return activities;
+	}
+}
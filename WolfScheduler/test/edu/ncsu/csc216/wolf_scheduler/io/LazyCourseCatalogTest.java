@@ -0,0 +1,202 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests LazyCourseCatalog.
+ * @author Srikar Donepudi
+ */
+public class LazyCourseCatalogTest {
+
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+	/** Invalid course records */
+	private final String invalidTestFile = "test-files/invalid_course_records.txt";
+	/** Copy of the records that a test may change */
+	private final Path actualFile = Path.of("test-files/actual_lazy_records.txt");
+
+	/**
+	 * Deletes the copy of the records.
+	 * @throws IOException if the copy cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(actualFile);
+	}
+
+	/**
+	 * Tests that a lazy catalog holds the same Courses and reports the same records as an eager
+	 * load, whatever the cache size.
+	 * @throws IOException if the records cannot be read
+	 */
+	@Test
+	public void testReadLazyCourseRecords() throws IOException {
+		for (String file : new String[] {validTestFile, invalidTestFile}) {
+			CourseRecordReport expectedReport = new CourseRecordReport();
+			ArrayList<Course> expected = CourseRecordIO.readCourseRecords(file, expectedReport);
+			for (int cacheSize : new int[] {1, 4, 100}) {
+				CourseRecordReport report = new CourseRecordReport();
+				try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(file, report, cacheSize)) {
+					assertEquals(expected, catalog, file + " " + cacheSize);
+					assertEquals(expected, new ArrayList<Course>(catalog));
+					assertEquals(expectedReport.getRejectedRecords().toString(), report.getRejectedRecords().toString());
+					assertEquals(expectedReport.getDuplicateCount(), report.getDuplicateCount());
+				}
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> CourseRecordIO.readLazyCourseRecords(validTestFile, new CourseRecordReport(), 0));
+	}
+
+	/**
+	 * Tests looking Courses up by name and section.
+	 * @throws IOException if the records cannot be read
+	 */
+	@Test
+	public void testGetCourse() throws IOException {
+		try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(validTestFile, new CourseRecordReport(), 1)) {
+			Course c = catalog.getCourse("CSC 216", "601");
+			assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", c.toString());
+			assertSame(c, catalog.getCourse("CSC 216", "601"));
+			//The first of the two CSC 116 002 records is kept
+			assertEquals("spbalik", catalog.getCourse("CSC 116", "002").getInstructorId());
+			assertNull(catalog.getCourse("CSC 216", "999"));
+			assertNull(catalog.getCourse("CSC 999", "001"));
+			assertNull(catalog.getCourse(null, "001"));
+
+			assertEquals(5, catalog.indexOf(c));
+			assertTrue(catalog.contains(catalog.get(12)));
+			assertFalse(catalog.contains(new Course("CSC 216", "Other Title", "601", 3, "jctetter", "A")));
+			assertFalse(catalog.contains("CSC 216"));
+			assertThrows(IndexOutOfBoundsException.class, () -> catalog.get(13));
+
+			List<Course> sections = catalog.getSections("CSC 217");
+			assertEquals(4, sections.size());
+			assertEquals(catalog.subList(6, 10), sections);
+			assertEquals(1, catalog.getSections("CSC 316").size());
+			assertTrue(catalog.getSections("CSC 492").isEmpty());
+			assertTrue(catalog.getSections(null).isEmpty());
+		}
+	}
+
+	/**
+	 * Tests that a Course read again after it was evicted from the cache is equal to the one
+	 * read before, but a new object.
+	 * @throws IOException if the records cannot be read
+	 */
+	@Test
+	public void testEviction() throws IOException {
+		try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(validTestFile, new CourseRecordReport(), 1)) {
+			Course c = catalog.getCourse("CSC 216", "601");
+			assertSame(c, catalog.getCourse("CSC 216", "601"));
+			catalog.get(0);
+			Course again = catalog.getCourse("CSC 216", "601");
+			assertEquals(c, again);
+			assertNotSame(c, again);
+		}
+	}
+
+	/**
+	 * Tests that a pinned Course is not evicted, including one from another catalog of the
+	 * same file, and is evicted again once it is unpinned.
+	 * @throws IOException if the records cannot be read
+	 */
+	@Test
+	public void testPin() throws IOException {
+		try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(validTestFile, new CourseRecordReport(), 1)) {
+			Course c = catalog.getCourse("CSC 216", "601");
+			assertTrue(catalog.pin(c));
+			catalog.get(0);
+			catalog.get(1);
+			assertSame(c, catalog.getCourse("CSC 216", "601"));
+			assertFalse(catalog.pin(new Course("CSC 216", "Software Development Fundamentals", "601", 4, "jctetter", "A")));
+			assertFalse(catalog.pin(new Course("CSC 492", "Senior Design", "001", 3, "dbsturgi", "A")));
+
+			try (LazyCourseCatalog reloaded = CourseRecordIO.readLazyCourseRecords(validTestFile, new CourseRecordReport(), 1)) {
+				assertTrue(reloaded.pin(c));
+				reloaded.get(0);
+				assertSame(c, reloaded.getCourse("CSC 216", "601"));
+			}
+
+			catalog.unpin(c);
+			catalog.get(0);
+			assertEquals(c, catalog.getCourse("CSC 216", "601"));
+			assertNotSame(c, catalog.getCourse("CSC 216", "601"));
+		}
+	}
+
+	/**
+	 * Tests that records that are not ASCII and records of a compressed file are built at load.
+	 * @throws IOException if the records cannot be written or read
+	 */
+	@Test
+	public void testPinnedCourses() throws IOException {
+		List<String> lines = Files.readAllLines(Path.of(validTestFile));
+		try (OutputStream out = Files.newOutputStream(actualFile)) {
+			for (int i = 0; i < lines.size(); i++) {
+				if (i == 2) {
+					//A byte that is not ASCII in the title
+					out.write("CSC 116,Intro to Programming ".getBytes());
+					out.write(0xe9);
+					out.write(",003,3,tbdimitr,TH,1120,1310".getBytes());
+				} else {
+					out.write(lines.get(i).getBytes());
+				}
+				out.write('\n');
+			}
+		}
+		ArrayList<Course> expected = CourseRecordIO.readCourseRecords(actualFile.toString());
+		try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(actualFile.toString(), new CourseRecordReport(), 2)) {
+			assertEquals(expected, catalog);
+			assertSame(catalog.get(2), catalog.getCourse("CSC 116", "003"));
+		}
+
+		Path gzip = Path.of("test-files/actual_lazy_records.txt.gz");
+		try {
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+				Files.copy(Path.of(validTestFile), out);
+			}
+			CourseRecordReport report = new CourseRecordReport();
+			try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(gzip.toString(), report, 1)) {
+				assertEquals(CourseRecordIO.readCourseRecords(validTestFile), catalog);
+				assertSame(catalog.get(0), catalog.get(0));
+				assertEquals(1, report.getDuplicateCount());
+			}
+		} finally {
+			Files.deleteIfExists(gzip);
+		}
+	}
+
+	/**
+	 * Tests that a record changed in place after the load is not returned.
+	 * @throws IOException if the records cannot be written or read
+	 */
+	@Test
+	public void testChangedFile() throws IOException {
+		Files.copy(Path.of(validTestFile), actualFile, StandardCopyOption.REPLACE_EXISTING);
+		try (LazyCourseCatalog catalog = CourseRecordIO.readLazyCourseRecords(actualFile.toString(), new CourseRecordReport(), 1)) {
+			Course first = catalog.get(0);
+			List<String> lines = Files.readAllLines(actualFile);
+			lines.set(0, lines.get(0).replace("jdyoung2", "jdyoung3"));
+			lines.set(1, lines.get(1).replace("spbalik", "spbalic"));
+			Files.write(actualFile, lines);
+
+			assertSame(first, catalog.get(0));
+			Exception e = assertThrows(IllegalStateException.class, () -> catalog.get(1));
+			assertEquals("The catalog file has changed.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleShardIO.
+ * @author Srikar Donepudi
+ */
+public class ScheduleShardIOTest {
+
+	/** Directory the shards are written to */
+	private final Path shardDirectory = Path.of("test-files/actual_shards");
+
+	/**
+	 * Creates an empty directory for the shards.
+	 * @throws IOException if the directory cannot be created
+	 */
+	@BeforeEach
+	public void setUp() throws IOException {
+		tearDown();
+		Files.createDirectory(shardDirectory);
+	}
+
+	/**
+	 * Deletes the shards and their directory.
+	 * @throws IOException if the shards cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		File[] files = shardDirectory.toFile().listFiles();
+		if (files != null) {
+			for (File f : files) {
+				Files.delete(f.toPath());
+			}
+		}
+		Files.deleteIfExists(shardDirectory);
+	}
+
+	/**
+	 * Tests that each student's schedule is read back from its shard, including an empty one.
+	 */
+	@Test
+	public void testWriteAndReadSchedules() throws IOException {
+		Course csc116 = new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440);
+		Course csc216 = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		Event exercise = new Event("Exercise", "UMTHFS", 800, 900, "Cardio with rest day on Wednesday.");
+		Map<String, List<Activity>> schedules = new LinkedHashMap<String, List<Activity>>();
+		for (int i = 0; i < 50; i++) {
+			schedules.put("student" + i, i % 2 == 0 ? Arrays.asList(csc116, exercise) : Arrays.asList(csc216));
+		}
+		schedules.put("nothing", new ArrayList<Activity>());
+		ScheduleShardIO.writeSchedules(shardDirectory.toString(), schedules, 4, ForkJoinPool.commonPool());
+
+		assertEquals(8, shardDirectory.toFile().list().length);
+		for (Map.Entry<String, List<Activity>> student : schedules.entrySet()) {
+			List<String> expected = new ArrayList<String>();
+			for (Activity a : student.getValue()) {
+				expected.add(a.toString());
+			}
+			assertEquals(expected, ScheduleShardIO.readSchedule(shardDirectory.toString(), student.getKey(), 4));
+		}
+		assertNull(ScheduleShardIO.readSchedule(shardDirectory.toString(), "student", 4));
+
+		//Writing again replaces the shards
+		ScheduleShardIO.writeSchedules(shardDirectory.toString(), Collections.singletonMap("student0", Arrays.asList(csc216)), 4, ForkJoinPool.commonPool());
+		assertEquals(Arrays.asList(csc216.toString()), ScheduleShardIO.readSchedule(shardDirectory.toString(), "student0", 4));
+		assertNull(ScheduleShardIO.readSchedule(shardDirectory.toString(), "student2", 4));
+	}
+
+	/**
+	 * Tests that a data file and an index from different writes are not read as a pair, as
+	 * happens between the two moves of a write or after a writer stops between them.
+	 * @throws IOException if the shards cannot be written
+	 */
+	@Test
+	public void testMismatchedShard() throws IOException {
+		Course csc116 = new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440);
+		Course csc216 = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		Map<String, List<Activity>> first = new LinkedHashMap<String, List<Activity>>();
+		first.put("student0", Arrays.asList(csc116));
+		first.put("student1", Arrays.asList(csc216));
+		Map<String, List<Activity>> second = new LinkedHashMap<String, List<Activity>>();
+		second.put("student0", Arrays.asList(csc216));
+		second.put("student1", Arrays.asList(csc116));
+		String directory = shardDirectory.toString();
+		Path data = shardDirectory.resolve("shard-0.txt");
+		Path index = shardDirectory.resolve("shard-0.idx");
+
+		ScheduleShardIO.writeSchedules(directory, first, 1, ForkJoinPool.commonPool());
+		byte[] firstData = Files.readAllBytes(data);
+		byte[] firstIndex = Files.readAllBytes(index);
+		ScheduleShardIO.writeSchedules(directory, second, 1, ForkJoinPool.commonPool());
+		assertEquals(Arrays.asList(csc216.toString()), ScheduleShardIO.readSchedule(directory, "student0", 1));
+
+		//The data files are the same size, so only the checksums tell them apart
+		assertEquals(firstData.length, Files.size(data));
+		Files.write(index, firstIndex);
+		assertThrows(IOException.class, () -> ScheduleShardIO.readSchedule(directory, "student0", 1));
+		assertThrows(IOException.class, () -> ScheduleShardIO.readSchedule(directory, "student1", 1));
+
+		ScheduleShardIO.writeSchedules(directory, second, 1, ForkJoinPool.commonPool());
+		Files.write(data, firstData);
+		assertThrows(IOException.class, () -> ScheduleShardIO.readSchedule(directory, "student0", 1));
+
+		//A data file of another size fails even for a student the index does not have
+		ScheduleShardIO.writeSchedules(directory, Collections.singletonMap("student0", Arrays.asList(csc116)), 1, ForkJoinPool.commonPool());
+		Files.write(index, firstIndex);
+		assertThrows(IOException.class, () -> ScheduleShardIO.readSchedule(directory, "student2", 1));
+	}
+
+	/**
+	 * Tests that invalid shard counts and student ids are rejected.
+	 */
+	@Test
+	public void testInvalid() {
+		Map<String, List<Activity>> schedules = Collections.singletonMap("a,b", new ArrayList<Activity>());
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ScheduleShardIO.writeSchedules(shardDirectory.toString(), schedules, 2, ForkJoinPool.commonPool()));
+		assertEquals("Invalid student id.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class,
+				() -> ScheduleShardIO.writeSchedules(shardDirectory.toString(), new LinkedHashMap<String, List<Activity>>(), 0, ForkJoinPool.commonPool()));
+		assertEquals("Invalid shard count.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> ScheduleShardIO.readSchedule(shardDirectory.toString(), "", 2));
+	}
+
+	/**
+	 * Tests that a student always maps to the same shard in range.
+	 */
+	@Test
+	public void testShardOf() {
+		for (int i = 0; i < 100; i++) {
+			int shard = ScheduleShardIO.shardOf("student" + i, 7);
+			assertTrue(shard >= 0 && shard < 7);
+			assertEquals(shard, ScheduleShardIO.shardOf("student" + i, 7));
+		}
+		assertEquals(0, ScheduleShardIO.shardOf("student", 1));
+	}
+}
@@ -0,0 +1,54 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests StringPool.
+ * @author Srikar Donepudi
+ */
+public class StringPoolTest {
+
+	/**
+	 * Tests that equal values are shared and different values are not, across a rehash.
+	 */
+	@Test
+	public void testGet() {
+		StringPool pool = new StringPool();
+		char[] buf = "jdyoung2,MW,jdyoung2,,MW".toCharArray();
+		String id = pool.get(buf, 0, 8);
+		assertEquals("jdyoung2", id);
+		assertSame(id, pool.get(buf, 12, 20));
+		String days = pool.get(buf, 9, 11);
+		assertSame(days, pool.get(buf, 22, 24));
+		assertEquals("", pool.get(buf, 21, 21));
+		assertEquals(3, pool.size());
+
+		for (int i = 0; i < 1000; i++) {
+			char[] value = ("inst" + i).toCharArray();
+			pool.get(value, 0, value.length);
+		}
+		assertEquals(1003, pool.size());
+		assertSame(id, pool.get(buf, 0, 8));
+		char[] value = "inst999".toCharArray();
+		assertSame(pool.get(value, 0, value.length), pool.get(value, 0, value.length));
+	}
+
+	/**
+	 * Tests that a full pool still returns values without holding them.
+	 */
+	@Test
+	public void testFull() {
+		StringPool pool = new StringPool();
+		for (int i = 0; i < StringPool.MAX_SIZE + 10; i++) {
+			char[] value = Integer.toString(i).toCharArray();
+			assertEquals(Integer.toString(i), pool.get(value, 0, value.length));
+		}
+		assertEquals(StringPool.MAX_SIZE, pool.size());
+		char[] value = Integer.toString(StringPool.MAX_SIZE + 5).toCharArray();
+		assertNotSame(pool.get(value, 0, value.length), pool.get(value, 0, value.length));
+		value = "0".toCharArray();
+		assertSame(pool.get(value, 0, value.length), pool.get(value, 0, value.length));
+	}
+}
@@ -0,0 +1,60 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests CatalogAttributeIndex.
+ * @author Srikar Donepudi
+ */
+public class CatalogAttributeIndexTest {
+
+	/** Course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests each attribute alone and together against a scan of the catalog.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testFind() throws FileNotFoundException {
+		ArrayList<Course> catalog = CourseRecordIO.readCourseRecords(validTestFile);
+		CatalogAttributeIndex index = new CatalogAttributeIndex(catalog);
+		String[] instructors = {null, "sesmith5", "jtking", "nobody"};
+		String[] days = {null, "", "M", "MW", "WM", "TH", "A", "F", "MA", "X"};
+		int[] credits = {0, 1, 3, 4};
+		for (String instructorId : instructors) {
+			for (String meetingDays : days) {
+				for (int creditCount : credits) {
+					ArrayList<Integer> expected = new ArrayList<Integer>();
+					for (int i = 0; i < catalog.size(); i++) {
+						Course c = catalog.get(i);
+						boolean matches = (instructorId == null || instructorId.equals(c.getInstructorId()))
+								&& (creditCount == 0 || creditCount == c.getCredits());
+						for (int j = 0; meetingDays != null && j < meetingDays.length(); j++) {
+							matches &= c.getMeetingDays().indexOf(meetingDays.charAt(j)) >= 0;
+						}
+						if (matches) {
+							expected.add(i);
+						}
+					}
+					ArrayList<Integer> actual = new ArrayList<Integer>();
+					for (int position : index.find(instructorId, meetingDays, creditCount)) {
+						actual.add(position);
+					}
+					assertEquals(expected, actual, instructorId + " " + meetingDays + " " + creditCount);
+				}
+			}
+		}
+		assertArrayEquals(new int[] {6, 7, 8, 9}, index.find("sesmith5", null, 1));
+		assertArrayEquals(new int[] {5, 9}, index.find(null, "A", 0));
+		assertArrayEquals(new int[] {12}, index.find("jtking", "MW", 3));
+	}
+}
@@ -0,0 +1,183 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests CatalogSearchIndex.
+ * @author Srikar Donepudi
+ */
+public class CatalogSearchIndexTest {
+
+	/** Course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Returns the name and section of each Course.
+	 * @param courses the Courses
+	 * @return "name section" of each Course, in order
+	 */
+	private static List<String> keys(List<Course> courses) {
+		List<String> keys = new ArrayList<String>();
+		for (Course c : courses) {
+			keys.add(c.getName() + " " + c.getSection());
+		}
+		return keys;
+	}
+
+	/**
+	 * Tests that names are matched by prefix ignoring case and spaces, exact names first.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testSearchNames() throws FileNotFoundException {
+		CatalogSearchIndex index = new CatalogSearchIndex(CourseRecordIO.readCourseRecords(validTestFile));
+		assertEquals(List.of("CSC 216 001", "CSC 216 002", "CSC 216 601"), keys(index.search("csc216", 0, 10)));
+		assertEquals(List.of("CSC 216 001", "CSC 216 002", "CSC 216 601", "CSC 217 202", "CSC 217 211", "CSC 217 223", "CSC 217 601"),
+				keys(index.search(" CSC 21 ", 0, 10)));
+		assertEquals(13, index.search("c", 0, 20).size());
+		assertTrue(index.search("csc 5", 0, 10).isEmpty());
+		assertTrue(index.search("", 0, 10).isEmpty());
+		assertTrue(index.search(null, 0, 10).isEmpty());
+	}
+
+	/**
+	 * Tests that titles are matched by trigrams, most shared first, including misspellings.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testSearchTitles() throws FileNotFoundException {
+		CatalogSearchIndex index = new CatalogSearchIndex(CourseRecordIO.readCourseRecords(validTestFile));
+		assertEquals(List.of("CSC 316 001"), keys(index.search("Data Structures", 0, 10)));
+		assertEquals(List.of("CSC 226 001"), keys(index.search("mathmatics", 0, 10)));
+		assertEquals(List.of("CSC 116 001", "CSC 116 002", "CSC 116 003"), keys(index.search("JAVA", 0, 10)));
+		//The lab sections share one trigram more than the others
+		List<String> lab = keys(index.search("software lab", 0, 10));
+		assertEquals(List.of("CSC 217 202", "CSC 217 211", "CSC 217 223", "CSC 217 601"), lab.subList(0, 4));
+		assertEquals(8, lab.size());
+		assertTrue(index.search("xyz", 0, 10).isEmpty());
+	}
+
+	/**
+	 * Tests paging through the results.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testSearchPages() throws FileNotFoundException {
+		CatalogSearchIndex index = new CatalogSearchIndex(CourseRecordIO.readCourseRecords(validTestFile));
+		List<String> all = keys(index.search("software", 0, 100));
+		assertEquals(8, all.size());
+		assertEquals(all.subList(0, 3), keys(index.search("software", 0, 3)));
+		assertEquals(all.subList(3, 6), keys(index.search("software", 1, 3)));
+		assertEquals(all.subList(6, 8), keys(index.search("software", 2, 3)));
+		assertTrue(index.search("software", 3, 3).isEmpty());
+		assertTrue(index.search("software", Integer.MAX_VALUE, Integer.MAX_VALUE).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> index.search("software", -1, 3));
+		assertThrows(IllegalArgumentException.class, () -> index.search("software", 0, 0));
+		assertThrows(UnsupportedOperationException.class, () -> index.search("software", 0, 3).clear());
+	}
+
+	/**
+	 * Tests adding and removing sections.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testAddRemove() throws FileNotFoundException {
+		ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+		CatalogSearchIndex index = new CatalogSearchIndex(courses);
+		List<Course> before = new ArrayList<Course>(courses);
+		CatalogChange change = new CatalogChange();
+		Course csc116 = courses.remove(0);
+		change.addRemoved(csc116);
+		apply(index, change, before, courses);
+		assertEquals(List.of("CSC 116 002", "CSC 116 003"), keys(index.search("csc 116", 0, 10)));
+		assertEquals(2, index.search("java", 0, 10).size());
+
+		//The ids freed by the removal are handed out again
+		Course design = new Course("CSC 492", "Senior Design Project", "001", 3, "dbsturgi", "TH", 1130, 1245);
+		before = new ArrayList<Course>(courses);
+		change = new CatalogChange();
+		courses.add(design);
+		courses.add(csc116);
+		change.addAdded(design);
+		change.addAdded(csc116);
+		apply(index, change, before, courses);
+		assertEquals(List.of(design), index.search("csc 4", 0, 10));
+		assertEquals(List.of(design), index.search("senior desing", 0, 10));
+		assertEquals(List.of("CSC 116 002", "CSC 116 003", "CSC 116 001"), keys(index.search("csc 116", 0, 10)));
+
+		before = new ArrayList<Course>(courses);
+		change = new CatalogChange();
+		courses.remove(design);
+		change.addRemoved(design);
+		apply(index, change, before, courses);
+		assertTrue(index.search("senior design", 0, 10).isEmpty());
+		assertEquals(List.of("CSC 116 002", "CSC 116 003", "CSC 116 001"), keys(index.search("csc 116", 0, 10)));
+	}
+
+	/**
+	 * Tests that applying catalog changes keeps sections of equal rank in catalog order, and
+	 * that repeated changes find the same sections as a new index.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testApply() throws FileNotFoundException {
+		ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile);
+		CatalogSearchIndex index = new CatalogSearchIndex(courses);
+		for (int round = 0; round < 50; round++) {
+			List<Course> before = new ArrayList<Course>(courses);
+			CatalogChange change = new CatalogChange();
+			Course removed = courses.remove(0);
+			change.addRemoved(removed);
+			//Back in at the front, with a title every other section shares
+			Course java = new Course("CSC 115", "Intro to Programming - Java", "00" + round % 10, 3, "id", "MW", 800, 850);
+			if (courses.stream().noneMatch(c -> c.getName().equals(java.getName()) && c.getSection().equals(java.getSection()))) {
+				courses.add(0, java);
+				change.addAdded(java);
+			}
+			Course old = courses.get(courses.size() - 1);
+			Course changed = new Course(old.getName(), "Java Round " + round, old.getSection(), 3, "id", "A");
+			courses.set(courses.size() - 1, changed);
+			change.addChanged(old, changed);
+			apply(index, change, before, courses);
+			CatalogSearchIndex fresh = new CatalogSearchIndex(courses);
+			for (String query : new String[] {"java", "csc 1", "c", "software development", "round " + round}) {
+				assertEquals(fresh.search(query, 0, 100), index.search(query, 0, 100));
+			}
+		}
+		List<Course> java = index.search("java", 0, 100);
+		assertEquals(courses.get(0), java.get(0));
+		for (int i = 1; i < java.size(); i++) {
+			assertTrue(courses.indexOf(java.get(i - 1)) < courses.indexOf(java.get(i)));
+		}
+	}
+
+	/**
+	 * Applies a catalog change to an index, finding where the kept sections moved to.
+	 * @param index the index
+	 * @param change the sections that were added, removed and changed
+	 * @param before the catalog before the change
+	 * @param after the catalog after the change
+	 */
+	private static void apply(CatalogSearchIndex index, CatalogChange change, List<Course> before, List<Course> after) {
+		int[] moved = new int[before.size()];
+		for (int i = 0; i < moved.length; i++) {
+			moved[i] = -1;
+			for (int j = 0; j < after.size(); j++) {
+				if (after.get(j) == before.get(i)) {
+					moved[i] = j;
+				}
+			}
+		}
+		change.setMoved(moved);
+		index.apply(change, after);
+	}
+}
@@ -0,0 +1,91 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests CatalogTimeIndex.
+ * @author Srikar Donepudi
+ */
+public class CatalogTimeIndexTest {
+
+	/** Course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+
+	/**
+	 * Tests points and ranges on the starter catalog, including both ends of a section.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testFind() throws FileNotFoundException {
+		CatalogTimeIndex index = new CatalogTimeIndex(CourseRecordIO.readCourseRecords(validTestFile));
+		//CSC 316 MW 830-945 and CSC 116 001 MW 910-1100
+		List<Course> sections = index.find('M', 930, 930);
+		assertEquals(2, sections.size());
+		assertEquals("CSC 316", sections.get(0).getName());
+		assertEquals("001", sections.get(1).getSection());
+		assertEquals(1, index.find('W', 830, 830).size());
+		assertEquals(3, index.find('W', 945, 945).size());
+		assertEquals("CSC 226", index.find('F', 900, 1000).get(0).getName());
+		assertTrue(index.find('F', 1026, 2359).isEmpty());
+		assertTrue(index.find('U', 0, 2359).isEmpty());
+		assertEquals(5, index.find('T', 0, 2359).size() + index.find('H', 0, 2359).size());
+		assertThrows(IllegalArgumentException.class, () -> index.find('A', 0, 2359));
+	}
+
+	/**
+	 * Tests random queries against a scan while sections are added and removed.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(216);
+		String[] days = {"M", "MW", "TH", "MWF", "F", "MTWHF", "A"};
+		List<Course> courses = new ArrayList<Course>();
+		for (int i = 0; i < 400; i++) {
+			String meetingDays = days[random.nextInt(days.length)];
+			int start = random.nextInt(1300);
+			int end = Math.min(1439, start + random.nextInt(180));
+			courses.add("A".equals(meetingDays)
+					? new Course("CSC " + (100 + i), "Title", "001", 3, "id", "A")
+					: new Course("CSC " + (100 + i), "Title", "001", 3, "id", meetingDays,
+							start / 60 * 100 + start % 60, end / 60 * 100 + end % 60));
+		}
+		CatalogTimeIndex index = new CatalogTimeIndex(courses.subList(0, 300));
+		HashSet<Course> indexed = new HashSet<Course>(courses.subList(0, 300));
+		for (int round = 0; round < 200; round++) {
+			Course c = courses.get(random.nextInt(courses.size()));
+			if (indexed.remove(c)) {
+				index.remove(c);
+			} else {
+				indexed.add(c);
+				index.add(c);
+			}
+			char day = "UMTWHFS".charAt(random.nextInt(7));
+			int from = random.nextInt(2400);
+			int to = Math.min(2399, from + random.nextInt(300));
+			HashSet<Course> expected = new HashSet<Course>();
+			for (Course s : indexed) {
+				if (s.getMeetingDays().indexOf(day) >= 0 && !"A".equals(s.getMeetingDays())
+						&& s.getStartTime() <= to && s.getEndTime() >= from) {
+					expected.add(s);
+				}
+			}
+			List<Course> actual = index.find(day, from, to);
+			assertEquals(expected, new HashSet<Course>(actual));
+			assertEquals(expected.size(), actual.size());
+			for (int i = 1; i < actual.size(); i++) {
+				assertTrue(actual.get(i - 1).getStartTime() <= actual.get(i).getStartTime());
+			}
+		}
+	}
+}
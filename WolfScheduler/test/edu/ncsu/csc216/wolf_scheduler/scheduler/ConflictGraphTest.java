@@ -0,0 +1,132 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Tests ConflictGraph.
+ * @author Srikar Donepudi
+ */
+public class ConflictGraphTest {
+
+	/** Course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+	/** File a test writes a graph to */
+	private final Path graphFile = Path.of("test-files/actual_conflict_graph.bin");
+
+	/**
+	 * Deletes the graph file.
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(graphFile);
+	}
+
+	/**
+	 * Tests the graph of the starter catalog.
+	 * @throws FileNotFoundException if the records cannot be read
+	 */
+	@Test
+	public void testStarterCatalog() throws FileNotFoundException {
+		List<Course> catalog = CourseRecordIO.readCourseRecords(validTestFile);
+		ConflictGraph graph = ConflictGraph.build(catalog, ForkJoinPool.commonPool());
+		assertEquals(13, graph.size());
+		//CSC 116 001 MW 910-1100 and CSC 316 MW 830-945
+		assertTrue(graph.conflicts(0, 12));
+		assertTrue(graph.conflicts(12, 0));
+		assertFalse(graph.conflicts(0, 0));
+		//CSC 116 003 TH 1120-1310 and CSC 116 002 MW 1120-1310 share no day
+		assertFalse(graph.conflicts(1, 2));
+		//CSC 216 601 is arranged
+		assertArrayEquals(new int[0], graph.getConflicts(5));
+		assertArrayEquals(new int[] {6, 10, 12}, graph.getConflicts(0));
+		assertTrue(graph.conflictsWithAny(0, new int[] {2, 5, 12}));
+		assertFalse(graph.conflictsWithAny(0, new int[] {2, 5}));
+		assertThrows(IndexOutOfBoundsException.class, () -> graph.conflicts(0, 13));
+	}
+
+	/**
+	 * Tests random catalogs against checkConflict() on every pair.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(22);
+		String[] days = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "MTWHF", "A"};
+		int[] times = {800, 830, 900, 915, 945, 1000, 1030, 1100, 1115, 1200, 1330, 1445};
+		for (int round = 0; round < 5; round++) {
+			List<Course> catalog = new ArrayList<Course>();
+			for (int i = 0; i < 300; i++) {
+				String meetingDays = days[random.nextInt(days.length)];
+				int start = times[random.nextInt(times.length)];
+				int end = times[random.nextInt(times.length)];
+				catalog.add("A".equals(meetingDays)
+						? new Course("CSC " + (100 + i), "Title", "001", 3, "id", "A")
+						: new Course("CSC " + (100 + i), "Title", "001", 3, "id", meetingDays, Math.min(start, end), Math.max(start, end)));
+			}
+			ConflictGraph graph = ConflictGraph.build(catalog, new ForkJoinPool(1 + round));
+			for (int i = 0; i < catalog.size(); i++) {
+				List<Integer> expected = new ArrayList<Integer>();
+				for (int j = 0; j < catalog.size(); j++) {
+					boolean conflict = false;
+					try {
+						catalog.get(i).checkConflict(catalog.get(j));
+					} catch (ConflictException e) {
+						conflict = i != j;
+					}
+					assertEquals(conflict, graph.conflicts(i, j), catalog.get(i) + " " + catalog.get(j));
+					if (conflict) {
+						expected.add(j);
+					}
+				}
+				assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), graph.getConflicts(i));
+			}
+		}
+	}
+
+	/**
+	 * Tests writing a graph and reading it back, for the same and for a different catalog.
+	 * @throws IOException if the graph cannot be written or the records cannot be read
+	 */
+	@Test
+	public void testWriteAndRead() throws IOException {
+		List<Course> catalog = CourseRecordIO.readCourseRecords(validTestFile);
+		ConflictGraph graph = ConflictGraph.build(catalog, ForkJoinPool.commonPool());
+		graph.write(graphFile.toString());
+		ConflictGraph read = ConflictGraph.read(graphFile.toString(), catalog);
+		assertNotNull(read);
+		for (int i = 0; i < catalog.size(); i++) {
+			assertArrayEquals(graph.getConflicts(i), read.getConflicts(i));
+		}
+
+		//A renamed section keeps the graph, a moved one does not
+		List<Course> renamed = new ArrayList<Course>(catalog);
+		renamed.set(0, new Course("CSC 118", "Title", "001", 3, "id", "MW", 910, 1100));
+		assertNotNull(ConflictGraph.read(graphFile.toString(), renamed));
+		List<Course> moved = new ArrayList<Course>(catalog);
+		moved.set(0, new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1101));
+		assertNull(ConflictGraph.read(graphFile.toString(), moved));
+		assertNull(ConflictGraph.read(graphFile.toString(), catalog.subList(0, 12)));
+
+		byte[] bytes = Files.readAllBytes(graphFile);
+		bytes[20] ^= 1;
+		Files.write(graphFile, bytes);
+		assertNull(ConflictGraph.read(graphFile.toString(), catalog));
+		assertNull(ConflictGraph.read("test-files/missing_conflict_graph.bin", catalog));
+	}
+}
@@ -0,0 +1,113 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests OccupancyFilter.
+ * @author Srikar Donepudi
+ */
+public class OccupancyFilterTest {
+
+	/**
+	 * Tests meetings that start and end in the same minute.
+	 */
+	@Test
+	public void testSameMinute() {
+		List<Course> catalog = new ArrayList<Course>();
+		catalog.add(new Course("CSC 116", "Title", "001", 3, "id", "M", 900, 1100));
+		catalog.add(new Course("CSC 216", "Title", "001", 3, "id", "M", 1000, 1000));
+		catalog.add(new Course("CSC 226", "Title", "001", 3, "id", "M", 1100, 1200));
+		OccupancyFilter filter = new OccupancyFilter(catalog);
+		Event point = new Event("Call", "M", 1000, 1000, "");
+		filter.add(point);
+		//Inside CSC 116, and touching CSC 216 at both ends
+		assertEquals(List.of(catalog.get(2)), filter.getCompatibleSections());
+		filter.remove(point);
+		Event before = new Event("Call", "M", 959, 959, "");
+		filter.add(before);
+		assertEquals(catalog.subList(1, 3), filter.getCompatibleSections());
+	}
+
+	/**
+	 * Tests random catalogs and schedules against checking each section in turn.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(23);
+		String[] courseDays = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "A"};
+		String[] eventDays = {"M", "T", "W", "H", "F", "S", "U", "MW", "SU"};
+		List<Course> catalog = new ArrayList<Course>();
+		for (int i = 0; i < 400; i++) {
+			String days = courseDays[random.nextInt(courseDays.length)];
+			int[] times = randomTimes(random);
+			catalog.add("A".equals(days)
+					? new Course("CSC " + (100 + random.nextInt(200)), "Title", "" + (100 + i), 3, "id", "A")
+					: new Course("CSC " + (100 + random.nextInt(200)), "Title", "" + (100 + i), 3, "id", days, times[0], times[1]));
+		}
+		OccupancyFilter filter = new OccupancyFilter(catalog);
+		List<Activity> schedule = new ArrayList<Activity>();
+		for (int round = 0; round < 300; round++) {
+			if (!schedule.isEmpty() && random.nextInt(3) == 0) {
+				filter.remove(schedule.remove(random.nextInt(schedule.size())));
+			} else if (random.nextBoolean()) {
+				Course c = catalog.get(random.nextInt(catalog.size()));
+				schedule.add(c);
+				filter.add(c);
+			} else {
+				int[] times = randomTimes(random);
+				Event e = new Event("Event", eventDays[random.nextInt(eventDays.length)], times[0], times[1], "");
+				schedule.add(e);
+				filter.add(e);
+			}
+			List<Course> expected = new ArrayList<Course>();
+			for (Course c : catalog) {
+				if (fits(c, schedule)) {
+					expected.add(c);
+				}
+			}
+			assertEquals(expected, filter.getCompatibleSections());
+		}
+	}
+
+	/**
+	 * Returns random start and end times, sometimes in the same minute.
+	 * @param random the source of the times
+	 * @return the start and end time in HHMM form
+	 */
+	private static int[] randomTimes(Random random) {
+		int start = 420 + random.nextInt(720);
+		int end = Math.min(1439, start + random.nextInt(6) * 30);
+		return new int[] {start / 60 * 100 + start % 60, end / 60 * 100 + end % 60};
+	}
+
+	/**
+	 * Returns true if a section could be added to a schedule.
+	 * @param c the section
+	 * @param schedule the schedule
+	 * @return true if no scheduled activity is a duplicate of or conflicts with the section
+	 */
+	private static boolean fits(Course c, List<Activity> schedule) {
+		for (Activity scheduled : schedule) {
+			if (scheduled.isDuplicate(c)) {
+				return false;
+			}
+			try {
+				scheduled.checkConflict(c);
+			} catch (ConflictException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,163 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests ScheduleGenerator.
+ * @author Srikar Donepudi
+ */
+public class ScheduleGeneratorTest {
+
+	/**
+	 * Tests random groups against trying every combination.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(24);
+		String[] days = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "A"};
+		int[] times = {800, 830, 900, 945, 1000, 1030, 1100, 1145, 1200, 1330, 1445};
+		for (int round = 0; round < 20; round++) {
+			List<List<Course>> groups = new ArrayList<List<Course>>();
+			int size = 1 + random.nextInt(5);
+			for (int g = 0; g < size; g++) {
+				List<Course> group = new ArrayList<Course>();
+				int sections = random.nextInt(7);
+				for (int s = 0; s < sections; s++) {
+					String meetingDays = days[random.nextInt(days.length)];
+					int start = times[random.nextInt(times.length)];
+					int end = times[random.nextInt(times.length)];
+					group.add("A".equals(meetingDays)
+							? new Course("CSC " + (100 + g), "Title", "60" + s, 3, "id", "A")
+							: new Course("CSC " + (100 + g), "Title", "00" + s, 3, "id", meetingDays, Math.min(start, end), Math.max(start, end)));
+				}
+				groups.add(group);
+			}
+			Set<List<Course>> expected = new HashSet<List<Course>>();
+			combine(groups, new ArrayList<Course>(), expected);
+			try (Stream<List<Course>> schedules = ScheduleGenerator.generate(groups, Integer.MAX_VALUE, 60000, new ForkJoinPool(1 + round % 4))) {
+				List<List<Course>> actual = schedules.collect(Collectors.toList());
+				assertEquals(expected.size(), actual.size());
+				assertEquals(expected, new HashSet<List<Course>>(actual));
+			}
+		}
+	}
+
+	/**
+	 * Tests that the stream ends at the limit and at the timeout.
+	 */
+	@Test
+	public void testLimitAndTimeout() {
+		//12 arranged sections in each of 8 groups have 12^8 schedules
+		List<List<Course>> groups = new ArrayList<List<Course>>();
+		for (int g = 0; g < 8; g++) {
+			List<Course> group = new ArrayList<Course>();
+			for (int s = 0; s < 12; s++) {
+				group.add(new Course("CSC " + (100 + g), "Title", "6" + (10 + s), 3, "id", "A"));
+			}
+			groups.add(group);
+		}
+		try (Stream<List<Course>> schedules = ScheduleGenerator.generate(groups, 1000, 60000, ForkJoinPool.commonPool())) {
+			assertEquals(1000, schedules.distinct().count());
+		}
+		long start = System.nanoTime();
+		try (Stream<List<Course>> schedules = ScheduleGenerator.generate(groups, Integer.MAX_VALUE, 200, ForkJoinPool.commonPool())) {
+			assertTrue(schedules.count() > 0);
+		}
+		assertTrue(System.nanoTime() - start < 5_000_000_000L);
+	}
+
+	/**
+	 * Tests that a stream that is abandoned after findFirst(), or closed part way through,
+	 * leaves no task running on the pool.
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	public void testAbandoned() throws InterruptedException {
+		//12 arranged sections in each of 8 groups have 12^8 schedules
+		List<List<Course>> groups = new ArrayList<List<Course>>();
+		for (int g = 0; g < 8; g++) {
+			List<Course> group = new ArrayList<Course>();
+			for (int s = 0; s < 12; s++) {
+				group.add(new Course("CSC " + (100 + g), "Title", "6" + (10 + s), 3, "id", "A"));
+			}
+			groups.add(group);
+		}
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			//Never closed
+			Optional<List<Course>> first = ScheduleGenerator.generate(groups, Integer.MAX_VALUE, 60000, pool).findFirst();
+			assertEquals(8, first.get().size());
+			assertTrue(quiesces(pool));
+
+			try (Stream<List<Course>> schedules = ScheduleGenerator.generate(groups, Integer.MAX_VALUE, 60000, pool)) {
+				Iterator<List<Course>> iterator = schedules.iterator();
+				for (int i = 0; i < 1000; i++) {
+					iterator.next();
+				}
+			}
+			assertTrue(quiesces(pool));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits up to five seconds for a pool to have no task running or queued.  It only watches
+	 * the pool, since awaitQuiescence() may run a task on the calling thread instead.
+	 * @param pool the pool
+	 * @return true if the pool went quiet
+	 * @throws InterruptedException if the wait is interrupted
+	 */
+	private static boolean quiesces(ForkJoinPool pool) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!pool.isQuiescent() && System.nanoTime() - deadline < 0) {
+			Thread.sleep(10);
+		}
+		return pool.isQuiescent();
+	}
+
+	/**
+	 * Adds every conflict-free combination of the groups to a set.
+	 * @param groups the groups
+	 * @param picked the sections picked so far
+	 * @param schedules the set to add to
+	 */
+	private static void combine(List<List<Course>> groups, List<Course> picked, Set<List<Course>> schedules) {
+		if (picked.size() == groups.size()) {
+			schedules.add(new ArrayList<Course>(picked));
+			return;
+		}
+		for (Course c : groups.get(picked.size())) {
+			boolean fits = true;
+			for (Course other : picked) {
+				try {
+					other.checkConflict(c);
+				} catch (ConflictException e) {
+					fits = false;
+				}
+			}
+			if (fits) {
+				picked.add(c);
+				combine(groups, picked, schedules);
+				picked.remove(picked.size() - 1);
+			}
+		}
+	}
+}
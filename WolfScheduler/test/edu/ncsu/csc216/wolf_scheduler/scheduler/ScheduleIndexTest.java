@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleIndex.
+ * @author Srikar Donepudi
+ */
+public class ScheduleIndexTest {
+
+	/**
+	 * Tests that the first clash in schedule order is found, duplicate or conflict.
+	 */
+	@Test
+	public void testFindClash() {
+		ScheduleIndex index = new ScheduleIndex();
+		Course mw = new Course("CSC 216", "Software Development Fundamentals", "002", 3, "ixdoming", "MW", 1330, 1445);
+		Event gym = new Event("Exercise", "F", 800, 900, "Cardio Time!");
+		Course arranged = new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A");
+		index.add(mw);
+		index.add(gym);
+		index.add(arranged);
+
+		assertSame(mw, index.findClash(new Event("Lunch", "W", 1400, 1500, "")));
+		assertNull(index.findClash(new Event("Lunch", "TH", 1400, 1500, "")));
+		//Touching ends conflict on any day
+		assertSame(mw, index.findClash(new Event("Lunch", "H", 1445, 1500, "")));
+		assertSame(gym, index.findClash(new Event("Run", "U", 700, 800, "")));
+		assertSame(gym, index.findClash(new Event("Exercise", "S", 1000, 1100, "")));
+		assertSame(arranged, index.findClash(new Course("CSC 217", "Software Development Fundamentals Lab", "211", 1, "sesmith5", "T", 830, 1020)));
+		assertNull(index.findClash(new Course("CSC 226", "Discrete Mathematics for Computer Scientists", "601", 3, "tmbarnes", "A")));
+		//A conflict with mw comes before the duplicate of gym
+		Event both = new Event("Exercise", "M", 1400, 1500, "");
+		assertSame(mw, index.findClash(both));
+
+		index.remove(mw);
+		assertSame(gym, index.findClash(both));
+		index.remove(mw);
+		Course th = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		index.add(th);
+		assertSame(th, index.findClash(new Event("Lunch", "M", 1445, 1500, "")));
+		Course moved = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "F", 830, 930);
+		index.replace(th, moved);
+		//The moved section keeps its place after gym
+		assertSame(gym, index.findClash(new Event("Breakfast", "F", 700, 845, "")));
+		assertNull(index.findClash(new Event("Lunch", "M", 1445, 1500, "")));
+	}
+
+	/**
+	 * Tests random schedules against checking each activity in order.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(21);
+		String[] days = {"M", "T", "W", "H", "F", "S", "U", "MW", "TH", "MWF", "SU"};
+		List<Activity> schedule = new ArrayList<Activity>();
+		ScheduleIndex index = new ScheduleIndex();
+		for (int round = 0; round < 3000; round++) {
+			Activity activity;
+			if (random.nextInt(10) == 0) {
+				activity = new Course("CSC " + (100 + random.nextInt(50)), "Title", "601", 3, "id", "A");
+			} else {
+				int start = random.nextInt(1400);
+				int end = Math.min(1439, start + random.nextInt(60));
+				activity = new Event("Event " + random.nextInt(400), days[random.nextInt(days.length)],
+						start / 60 * 100 + start % 60, end / 60 * 100 + end % 60, "");
+			}
+			Activity expected = null;
+			for (Activity scheduled : schedule) {
+				if (scheduled.isDuplicate(activity) || conflicts(scheduled, activity)) {
+					expected = scheduled;
+					break;
+				}
+			}
+			assertSame(expected, index.findClash(activity));
+			if (expected == null) {
+				schedule.add(activity);
+				index.add(activity);
+			} else if (random.nextBoolean()) {
+				Activity removed = schedule.remove(random.nextInt(schedule.size()));
+				index.remove(removed);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if two activities conflict.
+	 * @param a one activity
+	 * @param b the other activity
+	 * @return true if checkConflict() throws
+	 */
+	private static boolean conflicts(Activity a, Activity b) {
+		try {
+			a.checkConflict(b);
+			return false;
+		} catch (ConflictException e) {
+			return true;
+		}
+	}
+}
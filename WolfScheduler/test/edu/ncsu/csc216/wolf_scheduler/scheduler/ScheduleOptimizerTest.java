@@ -0,0 +1,215 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+import edu.ncsu.csc216.wolf_scheduler.course.MeetingPattern;
+
+/**
+ * Tests ScheduleOptimizer.
+ * @author Srikar Donepudi
+ */
+public class ScheduleOptimizerTest {
+
+	/**
+	 * Tests the penalties on a small schedule.
+	 */
+	@Test
+	public void testScore() {
+		List<List<Course>> groups = new ArrayList<List<Course>>();
+		//8:00 MW, or 10:00 MW right after CSC 116
+		groups.add(List.of(new Course("CSC 216", "Title", "001", 3, "id", "MW", 800, 850),
+				new Course("CSC 216", "Title", "002", 3, "id", "MW", 1000, 1050)));
+		List<Activity> base = new ArrayList<Activity>();
+		base.add(new Course("CSC 116", "Title", "001", 3, "id", "MW", 900, 950));
+		base.add(new Event("Work", "T", 1000, 1200, ""));
+		SchedulePreferences gaps = new SchedulePreferences(900, 1, 100, 1, 1000);
+		List<RankedSchedule> ranked = new ScheduleOptimizer(groups, base, gaps, 5, 10000).optimize();
+		assertEquals(2, ranked.size());
+		//2 days, and 10 minutes between classes on each
+		assertEquals(220, ranked.get(0).getScore());
+		assertEquals("002", ((Course) ranked.get(0).getActivities().get(2)).getSection());
+		//2 days, 10 minutes between classes and 60 minutes early on each
+		assertEquals(340, ranked.get(1).getScore());
+		assertEquals(3, ranked.get(1).getActivities().size());
+
+		//Only a section on Tuesday at 11:00, which conflicts with work
+		groups.add(List.of(new Course("CSC 226", "Title", "001", 3, "id", "T", 1100, 1150)));
+		ranked = new ScheduleOptimizer(groups, base, gaps, 5, 10000).optimize();
+		assertEquals(2, ranked.size());
+		assertEquals(1000 + 300 + 20, ranked.get(0).getScore());
+		assertFalse(ranked.get(0).getActivities().contains(base.get(1)));
+	}
+
+	/**
+	 * Tests random schedules against scoring every combination.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(25);
+		String[] days = {"M", "T", "W", "H", "F", "MW", "TH", "MWF", "A"};
+		int[] times = {800, 830, 900, 945, 1000, 1030, 1100, 1145, 1200, 1330, 1445, 1600};
+		for (int round = 0; round < 40; round++) {
+			List<Activity> base = new ArrayList<Activity>();
+			for (int i = 0; i < random.nextInt(5); i++) {
+				int start = times[random.nextInt(times.length)];
+				int end = times[random.nextInt(times.length)];
+				Activity activity = random.nextBoolean()
+						? new Event("Event " + i, days[random.nextInt(days.length - 1)], Math.min(start, end), Math.max(start, end), "")
+						: new Course("CSC " + (500 + i), "Title", "001", 3, "id", days[random.nextInt(days.length - 1)], Math.min(start, end), Math.max(start, end));
+				if (fits(activity, base)) {
+					base.add(activity);
+				}
+			}
+			List<Activity> fixed = new ArrayList<Activity>();
+			for (Activity activity : base) {
+				if (activity instanceof Course) {
+					fixed.add(activity);
+				}
+			}
+			List<List<Course>> groups = new ArrayList<List<Course>>();
+			int size = 1 + random.nextInt(4);
+			for (int g = 0; g < size; g++) {
+				List<Course> group = new ArrayList<Course>();
+				int sections = random.nextInt(7);
+				for (int s = 0; s < sections; s++) {
+					String meetingDays = days[random.nextInt(days.length)];
+					int start = times[random.nextInt(times.length)];
+					int end = times[random.nextInt(times.length)];
+					Course c = "A".equals(meetingDays)
+							? new Course("CSC " + (100 + g), "Title", "60" + s, 3, "id", "A")
+							: new Course("CSC " + (100 + g), "Title", "00" + s, 3, "id", meetingDays, Math.min(start, end), Math.max(start, end));
+					if (fits(c, fixed)) {
+						group.add(c);
+					}
+				}
+				groups.add(group);
+			}
+			SchedulePreferences preferences = new SchedulePreferences(900 + 100 * random.nextInt(3),
+					random.nextInt(3), random.nextInt(200), random.nextInt(3), random.nextInt(500));
+
+			List<Long> expected = new ArrayList<Long>();
+			combine(groups, base, preferences, new ArrayList<Course>(), expected);
+			Collections.sort(expected);
+			int count = 1 + random.nextInt(5);
+			List<RankedSchedule> ranked = new ScheduleOptimizer(groups, base, preferences, count, 60000).optimize();
+			assertEquals(expected.subList(0, Math.min(count, expected.size())), scores(ranked));
+			for (RankedSchedule schedule : ranked) {
+				List<Activity> added = new ArrayList<Activity>();
+				for (Activity activity : schedule.getActivities()) {
+					assertTrue(fits(activity, added));
+					added.add(activity);
+				}
+				assertEquals(schedule.getScore(), score(schedule.getActivities(), base, preferences));
+			}
+		}
+	}
+
+	/**
+	 * Scores every conflict-free combination of the groups, on top of the base.
+	 * @param groups the groups
+	 * @param base the scheduled activities
+	 * @param preferences the preferences
+	 * @param picked the sections picked so far
+	 * @param scores where to add the scores
+	 */
+	private static void combine(List<List<Course>> groups, List<Activity> base, SchedulePreferences preferences,
+			List<Course> picked, List<Long> scores) {
+		if (picked.size() == groups.size()) {
+			List<Activity> schedule = new ArrayList<Activity>();
+			for (Activity activity : base) {
+				if (activity instanceof Course || fits(activity, picked)) {
+					schedule.add(activity);
+				}
+			}
+			schedule.addAll(picked);
+			scores.add(score(schedule, base, preferences));
+			return;
+		}
+		for (Course c : groups.get(picked.size())) {
+			if (fits(c, picked)) {
+				picked.add(c);
+				combine(groups, base, preferences, picked, scores);
+				picked.remove(picked.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Scores a schedule the slow way.
+	 * @param schedule the schedule
+	 * @param base the scheduled activities it was built on
+	 * @param preferences the preferences
+	 * @return the score
+	 */
+	private static long score(List<Activity> schedule, List<Activity> base, SchedulePreferences preferences) {
+		long score = 0;
+		for (int day = 0; day < 7; day++) {
+			int first = Integer.MAX_VALUE;
+			int last = 0;
+			int busy = 0;
+			for (Activity activity : schedule) {
+				MeetingPattern pattern = activity.getMeetingPattern();
+				if (activity instanceof Course && (pattern.getDays() & 1 << day) != 0) {
+					first = Math.min(first, pattern.getStartMinute());
+					last = Math.max(last, pattern.getEndMinute());
+					busy += pattern.getEndMinute() - pattern.getStartMinute();
+				}
+			}
+			if (first != Integer.MAX_VALUE) {
+				score += preferences.getCampusDayWeight()
+						+ preferences.getEarlyStartWeight() * Math.max(0, preferences.getPreferredStartMinute() - first)
+						+ preferences.getGapWeight() * (last - first - busy);
+			}
+		}
+		for (Activity activity : base) {
+			if (activity instanceof Event && !schedule.contains(activity)) {
+				score += preferences.getDroppedEventWeight();
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Returns true if an activity could be added to a schedule.
+	 * @param activity the activity
+	 * @param schedule the schedule
+	 * @return true if no activity in the schedule is a duplicate of or conflicts with it
+	 */
+	private static boolean fits(Activity activity, List<? extends Activity> schedule) {
+		for (Activity scheduled : schedule) {
+			if (scheduled.isDuplicate(activity)) {
+				return false;
+			}
+			try {
+				scheduled.checkConflict(activity);
+			} catch (ConflictException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the scores of ranked schedules.
+	 * @param ranked the schedules
+	 * @return their scores, in order
+	 */
+	private static List<Long> scores(List<RankedSchedule> ranked) {
+		List<Long> scores = new ArrayList<Long>();
+		for (RankedSchedule schedule : ranked) {
+			scores.add(schedule.getScore());
+		}
+		return scores;
+	}
+}
@@ -10,10 +10,25 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseReadMode;
 
 /**
  * Tests the WolfScheduler class.
@@ -90,6 +105,725 @@ public class WolfSchedulerTest {
 		assertEquals(13, ws2.getCourseCatalog().length);		
 	}
 	
+	/**
+	 * Tests that the indexes kept up to date by reloadCatalog() answer as those of a catalog
+	 * loaded from scratch, over many reloads that add, remove and change sections.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testReloadIndexes() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_reload_index_records.txt");
+		List<String> records = new ArrayList<String>(Files.readAllLines(Path.of(validTestFile)));
+		Random random = new Random(11);
+		String[] names = {"CSC 116", "CSC 217", "CSC 316", "CSC 401", "CSC 402"};
+		String[] instructors = {"sesmith5", "jtking", "newprof"};
+		try {
+			Files.write(catalogFile, records);
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			ws.addCourseToSchedule("CSC 216", "001");
+			ws.addCourseToSchedule("CSC 217", "223");
+			List<Course> scheduled = new ArrayList<Course>();
+			scheduled.add(ws.getCourseFromCatalog("CSC 216", "001"));
+			scheduled.add(ws.getCourseFromCatalog("CSC 217", "223"));
+			ws.findSections(null, null, 0);
+			ws.getConflictGraph();
+			ws.getCompatibleSections();
+			for (int round = 0; round < 40; round++) {
+				records.remove(random.nextInt(records.size()));
+				String added = names[random.nextInt(names.length)] + ",Title," + (300 + round) + ",";
+				records.add(random.nextInt(records.size() + 1), added + randomFields(random, instructors));
+				int i = random.nextInt(records.size());
+				String[] fields = records.get(i).split(",");
+				records.set(i, fields[0] + "," + fields[1] + "," + fields[2] + "," + randomFields(random, instructors));
+				if (round % 5 == 4) {
+					//Kept sections that change places
+					Collections.swap(records, random.nextInt(records.size()), random.nextInt(records.size()));
+				}
+				Files.write(catalogFile, records);
+				for (Course c : ws.reloadCatalog().getScheduleChanged()) {
+					scheduled.replaceAll(s -> s.getName().equals(c.getName()) && s.getSection().equals(c.getSection()) ? c : s);
+				}
+
+				WolfScheduler fresh = new WolfScheduler(catalogFile.toString());
+				assertArrayEquals(fresh.getCourseCatalog(), ws.getCourseCatalog());
+				for (String instructorId : new String[] {null, "sesmith5", "newprof", "nobody"}) {
+					for (String meetingDays : new String[] {null, "M", "TH", "A"}) {
+						assertEquals(fresh.findSections(instructorId, meetingDays, 0), ws.findSections(instructorId, meetingDays, 0));
+						assertEquals(fresh.findSections(instructorId, meetingDays, 3), ws.findSections(instructorId, meetingDays, 3));
+					}
+				}
+				for (String name : names) {
+					assertEquals(fresh.getSectionsFromCatalog(name), ws.getSectionsFromCatalog(name));
+				}
+				ConflictGraph graph = ws.getConflictGraph();
+				ConflictGraph freshGraph = fresh.getConflictGraph();
+				assertEquals(freshGraph.size(), graph.size());
+				for (int a = 0; a < graph.size(); a++) {
+					assertArrayEquals(freshGraph.getConflicts(a), graph.getConflicts(a));
+				}
+				//The schedule keeps sections that left the catalog, so the fit is checked directly
+				List<Course> compatible = new ArrayList<Course>();
+				for (String[] row : fresh.getCourseCatalog()) {
+					Course c = fresh.getCourseFromCatalog(row[0], row[1]);
+					boolean fits = true;
+					for (Course s : scheduled) {
+						fits &= !s.getName().equals(c.getName()) && !conflicts(s, c);
+					}
+					if (fits) {
+						compatible.add(c);
+					}
+				}
+				assertEquals(compatible, ws.getCompatibleSections());
+			}
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Returns the fields of a course record after its name, title and section, at random.
+	 * 
+	 * @param random the source of the fields
+	 * @param instructors the instructors to choose from
+	 * @return the credits, instructor, meeting days and times
+	 */
+	private static String randomFields(Random random, String[] instructors) {
+		String[] days = {"MW", "TH", "F", "MWF", "A"};
+		String fields = (random.nextBoolean() ? 3 : 1) + "," + instructors[random.nextInt(instructors.length)] + ",";
+		String meetingDays = days[random.nextInt(days.length)];
+		if ("A".equals(meetingDays)) {
+			return fields + meetingDays;
+		}
+		int start = 800 + 100 * random.nextInt(8) + 30 * random.nextInt(2);
+		return fields + meetingDays + "," + start + "," + (start + (random.nextBoolean() ? 120 : 145));
+	}
+	
+	/**
+	 * Returns true if two Courses conflict.
+	 * 
+	 * @param a one Course
+	 * @param b the other Course
+	 * @return true if they conflict
+	 */
+	private static boolean conflicts(Course a, Course b) {
+		try {
+			a.checkConflict(b);
+			return false;
+		} catch (ConflictException e) {
+			return true;
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler() with a read mode.
+	 */
+	@Test
+	public void testWolfSchedulerReadMode() {
+		WolfScheduler buffered = new WolfScheduler(validTestFile);
+		for (CourseReadMode mode : CourseReadMode.values()) {
+			WolfScheduler ws = new WolfScheduler(validTestFile, mode);
+			assertArrayEquals(buffered.getCourseCatalog(), ws.getCourseCatalog());
+			assertTrue(ws.reloadCatalog().isEmpty());
+		}
+		assertThrows(IllegalArgumentException.class, () -> new WolfScheduler(validTestFile, (CourseReadMode) null));
+		assertThrows(IllegalArgumentException.class, () -> new WolfScheduler("test-files/no_such_file.txt", CourseReadMode.MAPPED));
+	}
+	
+	/**
+	 * Tests WolfScheduler() with a catalog snapshot.
+	 */
+	@Test
+	public void testWolfSchedulerSnapshot() {
+		String snapshotFile = "test-files/actual_catalog.snap";
+		try {
+			WolfScheduler ws1 = new WolfScheduler(validTestFile, snapshotFile);
+			assertTrue(new File(snapshotFile).exists());
+			WolfScheduler ws2 = new WolfScheduler(validTestFile, snapshotFile);
+			assertArrayEquals(ws1.getCourseCatalog(), ws2.getCourseCatalog());
+			assertEquals(13, ws2.getCourseCatalog().length);
+			assertThrows(IllegalArgumentException.class, () -> new WolfScheduler("test-files/no_such_file.txt", snapshotFile));
+		} finally {
+			new File(snapshotFile).delete();
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler.reloadCatalog().
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testReloadCatalog() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_reload_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			Course unchanged = ws.getCourseFromCatalog("CSC 217", "202");
+			assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+			assertTrue(ws.addCourseToSchedule("CSC 116", "003"));
+			assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+			assertTrue(ws.reloadCatalog().isEmpty());
+
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.set(0, "CSC 116,Intro to Programming - Java,001,3,jtking,MW,0910,1100");
+			lines.remove(2);
+			lines.set(3, "CSC 216,Software Development Fundamentals,001,3,sesmith5,MWF,1000,1100");
+			lines.add("CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245");
+			Files.write(catalogFile, lines);
+
+			CatalogChange change = ws.reloadCatalog();
+			assertEquals(1, change.getAdded().size());
+			assertEquals("CSC 492", change.getAdded().get(0).getName());
+			assertEquals(1, change.getRemoved().size());
+			assertEquals("003", change.getRemoved().get(0).getSection());
+			assertEquals(2, change.getChanged().size());
+			assertEquals("jdyoung2", change.getReplaced().get(0).getInstructorId());
+			assertEquals("jtking", change.getChanged().get(0).getInstructorId());
+			assertTrue(change.affectsSchedule());
+			assertEquals(1, change.getScheduleRemoved().size());
+			assertEquals(1, change.getScheduleChanged().size());
+			assertEquals(1, change.getScheduleConflicts().size());
+			assertEquals("MWF", change.getScheduleConflicts().get(0).getMeetingDays());
+
+			assertEquals(13, ws.getCourseCatalog().length);
+			assertNull(ws.getCourseFromCatalog("CSC 116", "003"));
+			assertSame(unchanged, ws.getCourseFromCatalog("CSC 217", "202"));
+			assertEquals("MWF 10:00AM-11:00AM", ws.getScheduledActivities()[0][3]);
+			assertEquals(3, ws.getScheduledActivities().length);
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler() with a lazy catalog and reloading it after the file is rewritten
+	 * in place.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testWolfSchedulerLazy() throws IOException {
+		WolfScheduler eager = new WolfScheduler(validTestFile);
+		WolfScheduler lazy = new WolfScheduler(validTestFile, 2);
+		assertArrayEquals(eager.getCourseCatalog(), lazy.getCourseCatalog());
+		assertEquals(eager.getCourseFromCatalog("CSC 217", "223"), lazy.getCourseFromCatalog("CSC 217", "223"));
+		assertNull(lazy.getCourseFromCatalog("CSC 217", "224"));
+		assertThrows(IllegalArgumentException.class, () -> new WolfScheduler(validTestFile, 0));
+		assertThrows(IllegalArgumentException.class, () -> new WolfScheduler("test-files/no_such_file.txt", 2));
+
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_lazy_reload_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString(), 2);
+			assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+			assertTrue(ws.addCourseToSchedule("CSC 116", "003"));
+			assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+			assertTrue(ws.reloadCatalog().isEmpty());
+
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.set(0, "CSC 116,Intro to Programming - Java,001,3,jtking,MW,0910,1100");
+			lines.remove(2);
+			lines.set(3, "CSC 216,Software Development Fundamentals,001,3,sesmith5,MWF,1000,1100");
+			lines.add("CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245");
+			Files.write(catalogFile, lines);
+
+			//The old records cannot be read back, but the scheduled ones are still compared
+			CatalogChange change = ws.reloadCatalog();
+			assertEquals(1, change.getScheduleRemoved().size());
+			assertEquals(1, change.getScheduleChanged().size());
+			assertEquals(1, change.getScheduleConflicts().size());
+			assertEquals(13, ws.getCourseCatalog().length);
+			assertNull(ws.getCourseFromCatalog("CSC 116", "003"));
+			assertEquals("jtking", ws.getCourseFromCatalog("CSC 116", "001").getInstructorId());
+			assertEquals("MWF 10:00AM-11:00AM", ws.getScheduledActivities()[0][3]);
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests that lookups on a lazy catalog whose file was rewritten in place reload the file
+	 * rather than throw, and fall back to null and the last rows when it cannot be reloaded.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testLazyCatalogRewritten() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_lazy_rewritten_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString(), 1);
+			String[][] rows = ws.getCourseCatalog();
+			assertEquals(13, rows.length);
+
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.add(0, "CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245");
+			Files.write(catalogFile, lines);
+			assertEquals("sesmith5", ws.getCourseFromCatalog("CSC 216", "001").getInstructorId());
+			assertEquals(14, ws.getCourseCatalog().length);
+			assertEquals(3, ws.getSectionsFromCatalog("CSC 216").size());
+
+			Files.write(catalogFile, lines.subList(1, lines.size()));
+			Files.delete(catalogFile);
+			assertNull(ws.getCourseFromCatalog("CSC 116", "003"));
+			assertTrue(ws.getSectionsFromCatalog("CSC 217").isEmpty());
+			assertEquals(14, ws.getCourseCatalog().length);
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests that a lazy catalog keeps returning the scheduled Course objects however many
+	 * others are used, across reloads, and stops once they leave the schedule.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testLazyScheduledPinned() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_lazy_pinned_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString(), 1);
+			assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+			Course scheduled = ws.getCourseFromCatalog("CSC 216", "001");
+			ws.getCourseCatalog();
+			assertSame(scheduled, ws.getCourseFromCatalog("CSC 216", "001"));
+
+			assertTrue(ws.removeActivityFromSchedule(0));
+			ws.getCourseCatalog();
+			assertEquals(scheduled, ws.getCourseFromCatalog("CSC 216", "001"));
+			assertNotSame(scheduled, ws.getCourseFromCatalog("CSC 216", "001"));
+
+			//A reload replaces a lazy catalog, and the scheduled Courses are pinned in the new one
+			assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+			assertTrue(ws.addCourseToSchedule("CSC 116", "003"));
+			scheduled = ws.getCourseFromCatalog("CSC 216", "001");
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.set(2, "CSC 116,Intro to Programming - Java,003,3,tbdimitr,TH,1120,1300");
+			lines.add("CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245");
+			Files.write(catalogFile, lines);
+			CatalogChange change = ws.reloadCatalog();
+			Course changed = change.getScheduleChanged().get(0);
+			ws.getCourseCatalog();
+			assertSame(scheduled, ws.getCourseFromCatalog("CSC 216", "001"));
+			assertSame(changed, ws.getCourseFromCatalog("CSC 116", "003"));
+
+			ws.resetSchedule();
+			ws.getCourseCatalog();
+			assertNotSame(scheduled, ws.getCourseFromCatalog("CSC 216", "001"));
+			assertNotSame(changed, ws.getCourseFromCatalog("CSC 116", "003"));
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler.searchCatalog() and that the search index follows a reload.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testSearchCatalog() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_search_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			assertEquals(3, ws.searchCatalog("csc 216", 0, 10).size());
+			assertEquals("CSC 316", ws.searchCatalog("algorithms", 0, 10).get(0).getName());
+			assertEquals(2, ws.searchCatalog("csc 217", 1, 2).size());
+			assertThrows(IllegalArgumentException.class, () -> ws.searchCatalog("csc", 0, 0));
+
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.set(13, "CSC 316,Data Structures,001,3,jtking,MW,830,945");
+			lines.add("CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245");
+			Files.write(catalogFile, lines);
+			ws.reloadCatalog();
+			assertTrue(ws.searchCatalog("algorithms", 0, 10).isEmpty());
+			assertEquals("Data Structures", ws.searchCatalog("data structures", 0, 10).get(0).getTitle());
+			assertEquals("CSC 492", ws.searchCatalog("senior design", 0, 10).get(0).getName());
+
+			WolfScheduler lazy = new WolfScheduler(catalogFile.toString(), 2);
+			assertEquals(ws.searchCatalog("design", 0, 10), lazy.searchCatalog("design", 0, 10));
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler.findSections(), before and after the catalog changes.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testFindSections() throws IOException {
+		WolfScheduler lazy = new WolfScheduler(validTestFile, 1);
+		assertEquals(4, lazy.findSections("sesmith5", null, 1).size());
+		assertEquals("CSC 316", lazy.findSections("jtking", "MW", 3).get(0).getName());
+
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_find_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			List<Course> sections = ws.findSections("sesmith5", "TH", 3);
+			assertEquals(1, sections.size());
+			assertEquals(ws.getCourseFromCatalog("CSC 216", "001"), sections.get(0));
+			assertEquals(2, ws.findSections(null, "A", 0).size());
+			assertEquals(13, ws.findSections(null, null, 0).size());
+			assertTrue(ws.findSections("sesmith5", "F", 0).isEmpty());
+
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.add("CSC 492,Senior Design,001,3,sesmith5,TH,1130,1245");
+			Files.write(catalogFile, lines);
+			ws.reloadCatalog();
+			assertEquals(2, ws.findSections("sesmith5", "TH", 3).size());
+			assertEquals("CSC 492", ws.findSections("sesmith5", "TH", 3).get(1).getName());
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler.getSectionsInSession(), before and after the catalog changes.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testGetSectionsInSession() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_session_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			assertEquals(2, ws.getSectionsInSession('M', 930).size());
+			assertEquals(2, ws.getSectionsInSession('H', 1100, 1330).size());
+			assertTrue(ws.getSectionsInSession('S', 1200).isEmpty());
+			assertThrows(IllegalArgumentException.class, () -> ws.getSectionsInSession('X', 1200));
+			assertThrows(IllegalArgumentException.class, () -> ws.getSectionsInSession('M', 1260));
+			assertThrows(IllegalArgumentException.class, () -> ws.getSectionsInSession('M', 2400));
+			assertThrows(IllegalArgumentException.class, () -> ws.getSectionsInSession('M', 1300, 1200));
+
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.set(13, "CSC 316,Data Structures and Algorithms,001,3,jtking,TH,830,945");
+			lines.add("CSC 492,Senior Design,001,3,dbsturgi,M,900,1000");
+			Files.write(catalogFile, lines);
+			ws.reloadCatalog();
+			List<Course> sections = ws.getSectionsInSession('M', 930);
+			assertEquals(2, sections.size());
+			assertEquals("CSC 492", sections.get(0).getName());
+			assertEquals("CSC 116", sections.get(1).getName());
+			sections = ws.getSectionsInSession('T', 900);
+			assertEquals(2, sections.size());
+			assertEquals("CSC 217", sections.get(0).getName());
+			assertEquals("CSC 316", sections.get(1).getName());
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests building, saving and loading the conflict graph of the catalog.
+	 * @throws IOException if the graph file cannot be deleted
+	 */
+	@Test
+	public void testConflictGraph() throws IOException {
+		Path graphFile = FileSystems.getDefault().getPath("test-files", "actual_conflict_graph.bin");
+		try {
+			WolfScheduler ws = new WolfScheduler("test-files/starter_course_records.txt");
+			ConflictGraph graph = ws.getConflictGraph();
+			assertSame(graph, ws.getConflictGraph());
+			assertEquals(13, graph.size());
+			assertTrue(graph.conflicts(0, 12));
+			ws.saveConflictGraph(graphFile.toString());
+
+			WolfScheduler other = new WolfScheduler("test-files/starter_course_records.txt");
+			assertTrue(other.loadConflictGraph(graphFile.toString()));
+			assertArrayEquals(graph.getConflicts(0), other.getConflictGraph().getConflicts(0));
+			WolfScheduler different = new WolfScheduler(invalidTestFile);
+			assertFalse(different.loadConflictGraph(graphFile.toString()));
+			assertThrows(IllegalArgumentException.class, () -> ws.saveConflictGraph("nonexistent-dir/graph.bin"));
+		} finally {
+			Files.deleteIfExists(graphFile);
+		}
+	}
+	
+	/**
+	 * Tests that the compatible sections follow the schedule as it changes.
+	 */
+	@Test
+	public void testGetCompatibleSections() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertEquals(13, ws.getCompatibleSections().size());
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		List<Course> sections = ws.getCompatibleSections();
+		assertEquals(10, sections.size());
+		for (Course c : sections) {
+			assertNotEquals("CSC 216", c.getName());
+		}
+
+		//Ends at the start of CSC 116-001 and overlaps CSC 116-002 and CSC 217-202
+		ws.addEventToSchedule("Lunch", "MW", 1100, 1130, "");
+		sections = ws.getCompatibleSections();
+		assertEquals(7, sections.size());
+		assertEquals("CSC 116", sections.get(0).getName());
+		assertEquals("003", sections.get(0).getSection());
+		assertEquals("CSC 217", sections.get(1).getName());
+		assertEquals("211", sections.get(1).getSection());
+		assertEquals("CSC 316", sections.get(6).getName());
+		for (Course c : sections) {
+			assertDoesNotThrow(() -> {
+				WolfScheduler copy = new WolfScheduler(validTestFile);
+				copy.addCourseToSchedule("CSC 216", "001");
+				copy.addEventToSchedule("Lunch", "MW", 1100, 1130, "");
+				copy.addCourseToSchedule(c.getName(), c.getSection());
+			});
+		}
+
+		assertTrue(ws.removeActivityFromSchedule(0));
+		assertEquals(10, ws.getCompatibleSections().size());
+		ws.resetSchedule();
+		assertEquals(13, ws.getCompatibleSections().size());
+	}
+	
+	/**
+	 * Tests generating schedules from a wishlist.
+	 */
+	@Test
+	public void testGenerateSchedules() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		//CSC 316 conflicts with CSC 116-001, and CSC 230 with CSC 116-002
+		List<List<Course>> schedules = ws.generateSchedules("CSC 116, CSC 316, CSC 230", 10, 10000).collect(Collectors.toList());
+		assertEquals(1, schedules.size());
+		assertEquals("003", schedules.get(0).get(0).getSection());
+		assertEquals("CSC 316", schedules.get(0).get(1).getName());
+		assertEquals("CSC 230", schedules.get(0).get(2).getName());
+
+		assertEquals(12, ws.generateSchedules("CSC 216, CSC 217, CSC 226", 100, 10000).count());
+		assertEquals(5, ws.generateSchedules("CSC 216,CSC 217,CSC 226", 5, 10000).count());
+		//Overlaps CSC 217-202, which leaves 3 sections of CSC 216 and 3 of CSC 217
+		ws.addEventToSchedule("Lunch", "M", 1200, 1230, "");
+		for (List<Course> schedule : ws.generateSchedules("CSC 216, CSC 217, CSC 226", 100, 10000).collect(Collectors.toList())) {
+			assertEquals(3, schedule.size());
+			assertNotEquals("202", schedule.get(1).getSection());
+		}
+		assertEquals(9, ws.generateSchedules("CSC 216, CSC 217, CSC 226", 100, 10000).count());
+		//Already scheduled, not in the catalog, or on the wishlist twice
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		assertEquals(0, ws.generateSchedules("CSC 216, CSC 226", 100, 10000).count());
+		assertEquals(0, ws.generateSchedules("CSC 216, CSC 999", 100, 10000).count());
+		assertEquals(0, ws.generateSchedules("CSC 216, CSC 216", 100, 10000).count());
+
+		assertThrows(IllegalArgumentException.class, () -> ws.generateSchedules(" , ", 100, 10000));
+		assertThrows(IllegalArgumentException.class, () -> ws.generateSchedules(null, 100, 10000));
+		assertThrows(IllegalArgumentException.class, () -> ws.generateSchedules("CSC 216", 0, 10000));
+		assertThrows(IllegalArgumentException.class, () -> ws.generateSchedules("CSC 216", 10, 0));
+	}
+	
+	/**
+	 * Tests ranking schedules from a wishlist by preferences.
+	 */
+	@Test
+	public void testOptimizeSchedule() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		SchedulePreferences preferences = new SchedulePreferences(800, 0, 100, 1, 1000);
+		//CSC 226 meets MWF; the arranged sections of CSC 216 and CSC 217 add no days or gaps
+		List<RankedSchedule> ranked = ws.optimizeSchedule("CSC 216, CSC 217, CSC 226", preferences, 3, 10000);
+		assertEquals(3, ranked.size());
+		assertEquals(300, ranked.get(0).getScore());
+		assertEquals("601", ((Course) ranked.get(0).getActivities().get(0)).getSection());
+		assertEquals("601", ((Course) ranked.get(0).getActivities().get(1)).getSection());
+		//CSC 217-202 on Monday leaves 15 minutes after CSC 226, and CSC 217-211 adds Tuesday
+		assertEquals(315, ranked.get(1).getScore());
+		assertEquals(400, ranked.get(2).getScore());
+
+		//The scheduled section of a wishlist course can be swapped, other courses are kept
+		assertTrue(ws.addCourseToSchedule("CSC 217", "223"));
+		assertTrue(ws.addCourseToSchedule("CSC 116", "003"));
+		ws.addEventToSchedule("Work", "M", 1000, 1100, "");
+		ranked = ws.optimizeSchedule("CSC 216, CSC 217, CSC 226", preferences, 10, 10000);
+		assertEquals(10, ranked.size());
+		//Work conflicts with every section of CSC 226
+		assertEquals(1000 + 500 + 0, ranked.get(0).getScore());
+		assertEquals(4, ranked.get(0).getActivities().size());
+		for (RankedSchedule schedule : ranked) {
+			WolfScheduler copy = new WolfScheduler(validTestFile);
+			for (Activity activity : schedule.getActivities()) {
+				if (activity instanceof Course) {
+					Course c = (Course) activity;
+					assertTrue(copy.addCourseToSchedule(c.getName(), c.getSection()));
+				} else {
+					copy.addEventToSchedule(activity.getTitle(), "M", 1000, 1100, "");
+				}
+			}
+		}
+		assertEquals("CSC 116", ((Course) ranked.get(0).getActivities().get(0)).getName());
+		ranked = ws.optimizeSchedule("CSC 216, CSC 217", preferences, 10, 10000);
+		assertEquals("Work", ranked.get(0).getActivities().get(1).getTitle());
+
+		assertEquals(0, ws.optimizeSchedule("CSC 216, CSC 999", preferences, 10, 10000).size());
+		assertEquals(0, ws.optimizeSchedule("CSC 216, CSC 216", preferences, 10, 10000).size());
+		assertThrows(IllegalArgumentException.class, () -> ws.optimizeSchedule("", preferences, 10, 10000));
+		assertThrows(IllegalArgumentException.class, () -> ws.optimizeSchedule("CSC 216", null, 10, 10000));
+		assertThrows(IllegalArgumentException.class, () -> ws.optimizeSchedule("CSC 216", preferences, 0, 10000));
+		assertThrows(IllegalArgumentException.class, () -> new SchedulePreferences(2400, 0, 0, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new SchedulePreferences(800, -1, 0, 0, 0));
+	}
+	
+	/**
+	 * Tests that the display arrays are shared between calls, that they follow changes made
+	 * through the setters of the Courses and Events they show, and that building new
+	 * activities does not rebuild them.
+	 */
+	@Test
+	public void testDisplayRowsShared() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		ws.addEventToSchedule(EVENT_TITLE, "F", 800, 900, EVENT_DETAILS);
+		String[][] catalog = ws.getCourseCatalog();
+		String[][] schedule = ws.getScheduledActivities();
+		String[][] fullSchedule = ws.getFullScheduledActivities();
+		new Course("CSC 492", "Senior Design Project", "001", 3, "dbsturgi", "TH", 1130, 1245);
+		new Event("Lunch", "MTWHF", 1200, 1300, "");
+		assertSame(catalog, ws.getCourseCatalog());
+		assertSame(schedule, ws.getScheduledActivities());
+		assertSame(fullSchedule, ws.getFullScheduledActivities());
+
+		ws.getCourseFromCatalog("CSC 116", "001").setTitle("Programming Concepts - Java");
+		assertEquals("Programming Concepts - Java", ws.getCourseCatalog()[0][2]);
+		Course scheduled = ws.getCourseFromCatalog("CSC 216", "001");
+		scheduled.setMeetingDaysAndTime("MW", 1330, 1445);
+		assertEquals("MW 1:30PM-2:45PM", ws.getScheduledActivities()[0][3]);
+		assertEquals("MW 1:30PM-2:45PM", ws.getFullScheduledActivities()[0][5]);
+		scheduled.setInstructorId("jtking");
+		assertEquals("jtking", ws.getFullScheduledActivities()[0][4]);
+		assertSame(ws.getFullScheduledActivities(), ws.getFullScheduledActivities());
+	}
+	
+	/**
+	 * Tests that the display rows are reused until the catalog or schedule changes.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testDisplaySnapshots() throws IOException {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_snapshot_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			String[][] catalog = ws.getCourseCatalog();
+			String[][] schedule = ws.getScheduledActivities();
+			String[][] fullSchedule = ws.getFullScheduledActivities();
+			assertSame(catalog, ws.getCourseCatalog());
+			assertSame(schedule, ws.getScheduledActivities());
+			assertSame(fullSchedule, ws.getFullScheduledActivities());
+
+			//A schedule change leaves the catalog rows alone
+			assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+			assertSame(catalog, ws.getCourseCatalog());
+			schedule = ws.getScheduledActivities();
+			assertEquals(1, schedule.length);
+			assertEquals(1, ws.getFullScheduledActivities().length);
+			assertSame(schedule, ws.getScheduledActivities());
+
+			assertFalse(ws.addCourseToSchedule("CSC 999", "001"));
+			assertSame(schedule, ws.getScheduledActivities());
+			assertFalse(ws.removeActivityFromSchedule(5));
+			assertSame(schedule, ws.getScheduledActivities());
+
+			ws.addEventToSchedule(EVENT_TITLE, "F", 800, 900, EVENT_DETAILS);
+			assertEquals(2, ws.getScheduledActivities().length);
+			assertEquals(EVENT_TITLE, ws.getFullScheduledActivities()[1][2]);
+			assertTrue(ws.removeActivityFromSchedule(1));
+			assertEquals(1, ws.getFullScheduledActivities().length);
+
+			//An unchanged file keeps the rows, a changed one rebuilds them
+			ws.reloadCatalog();
+			assertSame(catalog, ws.getCourseCatalog());
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.set(4, "CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445");
+			Files.write(catalogFile, lines);
+			ws.reloadCatalog();
+			assertNotSame(catalog[0][3], ws.getCourseCatalog()[0][3]);
+			assertEquals("MW 1:30PM-2:45PM", ws.getCourseCatalog()[3][3]);
+			assertEquals("MW 1:30PM-2:45PM", ws.getScheduledActivities()[0][3]);
+			assertEquals("MW 1:30PM-2:45PM", ws.getFullScheduledActivities()[0][5]);
+
+			ws.resetSchedule();
+			assertEquals(0, ws.getScheduledActivities().length);
+			assertEquals(0, ws.getFullScheduledActivities().length);
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests WolfScheduler.watchCatalog().
+	 * @throws Exception if the catalog file cannot be written or the wait is interrupted
+	 */
+	@Test
+	public void testWatchCatalog() throws Exception {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_watch_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			CountDownLatch reloaded = new CountDownLatch(1);
+			CatalogWatcher watcher = ws.watchCatalog(Runnable::run, change -> reloaded.countDown());
+			try {
+				//The starter file does not end with a newline
+				Files.writeString(catalogFile, "\nCSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245\n",
+						StandardOpenOption.APPEND);
+				assertTrue(reloaded.await(10, TimeUnit.SECONDS));
+			} finally {
+				watcher.close();
+			}
+			assertNotNull(ws.getCourseFromCatalog("CSC 492", "001"));
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
+	/**
+	 * Tests that watchCatalog() keeps watching after a reload fails.
+	 * @throws Exception if the catalog file cannot be written or the wait is interrupted
+	 */
+	@Test
+	public void testWatchCatalogFailure() throws Exception {
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_watch_failure_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			CountDownLatch failed = new CountDownLatch(1);
+			CountDownLatch reloaded = new CountDownLatch(1);
+			AtomicBoolean fail = new AtomicBoolean(true);
+			CatalogWatcher watcher = ws.watchCatalog(Runnable::run, change -> {
+				if (fail.getAndSet(false)) {
+					throw new IllegalStateException("Listener failed");
+				}
+				reloaded.countDown();
+			}, e -> failed.countDown());
+			try {
+				Files.writeString(catalogFile, "\nCSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245\n",
+						StandardOpenOption.APPEND);
+				//The listener's failure reaches the watch thread, which goes on watching
+				long deadline = System.currentTimeMillis() + 10000;
+				while (ws.getCourseFromCatalog("CSC 492", "001") == null && System.currentTimeMillis() < deadline) {
+					Thread.sleep(50);
+				}
+				Thread.sleep(500);
+				Files.writeString(catalogFile, "CSC 492,Senior Design,002,3,dbsturgi,MW,1130,1245\n",
+						StandardOpenOption.APPEND);
+				assertTrue(reloaded.await(10, TimeUnit.SECONDS));
+			} finally {
+				watcher.close();
+			}
+			assertEquals(1, failed.getCount());
+			assertNotNull(ws.getCourseFromCatalog("CSC 492", "002"));
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
 	/**
 	 * Test WolfScheduler.getCourseFromCatalog().
 	 */
@@ -105,6 +839,48 @@ public class WolfSchedulerTest {
 		assertEquals(c, ws.getCourseFromCatalog("CSC 216", "001"));
 	}
 	
+	/**
+	 * Test WolfScheduler.getSectionsFromCatalog(), with and without a lazy catalog, and after
+	 * the catalog is reloaded.
+	 * @throws IOException if the catalog file cannot be written
+	 */
+	@Test
+	public void testGetSectionsFromCatalog() throws IOException {
+		for (WolfScheduler ws : new WolfScheduler[] {new WolfScheduler(validTestFile), new WolfScheduler(validTestFile, 1)}) {
+			List<Course> sections = ws.getSectionsFromCatalog("CSC 217");
+			assertEquals(4, sections.size());
+			assertEquals("202", sections.get(0).getSection());
+			assertEquals("601", sections.get(3).getSection());
+			assertEquals(sections.get(2), ws.getCourseFromCatalog("CSC 217", "223"));
+			//The duplicate CSC 116 002 is not a section
+			assertEquals(3, ws.getSectionsFromCatalog("CSC 116").size());
+			assertTrue(ws.getSectionsFromCatalog("CSC 492").isEmpty());
+			assertTrue(ws.getSectionsFromCatalog(null).isEmpty());
+			assertNull(ws.getCourseFromCatalog(null, "001"));
+			assertThrows(UnsupportedOperationException.class, () -> sections.remove(0));
+		}
+
+		Path catalogFile = FileSystems.getDefault().getPath("test-files", "actual_index_records.txt");
+		Files.copy(FileSystems.getDefault().getPath("test-files", "starter_course_records.txt"), catalogFile,
+				StandardCopyOption.REPLACE_EXISTING);
+		try {
+			WolfScheduler ws = new WolfScheduler(catalogFile.toString());
+			List<String> lines = new ArrayList<String>(Files.readAllLines(catalogFile));
+			lines.remove(2);
+			lines.add("CSC 116,Intro to Programming - Java,004,3,jtking,F,910,1100");
+			lines.add("CSC 492,Senior Design,001,3,dbsturgi,TH,1130,1245");
+			Files.write(catalogFile, lines);
+			ws.reloadCatalog();
+			List<Course> sections = ws.getSectionsFromCatalog("CSC 116");
+			assertEquals(3, sections.size());
+			assertEquals("004", sections.get(2).getSection());
+			assertNull(ws.getCourseFromCatalog("CSC 116", "003"));
+			assertEquals("Senior Design", ws.getCourseFromCatalog("CSC 492", "001").getTitle());
+		} finally {
+			Files.deleteIfExists(catalogFile);
+		}
+	}
+	
 	/**
 	 * Test WolfScheduler.addCourse().
 	 */
@@ -433,6 +1209,41 @@ public class WolfSchedulerTest {
 		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
 	}
 	
+	/**
+	 * Test WolfScheduler.exportScheduleAsync().
+	 */
+	@Test
+	public void testExportScheduleAsync() throws Exception {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		ws.addCourseToSchedule("CSC 216", "002");
+		ws.addCourseToSchedule("CSC 226", "001");
+		
+		//The schedule is copied when the export is asked for, not when it runs
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		CompletableFuture<Void> export = ws.exportScheduleAsync("test-files/actual_schedule_export.txt", tasks::add);
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		assertFalse(export.isDone());
+		tasks.get(0).run();
+		export.get(1, TimeUnit.SECONDS);
+		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
+		
+		//A cancelled export does not touch the file
+		Path cancelled = Path.of("test-files/actual_cancelled_export.txt");
+		Files.deleteIfExists(cancelled);
+		tasks.clear();
+		export = ws.exportScheduleAsync(cancelled.toString(), tasks::add);
+		assertTrue(export.cancel(false));
+		tasks.get(0).run();
+		assertTrue(export.isCancelled());
+		assertFalse(Files.exists(cancelled));
+		
+		//A failed export completes with the same exception exportSchedule() throws
+		export = ws.exportScheduleAsync("test-files/no_such_directory/export.txt", Runnable::run);
+		ExecutionException e = assertThrows(ExecutionException.class, export::get);
+		assertTrue(e.getCause() instanceof IllegalArgumentException);
+		assertEquals("The file cannot be saved.", e.getCause().getMessage());
+	}
+	
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output